@@ -0,0 +1,133 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for the URL shortener.
+ * Runs a fixed number of concurrent workers for a fixed duration and reports
+ * throughput and latency percentiles. Requires Java 11+ and no dependencies:
+ *
+ *   java scripts/LoadTest.java redirect http://localhost:8080 200 30 codes.txt
+ *   java scripts/LoadTest.java shorten  http://localhost:8080 200 30
+ *
+ * Arguments: mode (redirect|shorten), base URL, concurrency, duration in seconds,
+ * and for redirect mode a file with one short code per line. Several base URLs
+ * separated by commas are picked at random per request, like a load balancer.
+ */
+public class LoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: LoadTest redirect|shorten <baseUrl> <concurrency> <seconds> [codesFile]");
+            System.exit(2);
+        }
+        String mode = args[0];
+        String[] baseUrls = args[1].split(",");
+        int concurrency = Integer.parseInt(args[2]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+        List<String> codes = mode.equals("redirect")
+                ? java.nio.file.Files.readAllLines(java.nio.file.Path.of(args[4]))
+                : List.of();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+
+        AtomicLong sequence = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            results.add(workers.submit(() -> {
+                long[] latencies = new long[1 << 16];
+                int count = 0;
+                while (true) {
+                    long n = sequence.getAndIncrement();
+                    // Independent of the code, so each node sees every code
+                    String baseUrl = baseUrls[java.util.concurrent.ThreadLocalRandom.current().nextInt(baseUrls.length)];
+                    HttpRequest request = mode.equals("redirect")
+                            ? HttpRequest.newBuilder(URI.create(baseUrl + "/" + codes.get((int) (n % codes.size())))).GET().build()
+                            : HttpRequest.newBuilder(URI.create(baseUrl + "/shorten"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"longUrl\":\"https://load.example.com/" + System.nanoTime() + "/" + n + "\"}"))
+                                .build();
+
+                    long start = System.nanoTime();
+                    if (start >= end) {
+                        break;
+                    }
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        int status = response.statusCode();
+                        if (status != 302 && status != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    long finish = System.nanoTime();
+
+                    if (start >= warmupEnd) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = finish - start;
+                    }
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long total = 0;
+        List<long[]> all = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            all.add(latencies);
+            total += latencies.length;
+        }
+        workers.shutdown();
+
+        long[] merged = new long[(int) total];
+        int offset = 0;
+        for (long[] latencies : all) {
+            System.arraycopy(latencies, 0, merged, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(merged);
+
+        System.out.printf("mode=%s concurrency=%d duration=%ds requests=%d errors=%d%n",
+                mode, concurrency, duration.getSeconds(), total, errors.get());
+        System.out.printf("throughput=%.0f req/s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                total / (double) duration.getSeconds(),
+                percentile(merged, 0.50), percentile(merged, 0.99),
+                percentile(merged, 0.999), merged.length == 0 ? 0 : merged[merged.length - 1] / 1e6);
+        System.exit(0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
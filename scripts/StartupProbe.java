@@ -0,0 +1,138 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures how quickly a freshly launched URL shortener becomes useful. Waits
+ * for the readiness probe, sends one redirect, then runs closed-loop redirect
+ * load and reports the p99 of every one-second window. Times are counted from
+ * the given launch time of the server process:
+ *
+ *   java scripts/StartupProbe.java http://localhost:8080 codes.txt 16 60 $(date +%s%3N)
+ *
+ * Arguments: base URL, a file with one short code per line, concurrency,
+ * seconds of load, and the launch time in epoch milliseconds. The steady p99
+ * is the median window p99 of the last third of the run; steady state starts
+ * with the first window after which no window exceeds 1.5 times that.
+ */
+public class StartupProbe {
+
+    private static final double STEADY_MARGIN = 1.5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("usage: StartupProbe <baseUrl> <codesFile> <concurrency> <seconds> <launchEpochMillis>");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        List<String> codes = java.nio.file.Files.readAllLines(java.nio.file.Path.of(args[1]));
+        int concurrency = Integer.parseInt(args[2]);
+        int seconds = Integer.parseInt(args[3]);
+        long launch = Long.parseLong(args[4]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).GET().build();
+        while (true) {
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    break;
+                }
+            } catch (Exception e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        long ready = System.currentTimeMillis() - launch;
+
+        HttpRequest first = HttpRequest.newBuilder(URI.create(baseUrl + "/" + codes.get(0))).GET().build();
+        int firstStatus = client.send(first, HttpResponse.BodyHandlers.discarding()).statusCode();
+        long firstRedirect = System.currentTimeMillis() - launch;
+
+        // Window of each request by its start, counted from the first redirect
+        long loadStart = System.nanoTime();
+        long end = loadStart + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[][]>> results = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            results.add(workers.submit(() -> {
+                long[][] latencies = new long[seconds][];
+                int[] counts = new int[seconds];
+                while (true) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(
+                            baseUrl + "/" + codes.get(ThreadLocalRandom.current().nextInt(codes.size())))).GET().build();
+                    long start = System.nanoTime();
+                    if (start >= end) {
+                        break;
+                    }
+                    try {
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                    } catch (Exception e) {
+                        // Counted by its latency like any slow response
+                    }
+                    int window = (int) ((start - loadStart) / 1_000_000_000L);
+                    if (latencies[window] == null) {
+                        latencies[window] = new long[1024];
+                    } else if (counts[window] == latencies[window].length) {
+                        latencies[window] = Arrays.copyOf(latencies[window], counts[window] * 2);
+                    }
+                    latencies[window][counts[window]++] = System.nanoTime() - start;
+                }
+                for (int i = 0; i < seconds; i++) {
+                    latencies[i] = latencies[i] == null ? new long[0] : Arrays.copyOf(latencies[i], counts[i]);
+                }
+                return latencies;
+            }));
+        }
+
+        double[] p99 = new double[seconds];
+        int[] requests = new int[seconds];
+        List<long[][]> all = new ArrayList<>();
+        for (Future<long[][]> result : results) {
+            all.add(result.get());
+        }
+        workers.shutdown();
+        for (int i = 0; i < seconds; i++) {
+            long[] merged = new long[0];
+            for (long[][] latencies : all) {
+                int offset = merged.length;
+                merged = Arrays.copyOf(merged, offset + latencies[i].length);
+                System.arraycopy(latencies[i], 0, merged, offset, latencies[i].length);
+            }
+            Arrays.sort(merged);
+            requests[i] = merged.length;
+            p99[i] = merged.length == 0 ? 0 : merged[(int) Math.ceil(0.99 * merged.length) - 1] / 1e6;
+        }
+
+        double[] tail = Arrays.copyOfRange(p99, seconds - Math.max(1, seconds / 3), seconds);
+        Arrays.sort(tail);
+        double steadyP99 = tail[tail.length / 2];
+        int steadyWindow = seconds;
+        while (steadyWindow > 0 && p99[steadyWindow - 1] <= steadyP99 * STEADY_MARGIN) {
+            steadyWindow--;
+        }
+
+        StringBuilder windows = new StringBuilder();
+        for (int i = 0; i < seconds; i++) {
+            windows.append(String.format(" %.1f", p99[i]));
+        }
+        System.out.println("window_p99_ms=" + windows.toString().trim());
+        System.out.printf("ready=%dms first_redirect=%dms (status %d) steady_p99=%.2fms steady_after=%dms requests=%d%n",
+                ready, firstRedirect, firstStatus, steadyP99, firstRedirect + steadyWindow * 1000L,
+                Arrays.stream(requests).sum());
+        System.exit(0);
+    }
+}
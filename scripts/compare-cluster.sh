@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Runs GET /{shortUrl} load against clusters of 1, 2, ... nodes on this machine and
+# reports throughput per size. Nodes use the cluster profile with the HTTP transport
+# and share one H2 database in auto-server mode. Each node gets the same CPU share
+# only if the machine has a core per node and per load generator thread; on fewer
+# cores the numbers show the routing overhead instead of the scaling.
+# Usage: scripts/compare-cluster.sh [sizes] [concurrency] [seconds] [seed-urls]
+# Extra node arguments go in NODE_ARGS, e.g. NODE_ARGS=--url-shortener.cluster.near-cache.ttl=0
+set -euo pipefail
+
+SIZES=${1:-"1 2 4"}
+CONCURRENCY=${2:-64}
+SECONDS_PER_RUN=${3:-30}
+SEED=${4:-10000}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+WORK=$(mktemp -d)
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+cd "$(dirname "$0")/.."
+mvn -B -q -DskipTests package
+JAR=target/url-shortener-api-1.0.0.jar
+
+run_cluster() {
+    local size=$1 members="" urls=""
+    for i in $(seq 1 "$size"); do
+        members="${members:+$members,}node-$i=http://localhost:$((18079 + i))"
+        urls="${urls:+$urls,}http://localhost:$((18079 + i))"
+    done
+
+    rm -rf "$WORK/data"
+    PIDS=()
+    for i in $(seq 1 "$size"); do
+        "$JAVA" -Xmx512m -jar "$JAR" --spring.profiles.active=cluster --server.port=$((18079 + i)) \
+            --url-shortener.cluster.node-id=node-$i --url-shortener.cluster.nodes="$members" --url-shortener.cluster.secret=compare-cluster \
+            --url-shortener.rate-limit.enabled=false --url-shortener.clicks.enabled=false ${NODE_ARGS:-} \
+            --spring.datasource.url="jdbc:h2:file:$WORK/data/urlshortener;AUTO_SERVER=TRUE" \
+            > "$WORK/node-$i.log" 2>&1 &
+        PIDS+=($!)
+        # The first node creates the schema before the others connect
+        until curl -sf "http://localhost:$((18079 + i))/actuator/health" > /dev/null; do
+            kill -0 "${PIDS[-1]}" 2>/dev/null || { tail -20 "$WORK/node-$i.log"; exit 1; }
+            sleep 1
+        done
+    done
+
+    # Seeded through node 1; the invalidation bus adds the codes to every node's lookup filter
+    seq 1 "$SEED" | sed 's|.*|"https://seed.example.com/&"|' \
+        | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- http://localhost:18080/shorten/batch \
+        | grep -o '"shortUrl":"[^"]*"' | cut -d'"' -f4 > "$WORK/codes.txt"
+    sleep 1
+
+    echo "== $size node(s)"
+    "$JAVA" scripts/LoadTest.java redirect "$urls" "$CONCURRENCY" "$SECONDS_PER_RUN" "$WORK/codes.txt"
+    for i in $(seq 1 "$size"); do
+        local base="http://localhost:$((18079 + i))/actuator/metrics/url.shortener.cluster.lookups"
+        echo "node-$i lookups:" \
+             "local=$(curl -s "$base?tag=route:local" | grep -o '"value":[0-9.E]*' | cut -d: -f2)" \
+             "near=$(curl -s "$base?tag=route:near" | grep -o '"value":[0-9.E]*' | cut -d: -f2)" \
+             "remote=$(curl -s "$base?tag=route:remote" | grep -o '"value":[0-9.E]*' | cut -d: -f2)" \
+             "fallback=$(curl -s "$base?tag=route:fallback" | grep -o '"value":[0-9.E]*' | cut -d: -f2)"
+    done
+
+    kill "${PIDS[@]}"
+    wait "${PIDS[@]}" 2>/dev/null || true
+}
+
+for size in $SIZES; do
+    run_cluster "$size"
+done
@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Compares GET /{shortUrl} on the Spring MVC stack and on the reactive redirect server
+# at high connection counts. Both runs use the read-replica profile so lookups never
+# touch the database; only the HTTP stack differs.
+# Usage: scripts/compare-redirect-stacks.sh [concurrency] [seconds] [seed-urls]
+# Raise the open file limit first for 10K+ connections, e.g. ulimit -n 65536
+set -euo pipefail
+
+CONCURRENCY=${1:-10000}
+SECONDS_PER_RUN=${2:-30}
+SEED=${3:-10000}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+WORK=$(mktemp -d)
+trap 'kill $APP_PID 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+cd "$(dirname "$0")/.."
+mvn -B -q -DskipTests package
+JAR=target/url-shortener-api-1.0.0.jar
+
+# Resident memory in KB and thread count of a process
+sample() {
+    ps -o rss=,nlwp= -p "$1" | awk '{print $1, $2}'
+}
+
+run_stack() {
+    local stack=$1 profiles=$2 port=$3
+    rm -rf "$WORK/data"
+    "$JAVA" -Xmx1g -jar "$JAR" --spring.profiles.active="$profiles" \
+        --url-shortener.rate-limit.enabled=false \
+        --spring.datasource.url="jdbc:h2:file:$WORK/data/urlshortener;DB_CLOSE_ON_EXIT=FALSE" \
+        > "$WORK/$stack.log" 2>&1 &
+    APP_PID=$!
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+    seq 1 "$SEED" | sed 's|.*|"https://seed.example.com/&"|' \
+        | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- http://localhost:8080/shorten/batch \
+        | grep -o '"shortUrl":"[^"]*"' | cut -d'"' -f4 > "$WORK/codes.txt"
+
+    read -r idle_rss idle_threads < <(sample $APP_PID)
+    "$JAVA" -Xss256k scripts/LoadTest.java redirect "http://localhost:$port" "$CONCURRENCY" "$SECONDS_PER_RUN" \
+        "$WORK/codes.txt" > "$WORK/$stack.out" &
+    local load_pid=$!
+    # Sample halfway through the measured window (after the 5 s warm-up)
+    sleep $((5 + SECONDS_PER_RUN / 2))
+    read -r load_rss load_threads < <(sample $APP_PID)
+    wait $load_pid
+
+    echo "== $stack"
+    cat "$WORK/$stack.out"
+    echo "rss idle=$((idle_rss / 1024))MB load=$((load_rss / 1024))MB" \
+         "per-connection=$(( (load_rss - idle_rss) * 1024 / CONCURRENCY ))B" \
+         "threads idle=$idle_threads load=$load_threads"
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+}
+
+run_stack mvc read-replica 8080
+run_stack reactive read-replica,reactive-redirects 8081
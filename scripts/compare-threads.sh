@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread modes under the same Java 21 JVM.
+# Usage: JAVA_HOME=/path/to/jdk21 scripts/compare-threads.sh [concurrency] [seconds] [seed-urls]
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+SECONDS_PER_RUN=${2:-30}
+SEED=${3:-10000}
+PORT=${PORT:-18080}
+BASE=http://localhost:$PORT
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+WORK=$(mktemp -d)
+trap 'kill $APP_PID 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjava21 -DskipTests package
+JAR=target/url-shortener-api-1.0.0.jar
+
+run_mode() {
+    local mode=$1 profiles=$2
+    rm -rf "$WORK/data"
+    "$JAVA" -Xmx1g -jar "$JAR" --server.port=$PORT --spring.profiles.active="$profiles" \
+        --spring.datasource.url="jdbc:h2:file:$WORK/data/urlshortener;DB_CLOSE_ON_EXIT=FALSE" \
+        > "$WORK/$mode.log" 2>&1 &
+    APP_PID=$!
+    until curl -sf $BASE/actuator/health > /dev/null; do sleep 1; done
+
+    # Seed short codes for the redirect run
+    seq 1 "$SEED" | sed 's|.*|"https://seed.example.com/&"|' \
+        | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- $BASE/shorten/batch \
+        | grep -o '"shortUrl":"[^"]*"' | cut -d'"' -f4 > "$WORK/codes.txt"
+
+    echo "== $mode"
+    "$JAVA" scripts/LoadTest.java redirect $BASE "$CONCURRENCY" "$SECONDS_PER_RUN" "$WORK/codes.txt"
+    "$JAVA" scripts/LoadTest.java shorten $BASE "$CONCURRENCY" "$SECONDS_PER_RUN"
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
@@ -0,0 +1,49 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files, e.g. from two commits.
+
+Usage: scripts/jmh-compare.py baseline.json candidate.json
+
+Prints score and allocation per operation for every benchmark/parameter
+combination present in both files, with the relative change.
+"""
+import json
+import sys
+
+
+def load(path):
+    results = {}
+    with open(path) as f:
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            key = run["benchmark"].rsplit(".", 2)[-2] + "." + run["benchmark"].rsplit(".", 1)[-1]
+            if params:
+                key += " [" + params + "]"
+            alloc = run.get("secondaryMetrics", {}).get("gc.alloc.rate.norm", {}).get("score")
+            results[key] = (run["primaryMetric"]["score"], run["primaryMetric"]["scoreUnit"], alloc)
+    return results
+
+
+def change(before, after):
+    if before is None or after is None or before == 0:
+        return "n/a"
+    return f"{(after - before) / before * 100:+.1f}%"
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit(__doc__)
+    baseline, candidate = load(sys.argv[1]), load(sys.argv[2])
+
+    print(f"{'benchmark':<60} {'baseline':>12} {'candidate':>12} {'change':>8} {'B/op change':>12}")
+    for key in sorted(baseline.keys() & candidate.keys()):
+        score_before, unit, alloc_before = baseline[key]
+        score_after, _, alloc_after = candidate[key]
+        print(f"{key:<60} {score_before:>12.3f} {score_after:>12.3f} {change(score_before, score_after):>8}"
+              f" {change(alloc_before, alloc_after):>12}  {unit}")
+
+    for key in sorted(baseline.keys() ^ candidate.keys()):
+        print(f"{key:<60} only in {'baseline' if key in baseline else 'candidate'}")
+
+
+if __name__ == "__main__":
+    main()
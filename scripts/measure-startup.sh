@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Measures restarts of a seeded deployment: time to readiness, to the first redirect
+# and to a steady redirect p99, first as shipped before fast boot, then adding the
+# fast-boot profile, the startup warm-up and an AppCDS archive one at a time.
+# Usage: scripts/measure-startup.sh [seed-urls] [concurrency] [seconds]
+set -euo pipefail
+
+SEED=${1:-100000}
+CONCURRENCY=${2:-16}
+SECONDS_PER_RUN=${3:-60}
+PORT=${PORT:-18080}
+BASE=http://localhost:$PORT
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+WORK=$(mktemp -d)
+trap 'kill $APP_PID 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+cd "$(dirname "$0")/.."
+mvn -B -q -DskipTests package
+JAR=$PWD/target/url-shortener-api-1.0.0.jar
+scripts/unpack-jar.sh "$JAR" "$WORK/app"
+ARGS=(--server.port=$PORT --spring.datasource.url="jdbc:h2:file:$WORK/data/urlshortener;DB_CLOSE_ON_EXIT=FALSE")
+
+stop() {
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+}
+
+# Seed mappings, and clicks on a thousand of them that take 90% of the probe's redirects
+"$JAVA" -jar "$JAR" "${ARGS[@]}" --spring.profiles.active=docker > "$WORK/seed.log" 2>&1 &
+APP_PID=$!
+until curl -sf $BASE/actuator/health/readiness > /dev/null; do sleep 1; done
+seq 1 "$SEED" | sed 's|.*|"https://seed.example.com/articles/&?utm_source=startup"|' \
+    | curl -sf -X POST -H 'Content-Type: application/x-ndjson' --data-binary @- $BASE/shorten/batch \
+    | grep -o '"shortUrl":"[^"]*"' | cut -d'"' -f4 > "$WORK/all.txt"
+shuf -n 1000 "$WORK/all.txt" > "$WORK/hot.txt"
+"$JAVA" scripts/LoadTest.java redirect $BASE 8 5 "$WORK/hot.txt" > /dev/null
+{ for _ in $(seq 1 9); do cat "$WORK/hot.txt"; done; shuf -n 1000 "$WORK/all.txt"; } | shuf > "$WORK/codes.txt"
+# Graceful shutdown flushes the pending clicks
+stop
+
+# Classes loaded while the context starts, archived by a run that exits after refresh
+(cd "$WORK/app" && "$JAVA" -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh @classpath.args \
+    com.example.urlshortener.UrlShortenerApplication --spring.profiles.active=docker \
+    --spring.datasource.url=jdbc:h2:mem:cds --logging.level.root=WARN > "$WORK/cds.log" 2>&1)
+
+run() {
+    local name=$1
+    shift
+    local launch
+    launch=$(date +%s%3N)
+    # From the unpacked directory, where the classpath file's relative paths point
+    (cd "$WORK/app" && exec "$@" "${ARGS[@]}" > "$WORK/$name.log" 2>&1) &
+    APP_PID=$!
+    echo "== $name"
+    "$JAVA" scripts/StartupProbe.java $BASE "$WORK/codes.txt" "$CONCURRENCY" "$SECONDS_PER_RUN" "$launch"
+    stop
+}
+
+MAIN=com.example.urlshortener.UrlShortenerApplication
+run before "$JAVA" -jar "$JAR" --spring.profiles.active=docker --url-shortener.warm-up.enabled=false
+run fast-boot "$JAVA" -jar "$JAR" --spring.profiles.active=docker,fast-boot --url-shortener.warm-up.enabled=false
+run fast-boot+warm-up "$JAVA" -jar "$JAR" --spring.profiles.active=docker,fast-boot
+run fast-boot+warm-up+appcds "$JAVA" -XX:SharedArchiveFile=app.jsa @classpath.args $MAIN \
+    --spring.profiles.active=docker,fast-boot
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Unpacks the Spring Boot jar into a plain application.jar beside lib/, with the
+# launch classpath in classpath.args, so class data sharing can archive every class.
+# Usage: scripts/unpack-jar.sh <boot-jar> <dir>
+#        java [-XX:SharedArchiveFile=app.jsa] @classpath.args com.example.urlshortener.UrlShortenerApplication
+set -euo pipefail
+
+JAR=$(realpath "$1")
+DIR=$2
+
+rm -rf "$DIR"
+mkdir -p "$DIR"
+cd "$DIR"
+jar -xf "$JAR"
+jar -cf application.jar -C BOOT-INF/classes .
+mv BOOT-INF/lib lib
+# Same library order as the Boot launcher
+echo "-cp application.jar:$(sed -n 's|^- "BOOT-INF/lib/\(.*\)"$|lib/\1|p' BOOT-INF/classpath.idx | paste -sd:)" > classpath.args
+rm -rf BOOT-INF META-INF org
@@ -0,0 +1,62 @@
+package com.example.urlshortener;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application for in-process benchmarks, normally without a web server.
+ * SQL logging is switched off so it does not dominate the measurements.
+ */
+public final class BenchmarkContext {
+    
+    private BenchmarkContext() {
+    }
+    
+    /**
+     * Starts a context against the given database
+     * 
+     * @param jdbcUrl The H2 JDBC URL
+     * @param properties Extra properties as key=value
+     * @return The running context
+     */
+    public static ConfigurableApplicationContext start(String jdbcUrl, String... properties) {
+        return start(WebApplicationType.NONE, jdbcUrl, properties);
+    }
+    
+    /**
+     * Starts a context with the embedded web server on a random port, for benchmarks that
+     * drive the servlet stack in-process
+     * 
+     * @param jdbcUrl The H2 JDBC URL
+     * @param properties Extra properties as key=value
+     * @return The running context
+     */
+    public static ConfigurableApplicationContext startServlet(String jdbcUrl, String... properties) {
+        List<String> args = new ArrayList<>(List.of("server.port=0"));
+        args.addAll(List.of(properties));
+        return start(WebApplicationType.SERVLET, jdbcUrl, args.toArray(String[]::new));
+    }
+    
+    private static ConfigurableApplicationContext start(WebApplicationType type, String jdbcUrl, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+            "spring.datasource.url=" + jdbcUrl,
+            "spring.jpa.show-sql=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN",
+            "logging.level.com.example.urlshortener=WARN",
+            "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "url-shortener.clicks.enabled=false"
+        ));
+        args.addAll(List.of(properties));
+        
+        // Passed as command-line arguments so they take precedence over application.yml
+        return new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .web(type)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+}
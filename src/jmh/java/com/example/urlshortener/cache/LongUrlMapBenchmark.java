@@ -0,0 +1,131 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.entity.ChangeType;
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.shortcode.ShortCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Heap per mapping and lookup time of three ways to hold mappings in memory:
+ * full entities keyed by String, long URL Strings keyed by String, and a
+ * {@link LongUrlMap}. The retained heap is measured after a full GC once the
+ * structure is built and printed as "heap per mapping" before the first
+ * iteration. Entities at 10M entries retain nearly 4 GB, close to the
+ * fork's heap limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LongUrlMapBenchmark {
+
+    private static final int LOOKUP_CODES = 1 << 16;
+    // First packed value with seven characters, so codes look like issued ones
+    private static final long FIRST_CODE = ShortCode.encode("AAAAAAA");
+
+    @Param({"1000000", "10000000"})
+    public int entries;
+
+    @Param({"entities", "strings", "packed"})
+    public String structure;
+
+    private Function<String, String> lookup;
+    private String[] codes;
+
+    // Keeps the measured structure reachable
+    private Object retained;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codes = new String[LOOKUP_CODES];
+        for (int i = 0; i < LOOKUP_CODES; i++) {
+            codes[i] = code(ThreadLocalRandom.current().nextInt(entries));
+        }
+
+        long before = usedHeap();
+        switch (structure) {
+            case "entities" -> {
+                Map<String, UrlMappingEntity> map = new HashMap<>();
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < entries; i++) {
+                    UrlMappingEntity entity = new UrlMappingEntity(code(i), longUrl(i), true);
+                    entity.setId(i + 1L);
+                    entity.setLongUrlHash(LongUrlHash.of(entity.getLongUrl()));
+                    // Rows loaded from the database carry their own timestamp objects
+                    entity.setCreatedAt(now.plusNanos(i));
+                    entity.setUpdatedAt(now.plusNanos(i));
+                    entity.setLastChange(ChangeType.CREATED);
+                    map.put(entity.getShortUrl(), entity);
+                }
+                retained = map;
+                lookup = shortUrl -> {
+                    UrlMappingEntity entity = map.get(shortUrl);
+                    return entity != null ? entity.getLongUrl() : null;
+                };
+            }
+            case "strings" -> {
+                Map<String, String> map = new HashMap<>();
+                for (int i = 0; i < entries; i++) {
+                    map.put(code(i), longUrl(i));
+                }
+                retained = map;
+                lookup = map::get;
+            }
+            case "packed" -> {
+                LongUrlMap map = new LongUrlMap();
+                for (int i = 0; i < entries; i++) {
+                    map.put(code(i), longUrl(i));
+                }
+                retained = map;
+                lookup = map::get;
+            }
+            default -> throw new IllegalArgumentException("Unknown structure " + structure);
+        }
+
+        long bytes = usedHeap() - before;
+        System.out.printf("%n%s, %d entries: %d MB retained, heap per mapping %.1f bytes%n",
+                structure, entries, bytes >> 20, (double) bytes / entries);
+    }
+
+    @Benchmark
+    public String get() {
+        return lookup.apply(codes[ThreadLocalRandom.current().nextInt(LOOKUP_CODES)]);
+    }
+
+    private static String code(int i) {
+        return ShortCode.decode(FIRST_CODE + i);
+    }
+
+    private static String longUrl(int i) {
+        return "https://seed.example.com/articles/" + i + "?utm_source=benchmark";
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.urlshortener.redirect;
+
+import com.example.urlshortener.BenchmarkContext;
+import com.example.urlshortener.service.UrlShortenerService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One redirect through the DispatcherServlet and the controller, against the
+ * same redirect answered by RedirectFilter. Both take a mock request and
+ * response, so the difference in gc.alloc.rate.norm is what the MVC handler
+ * pipeline allocates per redirect. Codes resolve from the redirect cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectPathBenchmark {
+
+    private static final int CODES = 1000;
+    private static final FilterChain UNREACHABLE = (request, response) -> {
+        throw new IllegalStateException("Redirect fell through to the chain: " + request);
+    };
+
+    private ServletWebServerApplicationContext context;
+    private ServletContext servletContext;
+    private DispatcherServlet dispatcherServlet;
+    private RedirectFilter redirectFilter;
+    private String[] paths;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = (ServletWebServerApplicationContext) BenchmarkContext.startServlet("jdbc:h2:mem:redirect-path",
+            "url-shortener.rate-limit.enabled=false",
+            // Initializes the DispatcherServlet without a first real request
+            "spring.mvc.servlet.load-on-startup=1");
+        servletContext = context.getServletContext();
+        dispatcherServlet = context.getBean(DispatcherServlet.class);
+        redirectFilter = context.getBean(RedirectFilter.class);
+
+        UrlShortenerService service = context.getBean(UrlShortenerService.class);
+        paths = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            paths[i] = "/" + service.shortenUrl("https://bench.example.com/articles/" + i).getShortUrl();
+            service.getOriginalUrl(paths[i].substring(1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse controller() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        dispatcherServlet.service(request(), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        redirectFilter.doFilter(request(), response, UNREACHABLE);
+        return response;
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest(servletContext, "GET", paths[ThreadLocalRandom.current().nextInt(CODES)]);
+    }
+}
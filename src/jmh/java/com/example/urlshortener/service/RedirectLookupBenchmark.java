@@ -0,0 +1,116 @@
+package com.example.urlshortener.service;
+
+import com.example.urlshortener.BenchmarkContext;
+import com.example.urlshortener.entity.LongUrlHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getOriginalUrl against a file database seeded with a fixed number of rows.
+ * Databases are kept under target/jmh-db and reused by later runs; seeding
+ * 10M rows takes a few minutes the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RedirectLookupBenchmark {
+    
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int CACHE_SIZE = 10_000;
+    
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+    
+    /**
+     * off: every hit goes to the database; on: the default redirect cache
+     */
+    @Param({"off", "on"})
+    public String cache;
+    
+    private ConfigurableApplicationContext context;
+    private UrlShortenerService service;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        String jdbcUrl = "jdbc:h2:file:" + new File("target/jmh-db/rows-" + rows, "urlshortener").getAbsolutePath()
+                + ";DB_CLOSE_ON_EXIT=FALSE";
+        
+        // Seed through plain JDBC, then restart so the lookup filter and sequence see the rows
+        context = BenchmarkContext.start(jdbcUrl);
+        seed(context.getBean(JdbcTemplate.class), rows);
+        context.close();
+        
+        context = BenchmarkContext.start(jdbcUrl,
+            "url-shortener.cache.max-size=" + (cache.equals("on") ? CACHE_SIZE : 0),
+            "url-shortener.bloom-filter.expected-insertions=" + rows);
+        service = context.getBean(UrlShortenerService.class);
+        
+        // Start from a full cache rather than measuring how fast it fills
+        for (int row = 0; row < Math.min(rows, CACHE_SIZE); row++) {
+            service.getOriginalUrl(shortUrl(row));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public String existing() {
+        return service.getOriginalUrl(shortUrl(ThreadLocalRandom.current().nextInt(rows)));
+    }
+    
+    @Benchmark
+    public String unknown() {
+        return service.getOriginalUrl("z" + shortUrl(ThreadLocalRandom.current().nextInt(rows)));
+    }
+    
+    static String shortUrl(long row) {
+        return "k" + Long.toString(row, 36);
+    }
+    
+    private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_mappings", Integer.class);
+        if (existing != null && existing >= rows) {
+            return;
+        }
+        
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int from = existing != null ? existing : 0; from < rows; from += SEED_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int row = from; row < Math.min(from + SEED_BATCH_SIZE, rows); row++) {
+                String longUrl = "https://seed.example.com/articles/" + row + "?utm_source=benchmark";
+                batch.add(new Object[] { row + 1L, shortUrl(row), longUrl, LongUrlHash.of(longUrl), true, now, now });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO url_mappings (id, short_url, long_url, long_url_hash, is_enabled, created_at, updated_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                batch
+            );
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.urlshortener.service;
+
+import com.example.urlshortener.BenchmarkContext;
+import com.example.urlshortener.dto.ShortenUrlResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * shortenUrl for URLs that were never seen and for URLs that are already mapped,
+ * against an in-memory database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ShortenBenchmark {
+    
+    private static final int DUPLICATE_POOL_SIZE = 10_000;
+    
+    private ConfigurableApplicationContext context;
+    private UrlShortenerService service;
+    private List<String> existingUrls;
+    private long next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("jdbc:h2:mem:shorten-benchmark;DB_CLOSE_DELAY=-1");
+        service = context.getBean(UrlShortenerService.class);
+        
+        List<String> urls = new ArrayList<>(DUPLICATE_POOL_SIZE);
+        for (int i = 0; i < DUPLICATE_POOL_SIZE; i++) {
+            urls.add("https://seed.example.com/articles/" + i + "?utm_source=benchmark");
+        }
+        service.shortenUrls(urls);
+        existingUrls = urls;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public ShortenUrlResponse newUrl() {
+        return service.shortenUrl("https://bench.example.com/articles/" + next++ + "?utm_source=benchmark");
+    }
+    
+    @Benchmark
+    public ShortenUrlResponse duplicateUrl() {
+        return service.shortenUrl(existingUrls.get(ThreadLocalRandom.current().nextInt(DUPLICATE_POOL_SIZE)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.urlshortener.shortcode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing one short code with each generator, without collision checks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCodeGeneratorBenchmark {
+    
+    private RandomShortCodeGenerator randomGenerator;
+    private BlockShortCodeGenerator blockGenerator;
+    private BlockShortCodeGenerator scrambledBlockGenerator;
+    private long id;
+    
+    @Setup
+    public void setUp() {
+        randomGenerator = new RandomShortCodeGenerator();
+        // Ids are encoded directly, so no allocator is needed
+        blockGenerator = new BlockShortCodeGenerator(null, 1000, 6, false, 0);
+        scrambledBlockGenerator = new BlockShortCodeGenerator(null, 1000, 6, true, 0x5DEECE66DL);
+    }
+    
+    @Benchmark
+    public String random() {
+        return randomGenerator.generateRandomShortURL(6);
+    }
+    
+    @Benchmark
+    public String block() {
+        return blockGenerator.encode(id++);
+    }
+    
+    @Benchmark
+    public String scrambledBlock() {
+        return scrambledBlockGenerator.encode(id++);
+    }
+}
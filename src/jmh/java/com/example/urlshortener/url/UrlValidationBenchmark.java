@@ -0,0 +1,140 @@
+package com.example.urlshortener.url;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * URL validation over generated corpora shaped like real traffic, comparing
+ * the canonicalizer with the regex it replaced. Each invocation validates the
+ * next URL of a fixed, seeded corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlValidationBenchmark {
+    
+    private static final int CORPUS_SIZE = 4096;
+    
+    // The pattern UrlShortenerService validated with before UrlCanonicalizer
+    private static final Pattern LEGACY_URL_PATTERN = Pattern.compile(
+        "^https?://[\\w\\-]+(\\.[\\w\\-]+)+([\\w\\-.,@?^=%&:/~+#]*[\\w\\-@?^=%&/~+#])?$"
+    );
+    
+    private static final String[] HOSTS = {
+        "example.com", "www.example.org", "shop.example-store.com", "docs.example.io",
+        "news.example.co.uk", "cdn-3.static.example.net", "a.b.c.example.dev"
+    };
+    private static final String[] SEGMENTS = {
+        "products", "blog", "2024", "category", "item-48213", "search", "user", "profile",
+        "articles", "how-to-shorten-urls", "v2", "api", "images", "summer_sale", "index.html"
+    };
+    private static final String[] PARAMS = {
+        "q=spring+boot", "page=3", "utm_source=newsletter", "utm_medium=email",
+        "utm_campaign=launch_2024", "ref=homepage", "sort=price%2Casc", "id=9f8e7d6c5b4a",
+        "lang=en-US", "session=3c1f0a9e-77b2-4d1e-a0c4-7b9b2e5d1f00"
+    };
+    
+    /**
+     * typical: short paths with a few query parameters;
+     * mixed-case: typical URLs with uppercase scheme and host, default ports and escapes to rewrite;
+     * long: tracking-heavy URLs of one to two thousand characters;
+     * invalid: rejected inputs, including long ones that end in a character
+     * the legacy pattern's last class does not allow
+     */
+    @Param({"typical", "mixed-case", "long", "invalid"})
+    public String corpus;
+    
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+    private String[] urls;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        urls = new String[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            switch (corpus) {
+                case "typical" -> urls[i] = url(random, 1 + random.nextInt(4), random.nextInt(4));
+                case "mixed-case" -> urls[i] = mixedCase(url(random, 1 + random.nextInt(4), random.nextInt(4)));
+                case "long" -> urls[i] = longUrl(random, 1000 + random.nextInt(1000));
+                case "invalid" -> urls[i] = invalidUrl(random, i);
+                default -> throw new IllegalArgumentException("Unknown corpus: " + corpus);
+            }
+        }
+    }
+    
+    @Benchmark
+    public boolean regex() {
+        return LEGACY_URL_PATTERN.matcher(nextUrl()).matches();
+    }
+    
+    @Benchmark
+    public String canonicalizer() {
+        try {
+            return canonicalizer.canonicalize(nextUrl());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private String nextUrl() {
+        String url = urls[next];
+        next = (next + 1) & (CORPUS_SIZE - 1);
+        return url;
+    }
+    
+    private static String url(Random random, int segments, int params) {
+        StringBuilder url = new StringBuilder(random.nextBoolean() ? "https://" : "http://");
+        url.append(HOSTS[random.nextInt(HOSTS.length)]);
+        for (int i = 0; i < segments; i++) {
+            url.append('/').append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+        }
+        for (int i = 0; i < params; i++) {
+            url.append(i == 0 ? '?' : '&').append(PARAMS[random.nextInt(PARAMS.length)]);
+        }
+        if (random.nextInt(8) == 0) {
+            url.append("#section-").append(random.nextInt(10));
+        }
+        return url.toString();
+    }
+    
+    private static String mixedCase(String url) {
+        int hostEnd = url.indexOf('/', url.indexOf("//") + 2);
+        hostEnd = hostEnd < 0 ? url.length() : hostEnd;
+        String defaultPort = url.startsWith("https") ? ":443" : ":80";
+        return url.substring(0, hostEnd).toUpperCase() + defaultPort + url.substring(hostEnd).replace("-", "%2d");
+    }
+    
+    private static String longUrl(Random random, int length) {
+        StringBuilder url = new StringBuilder(url(random, 3, 1));
+        while (url.length() < length) {
+            url.append('&').append(PARAMS[random.nextInt(PARAMS.length)]);
+        }
+        return url.toString();
+    }
+    
+    private static String invalidUrl(Random random, int i) {
+        return switch (i % 4) {
+            case 0 -> "ftp://" + HOSTS[random.nextInt(HOSTS.length)] + "/file.txt";
+            case 1 -> "https://localhost:8080/path";
+            case 2 -> url(random, 2, 1) + " with spaces";
+            default -> longUrl(random, 1000 + random.nextInt(1000)) + ".";
+        };
+    }
+}
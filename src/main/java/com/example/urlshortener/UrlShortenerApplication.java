@@ -2,11 +2,15 @@ package com.example.urlshortener;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for URL Shortener API
  */
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class UrlShortenerApplication {
     
     public static void main(String[] args) {
@@ -0,0 +1,103 @@
+package com.example.urlshortener.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ * Bits are set with CAS so concurrent inserts never lose each other, and
+ * lookups are lock-free. Uses double hashing (h1 + i * h2) over a 64-bit
+ * hash of the characters.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    /**
+     * Creates a filter sized for the given number of insertions and target false-positive rate
+     *
+     * @param expectedInsertions Number of elements the filter should hold at the target rate
+     * @param falsePositiveRate Target false-positive rate, between 0 and 1 (exclusive)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds a value to the filter
+     *
+     * @param value The value to add
+     */
+    public void put(CharSequence value) {
+        long hash1 = StringHash.of(value);
+        long hash2 = StringHash.mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Math.floorMod(hash1 + i * hash2, bitSize));
+        }
+    }
+
+    /**
+     * Checks whether a value may have been added
+     *
+     * @param value The value to check
+     * @return false if the value was definitely never added, true if it might have been
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash1 = StringHash.of(value);
+        long hash2 = StringHash.mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates the false-positive rate the filter currently achieves from its fill ratio
+     *
+     * @return The estimated false-positive rate
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashCount);
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitsSet.incrementAndGet();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.urlshortener.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cached resolution of a short URL: only what the redirect path needs.
+ * The expiry is kept as epoch milliseconds so checking it costs one clock read.
+ */
+public final class CachedRedirect {
+
+    // Expiry of links that never expire
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private final String longUrl;
+    private final boolean isEnabled;
+    private final long expiresAtMillis;
+
+    public CachedRedirect(String longUrl, boolean isEnabled) {
+        this(longUrl, isEnabled, NEVER);
+    }
+
+    public CachedRedirect(String longUrl, boolean isEnabled, long expiresAtMillis) {
+        this.longUrl = longUrl;
+        this.isEnabled = isEnabled;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public CachedRedirect(String longUrl, boolean isEnabled, LocalDateTime expiresAt) {
+        this(longUrl, isEnabled, toMillis(expiresAt));
+    }
+
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /**
+     * Whether the link has expired
+     *
+     * @param nowMillis The current time in epoch milliseconds
+     * @return true once the expiry has passed
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    /**
+     * Converts an expiry in server local time to epoch milliseconds
+     *
+     * @param expiresAt The expiry, or null for none
+     * @return The expiry in epoch milliseconds, or {@link #NEVER}
+     */
+    public static long toMillis(LocalDateTime expiresAt) {
+        return expiresAt != null ? expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : NEVER;
+    }
+}
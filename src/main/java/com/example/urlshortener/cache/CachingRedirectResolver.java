@@ -0,0 +1,62 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.store.UrlMappingStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default resolver: redirect cache first, then the lookup filter to rule out
+ * unknown codes, then a single-flight load from the store
+ */
+@Component
+@Profile("!read-replica & !cluster")
+public class CachingRedirectResolver implements RedirectResolver {
+    
+    private final UrlMappingStore urlMappingStore;
+    private final RedirectCache redirectCache;
+    private final ShortUrlFilter shortUrlFilter;
+    private final HotKeyTracker hotKeyTracker;
+    
+    @Autowired
+    public CachingRedirectResolver(
+            UrlMappingStore urlMappingStore,
+            RedirectCache redirectCache,
+            ShortUrlFilter shortUrlFilter,
+            HotKeyTracker hotKeyTracker) {
+        this.urlMappingStore = urlMappingStore;
+        this.redirectCache = redirectCache;
+        this.shortUrlFilter = shortUrlFilter;
+        this.hotKeyTracker = hotKeyTracker;
+    }
+    
+    @Override
+    public CachedRedirect resolve(String shortUrl) {
+        hotKeyTracker.record(shortUrl);
+        return warm(shortUrl);
+    }
+    
+    @Override
+    public CachedRedirect warm(String shortUrl) {
+        CachedRedirect redirect = redirectCache.get(shortUrl);
+        if (redirect != null) {
+            return redirect;
+        }
+        
+        if (!shortUrlFilter.mightContain(shortUrl)) {
+            return null;
+        }
+        
+        redirect = redirectCache.load(shortUrl, key -> urlMappingStore.findRedirect(key).orElse(null));
+        if (redirect == null) {
+            shortUrlFilter.recordFalsePositive();
+        }
+        return redirect;
+    }
+    
+    @Override
+    public void mappingChanged(String shortUrl, CachedRedirect redirect) {
+        // The next lookup reloads it from the store
+        redirectCache.invalidate(shortUrl);
+    }
+}
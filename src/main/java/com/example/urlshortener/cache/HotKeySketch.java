@@ -0,0 +1,168 @@
+package com.example.urlshortener.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch. It keeps counters for a fixed number of
+ * keys; an untracked key takes over the counter of the least counted key and
+ * inherits its count as the error bound. Every key seen more often than the
+ * smallest counter is guaranteed to be tracked, and a count never falls short
+ * of the true one by more than its error.
+ * <p>
+ * Counters sit in an indexed min-heap, so each offer costs O(log capacity).
+ * Not thread-safe.
+ */
+final class HotKeySketch {
+
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    HotKeySketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Sketch capacity must be positive");
+        }
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of a key
+     *
+     * @param key The key
+     */
+    void offer(String key) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+        } else if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(key, size);
+            siftUp(size++);
+        } else {
+            // The least counted key gives up its counter
+            positions.remove(keys[0]);
+            keys[0] = key;
+            errors[0] = counts[0];
+            counts[0]++;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Halves every count and error, so keys that stop being offered fade out.
+     * Keys whose count reaches zero are dropped.
+     */
+    void decay() {
+        int kept = 0;
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            long count = counts[i] >> 1;
+            if (count > 0) {
+                keys[kept] = keys[i];
+                counts[kept] = count;
+                errors[kept] = errors[i] >> 1;
+                kept++;
+            }
+        }
+        for (int i = kept; i < size; i++) {
+            keys[i] = null;
+        }
+        size = kept;
+        // Halving keeps the order of most pairs; rebuilding restores the rest
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        for (int i = 0; i < size; i++) {
+            positions.put(keys[i], i);
+        }
+    }
+
+    /**
+     * Lists the most counted keys
+     *
+     * @param limit Maximum number of keys
+     * @return Keys by descending count
+     */
+    List<Counted> top(int limit) {
+        List<Counted> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(new Counted(keys[i], counts[i], errors[i]));
+        }
+        top.sort((a, b) -> Long.compare(b.count, a.count));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[index] <= counts[child]) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        // Positions are rebuilt in bulk after decay, when the map is empty
+        if (!positions.isEmpty()) {
+            positions.put(keys[a], a);
+            positions.put(keys[b], b);
+        }
+    }
+
+    /**
+     * A tracked key with its estimated count; the true count lies between
+     * count - error and count
+     */
+    static final class Counted {
+
+        final String key;
+        final long count;
+        final long error;
+
+        Counted(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
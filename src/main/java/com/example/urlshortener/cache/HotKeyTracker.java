@@ -0,0 +1,138 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.dto.HotKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds the hottest short URLs on the redirect path with a {@link HotKeySketch}
+ * and pins them in the {@link RedirectCache}. Counts are halved every window,
+ * and at the same time the short URLs whose guaranteed count reaches the
+ * threshold are pinned and the rest unpinned.
+ * <p>
+ * Lookups never wait for the sketch: one that finds it busy is not counted.
+ * Under contention the sketch therefore sees a sample of lookups, which keeps
+ * the hottest short URLs on top.
+ */
+@Component
+public class HotKeyTracker {
+
+    private final RedirectCache redirectCache;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final Duration window;
+    private final long threshold;
+    private final int maxPinned;
+
+    private final HotKeySketch sketch;
+    private final ReentrantLock sketchLock = new ReentrantLock();
+    private final Counter skipped;
+    private ScheduledFuture<?> rotateTask;
+
+    @Autowired
+    public HotKeyTracker(
+            RedirectCache redirectCache,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.hot-keys.enabled:true}") boolean enabled,
+            @Value("${url-shortener.hot-keys.capacity:256}") int capacity,
+            @Value("${url-shortener.hot-keys.window:10s}") Duration window,
+            @Value("${url-shortener.hot-keys.threshold:200}") long threshold,
+            @Value("${url-shortener.hot-keys.max-pinned:64}") int maxPinned) {
+        this.redirectCache = redirectCache;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.window = window;
+        this.threshold = threshold;
+        this.maxPinned = maxPinned;
+        this.sketch = new HotKeySketch(capacity);
+        this.skipped = Counter.builder("url.shortener.hotkeys.skipped")
+                .description("Redirect lookups not counted because the hot-key sketch was busy")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            rotateTask = taskScheduler.scheduleWithFixedDelay(this::rotate, window);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (rotateTask != null) {
+            rotateTask.cancel(false);
+        }
+    }
+
+    /**
+     * Counts one redirect lookup. Never blocks.
+     *
+     * @param shortUrl The short URL looked up
+     */
+    public void record(String shortUrl) {
+        if (!enabled) {
+            return;
+        }
+        if (!sketchLock.tryLock()) {
+            skipped.increment();
+            return;
+        }
+        try {
+            sketch.offer(shortUrl);
+        } finally {
+            sketchLock.unlock();
+        }
+    }
+
+    /**
+     * Pins the short URLs that are hot now, unpins the others and halves all counts
+     */
+    void rotate() {
+        Set<String> hot = new HashSet<>();
+        sketchLock.lock();
+        try {
+            for (HotKeySketch.Counted counted : sketch.top(maxPinned)) {
+                if (counted.count - counted.error >= threshold) {
+                    hot.add(counted.key);
+                }
+            }
+            sketch.decay();
+        } finally {
+            sketchLock.unlock();
+        }
+        redirectCache.pin(hot);
+    }
+
+    /**
+     * Lists the most looked-up short URLs
+     *
+     * @param limit Maximum number of short URLs
+     * @return Short URLs by descending estimated lookups
+     */
+    public List<HotKey> getTop(int limit) {
+        List<HotKeySketch.Counted> top;
+        sketchLock.lock();
+        try {
+            top = sketch.top(limit);
+        } finally {
+            sketchLock.unlock();
+        }
+        return top.stream()
+                .map(counted -> new HotKey(counted.key, counted.count, counted.error, redirectCache.isPinned(counted.key)))
+                .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.dto.HotKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the hot-key sketch's top short URLs at /actuator/hotkeys
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    public HotKeysEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    /**
+     * @param limit Maximum number of short URLs, 20 if absent
+     * @return Short URLs by descending estimated lookups
+     */
+    @ReadOperation
+    public List<HotKey> hotKeys(@Nullable Integer limit) {
+        return hotKeyTracker.getTop(limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.shortcode.ShortCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact on-heap map from short code to long URL, the mutable counterpart of
+ * the replica's off-heap table. Codes are packed into longs by
+ * {@link ShortCode} and kept with an int reference to their URL in parallel
+ * open-addressing arrays. URLs are stored as length-prefixed UTF-8 slices in
+ * shared 1 MB pages, up to 4 GB in all, and interned, so codes that point at
+ * the same long URL share its bytes. The map holds a few arrays however many
+ * entries it has, which keeps a mapping under 100 bytes of heap for typical
+ * URLs and gives the GC almost nothing to trace.
+ * <p>
+ * URL bytes are never reclaimed: removing a code or giving it another URL
+ * leaves the old slice in its page, where a later put of the same URL finds it
+ * again. Maps that see heavy churn should be rebuilt now and then. Codes
+ * outside the alphabet, which only legacy data could contain, go to a small
+ * side map. Not thread-safe.
+ */
+public final class LongUrlMap {
+
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    // References are unsigned ints
+    private static final int MAX_PAGES = 1 << (32 - PAGE_BITS);
+    private static final int MAX_URL_BYTES = 65535;
+    private static final int MIN_CAPACITY = 16;
+
+    // Packed codes, 0 for an empty slot, and the URL reference of each
+    private long[] keys;
+    private int[] refs;
+    private int size;
+
+    // References of every distinct URL, 0 for an empty slot
+    private int[] interned;
+    private int internedCount;
+
+    // A reference is page << PAGE_BITS | offset, pointing at a varint length and the URL bytes
+    private byte[][] pages = new byte[4][];
+    private int pageCount;
+    private int pageOffset = PAGE_SIZE;
+
+    private final Map<String, String> irregular = new HashMap<>();
+
+    /**
+     * Creates a map sized for the given number of codes
+     *
+     * @param expectedSize Codes the map should hold without growing
+     */
+    public LongUrlMap(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        this.keys = new long[capacity];
+        this.refs = new int[capacity];
+        this.interned = new int[capacity];
+    }
+
+    public LongUrlMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Looks up the long URL of a short code
+     *
+     * @param shortUrl The short code
+     * @return The long URL, or null if the code is not in the map
+     */
+    public String get(String shortUrl) {
+        long key = ShortCode.encode(shortUrl);
+        if (key == ShortCode.NONE) {
+            return irregular.get(shortUrl);
+        }
+
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        byte[] page = pages[page(refs[slot])];
+        int offset = offset(refs[slot]);
+        int length = readLength(page, offset);
+        return new String(page, offset + varintSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps a short code to a long URL, replacing any earlier one
+     *
+     * @param shortUrl The short code
+     * @param longUrl The long URL
+     * @throws IllegalArgumentException if the long URL is empty or over 64 KB as UTF-8
+     */
+    public void put(String shortUrl, String longUrl) {
+        long key = ShortCode.encode(shortUrl);
+        if (key == ShortCode.NONE) {
+            if (irregular.put(shortUrl, longUrl) == null) {
+                size++;
+            }
+            return;
+        }
+
+        int ref = intern(longUrl.getBytes(StandardCharsets.UTF_8), shortUrl);
+        int slot = find(key);
+        if (slot >= 0) {
+            refs[slot] = ref;
+            return;
+        }
+
+        if ((size - irregular.size() + 1) * 4L > keys.length * 3L) {
+            resize(keys.length * 2);
+        }
+        slot = (int) mix(key) & (keys.length - 1);
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        refs[slot] = ref;
+        size++;
+    }
+
+    /**
+     * Removes a short code
+     *
+     * @param shortUrl The short code
+     * @return Whether the code was in the map
+     */
+    public boolean remove(String shortUrl) {
+        long key = ShortCode.encode(shortUrl);
+        if (key == ShortCode.NONE) {
+            if (irregular.remove(shortUrl) != null) {
+                size--;
+                return true;
+            }
+            return false;
+        }
+
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+
+        // Shift later entries of the probe run back so lookups need no tombstones
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = (int) mix(keys[next]) & mask;
+            // Move the entry unless its home lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                refs[hole] = refs[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        refs[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Number of codes in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Heap held by the slot arrays and URL pages, without the side map of irregular codes
+     */
+    public long memoryBytes() {
+        return 8L * keys.length + 4L * (refs.length + interned.length) + (long) pageCount * PAGE_SIZE;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Finds the stored slice equal to a URL, appending it if there is none
+     *
+     * @return The slice's reference
+     */
+    private int intern(byte[] url, String shortUrl) {
+        if (url.length == 0 || url.length > MAX_URL_BYTES) {
+            throw new IllegalArgumentException("Long URL of " + shortUrl + " must be 1 to " + MAX_URL_BYTES
+                    + " bytes as UTF-8");
+        }
+
+        int mask = interned.length - 1;
+        int slot = (int) mix(hash(url, 0, url.length)) & mask;
+        for (int ref = interned[slot]; ref != 0; ref = interned[slot]) {
+            if (sliceEquals(ref, url)) {
+                return ref;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int ref = append(url);
+        interned[slot] = ref;
+        if (++internedCount * 4L > interned.length * 3L) {
+            resizeInterned(interned.length * 2);
+        }
+        return ref;
+    }
+
+    private int append(byte[] url) {
+        int size = varintSize(url.length) + url.length;
+        if (PAGE_SIZE - pageOffset < size) {
+            if (pageCount == MAX_PAGES) {
+                throw new IllegalStateException("Long URLs exceed 4 GB in a LongUrlMap");
+            }
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, Math.min(pageCount * 2, MAX_PAGES));
+            }
+            pages[pageCount++] = new byte[PAGE_SIZE];
+            // Reference 0 marks empty intern slots, so nothing starts at the very first byte
+            pageOffset = pageCount == 1 ? 1 : 0;
+        }
+        int page = pageCount - 1;
+        int ref = page << PAGE_BITS | pageOffset;
+        byte[] bytes = pages[page];
+        int length = url.length;
+        while (length >= 0x80) {
+            bytes[pageOffset++] = (byte) (length | 0x80);
+            length >>>= 7;
+        }
+        bytes[pageOffset++] = (byte) length;
+        System.arraycopy(url, 0, bytes, pageOffset, url.length);
+        pageOffset += url.length;
+        return ref;
+    }
+
+    private boolean sliceEquals(int ref, byte[] url) {
+        byte[] page = pages[page(ref)];
+        int offset = offset(ref);
+        int length = url.length;
+        while (length >= 0x80) {
+            if (page[offset++] != (byte) (length | 0x80)) {
+                return false;
+            }
+            length >>>= 7;
+        }
+        return page[offset++] == (byte) length
+                && Arrays.equals(page, offset, offset + url.length, url, 0, url.length);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldRefs = refs;
+        keys = new long[capacity];
+        refs = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = (int) mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            refs[slot] = oldRefs[i];
+        }
+    }
+
+    private void resizeInterned(int capacity) {
+        int[] old = interned;
+        interned = new int[capacity];
+        int mask = capacity - 1;
+        for (int ref : old) {
+            if (ref == 0) {
+                continue;
+            }
+            byte[] page = pages[page(ref)];
+            int offset = offset(ref);
+            int length = readLength(page, offset);
+            int slot = (int) mix(hash(page, offset + varintSize(length), length)) & mask;
+            while (interned[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            interned[slot] = ref;
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries for a LongUrlMap: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private static int readLength(byte[] page, int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = page[offset++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private static int varintSize(int value) {
+        return value < 1 << 7 ? 1 : value < 1 << 14 ? 2 : 3;
+    }
+
+    private static int page(int ref) {
+        return ref >>> PAGE_BITS;
+    }
+
+    private static int offset(int ref) {
+        return ref & (PAGE_SIZE - 1);
+    }
+
+    private static long hash(byte[] bytes, int from, int length) {
+        // FNV-1a
+        long hash = 0xCBF29CE484222325L;
+        for (int i = from; i < from + length; i++) {
+            hash = (hash ^ bytes[i]) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
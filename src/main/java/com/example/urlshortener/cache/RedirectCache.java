@@ -0,0 +1,174 @@
+package com.example.urlshortener.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process read-through cache for the redirect path, keyed by short URL.
+ * Entries are evicted by size and by time since write; hit/miss/eviction counters
+ * are published as the "redirects" cache in the actuator metrics endpoint.
+ * <p>
+ * Misses are loaded single-flight: concurrent lookups of one short URL share a
+ * single store read, so a code that misses under heavy traffic, after a deploy
+ * or an update, reaches the store once. Hot short URLs chosen by
+ * {@link HotKeyTracker} are pinned beside the cache, out of reach of eviction.
+ */
+@Component
+public class RedirectCache {
+
+    static final String CACHE_NAME = "redirects";
+
+    // Power of two; invalidations bump the generation of the key's stripe
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<String, CachedRedirect> cache;
+    private final ConcurrentHashMap<String, CachedRedirect> pinned = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedRedirect>> loading = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter loads;
+    private final Counter coalescedLoads;
+
+    @Autowired
+    public RedirectCache(
+            @Value("${url-shortener.cache.max-size:10000}") long maxSize,
+            @Value("${url-shortener.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.loads = loadCounter(meterRegistry, "leader");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        meterRegistry.gaugeMapSize("url.shortener.cache.pinned", Tags.empty(), pinned);
+    }
+
+    /**
+     * Looks up a cached redirect
+     *
+     * @param shortUrl The short URL
+     * @return The cached entry, or null on a miss
+     */
+    public CachedRedirect get(String shortUrl) {
+        CachedRedirect redirect = pinned.get(shortUrl);
+        return redirect != null ? redirect : cache.getIfPresent(shortUrl);
+    }
+
+    /**
+     * Loads a short URL after a miss and caches the result. Callers that miss
+     * while a load of the same short URL is running wait for it and share its
+     * result, or its exception, instead of reading the store themselves.
+     *
+     * @param shortUrl The short URL
+     * @param loader Reads the redirect from the store, returning null if it does not exist
+     * @return The redirect, or null if the short URL does not exist
+     */
+    public CachedRedirect load(String shortUrl, Function<String, CachedRedirect> loader) {
+        CompletableFuture<CachedRedirect> flight = new CompletableFuture<>();
+        CompletableFuture<CachedRedirect> running = loading.putIfAbsent(shortUrl, flight);
+        if (running != null) {
+            coalescedLoads.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        loads.increment();
+        int stripe = stripe(shortUrl);
+        long generation = generations.get(stripe);
+        try {
+            CachedRedirect redirect = loader.apply(shortUrl);
+            if (redirect != null) {
+                cache.put(shortUrl, redirect);
+                // An invalidation during the store read may have run before this put
+                if (generations.get(stripe) != generation) {
+                    cache.asMap().remove(shortUrl, redirect);
+                    pinned.remove(shortUrl, redirect);
+                }
+            }
+            flight.complete(redirect);
+            return redirect;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(shortUrl, flight);
+        }
+    }
+
+    /**
+     * Drops a short URL from the cache so the next lookup goes to the database.
+     * A load already running for it is detached: later lookups start a new one,
+     * and its result is not cached.
+     *
+     * @param shortUrl The short URL
+     */
+    public void invalidate(String shortUrl) {
+        generations.incrementAndGet(stripe(shortUrl));
+        loading.remove(shortUrl);
+        cache.invalidate(shortUrl);
+        pinned.remove(shortUrl);
+    }
+
+    /**
+     * Replaces the pinned short URLs. Each is pinned with its current cache
+     * entry; one that is not cached is left out until a later call. Pinning
+     * again refreshes a pinned entry, so pinned entries are no staler than the
+     * cache's time-to-live plus the interval between calls.
+     *
+     * @param shortUrls The short URLs to pin
+     */
+    public void pin(Set<String> shortUrls) {
+        pinned.keySet().retainAll(shortUrls);
+        for (String shortUrl : shortUrls) {
+            CachedRedirect redirect = cache.getIfPresent(shortUrl);
+            if (redirect == null) {
+                pinned.remove(shortUrl);
+                continue;
+            }
+            pinned.put(shortUrl, redirect);
+            // Undo the pin if an invalidation removed the entry in the meantime
+            if (cache.getIfPresent(shortUrl) != redirect) {
+                pinned.remove(shortUrl, redirect);
+            }
+        }
+    }
+
+    /**
+     * @param shortUrl The short URL
+     * @return Whether the short URL is pinned
+     */
+    public boolean isPinned(String shortUrl) {
+        return pinned.containsKey(shortUrl);
+    }
+
+    private static int stripe(String shortUrl) {
+        int hash = shortUrl.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("url.shortener.cache.loads")
+                .tag("role", role)
+                .description("Redirect cache misses by whether they read the store or waited for a running read")
+                .register(meterRegistry);
+    }
+}
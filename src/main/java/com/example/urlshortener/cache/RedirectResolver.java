@@ -0,0 +1,45 @@
+package com.example.urlshortener.cache;
+
+/**
+ * Resolves short URLs on the redirect path.
+ * The default implementation reads through the redirect cache and lookup
+ * filter to the store; the read-replica profile serves every redirect from a
+ * preloaded in-memory table.
+ */
+public interface RedirectResolver {
+    
+    /**
+     * Resolves a short URL
+     * 
+     * @param shortUrl The trimmed short URL
+     * @return The long URL and enabled flag, or null if the short URL does not exist
+     */
+    CachedRedirect resolve(String shortUrl);
+    
+    /**
+     * Resolves a short URL like {@link #resolve(String)}, filling the same caches,
+     * without counting the lookup as redirect traffic for hot-key detection
+     * 
+     * @param shortUrl The trimmed short URL
+     * @return The long URL and enabled flag, or null if the short URL does not exist or is not resolved locally
+     */
+    default CachedRedirect warm(String shortUrl) {
+        return resolve(shortUrl);
+    }
+    
+    /**
+     * Whether {@link #resolve(String)} answers from memory without ever waiting on I/O,
+     * so it may be called from an event-loop thread
+     */
+    default boolean isNonBlocking() {
+        return false;
+    }
+    
+    /**
+     * Notifies the resolver of a mapping created or changed on this node
+     * 
+     * @param shortUrl The short URL
+     * @param redirect Its new long URL and enabled flag
+     */
+    void mappingChanged(String shortUrl, CachedRedirect redirect);
+}
@@ -0,0 +1,126 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Negative-lookup filter for short URLs.
+ * Wraps a Bloom filter built from every stored short URL at startup and kept
+ * up to date on every insert, so lookups for codes that were never issued can
+ * be answered without touching the database. Until the initial load has
+ * finished every code is reported as possibly present.
+ */
+@Component
+public class ShortUrlFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortUrlFilter.class);
+
+    private final UrlMappingStore urlMappingStore;
+    private final MeterRegistry meterRegistry;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Counter definiteMisses;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+
+    @Autowired
+    public ShortUrlFilter(
+            UrlMappingStore urlMappingStore,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${url-shortener.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.urlMappingStore = urlMappingStore;
+        this.meterRegistry = meterRegistry;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.definiteMisses = meterRegistry.counter("url.shortener.bloom.lookups", "result", "definite_miss");
+        this.falsePositives = meterRegistry.counter("url.shortener.bloom.lookups", "result", "false_positive");
+    }
+
+    /**
+     * Allocates the filter before the web server starts so no insert is missed,
+     * leaving room for the table to double before the target rate degrades
+     */
+    @PostConstruct
+    void allocate() {
+        long existing = urlMappingStore.count();
+        filter = new BloomFilter(Math.max(expectedInsertions, existing * 2), falsePositiveRate);
+
+        Gauge.builder("url.shortener.bloom.false.positive.rate", this, ShortUrlFilter::observedFalsePositiveRate)
+                .tag("type", "observed")
+                .register(meterRegistry);
+        Gauge.builder("url.shortener.bloom.false.positive.rate", this, f -> f.filter.estimatedFalsePositiveRate())
+                .tag("type", "estimated")
+                .register(meterRegistry);
+        Gauge.builder("url.shortener.bloom.false.positive.rate", () -> falsePositiveRate)
+                .tag("type", "target")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every existing short URL once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        BloomFilter target = filter;
+        urlMappingStore.forEachShortUrl(target::put);
+        loaded = true;
+
+        log.info("Short URL filter loaded in {} ms ({} bits, {} hashes)",
+                System.currentTimeMillis() - start, target.getBitSize(), target.getHashCount());
+    }
+
+    /**
+     * Records a newly issued short URL
+     *
+     * @param shortUrl The short URL
+     */
+    public void add(String shortUrl) {
+        filter.put(shortUrl);
+    }
+
+    /**
+     * Checks whether a short URL may exist
+     *
+     * @param shortUrl The short URL
+     * @return false if the short URL definitely does not exist
+     */
+    public boolean mightContain(String shortUrl) {
+        if (!loaded) {
+            return true;
+        }
+        if (!filter.mightContain(shortUrl)) {
+            definiteMisses.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that a short URL reported as possibly present was not found in the database
+     */
+    public void recordFalsePositive() {
+        if (loaded) {
+            falsePositives.increment();
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double negatives = definiteMisses.count() + falsePositives.count();
+        return negatives == 0 ? 0.0 : falsePositives.count() / negatives;
+    }
+}
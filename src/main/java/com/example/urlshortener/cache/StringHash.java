@@ -0,0 +1,42 @@
+package com.example.urlshortener.cache;
+
+/**
+ * 64-bit string hash for in-memory structures: the Bloom filter and the
+ * cluster's consistent hash ring. Nodes of a cluster must agree on it, so
+ * changing the algorithm moves every short code to a new owner.
+ */
+public final class StringHash {
+
+    private StringHash() {}
+
+    /**
+     * Hashes the characters of a string
+     *
+     * @param value The string
+     * @return The hash
+     */
+    public static long of(CharSequence value) {
+        // FNV-1a over the characters, finalized with a 64-bit mixer
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Spreads the bits of a 64-bit value with the MurmurHash3 finalizer
+     *
+     * @param hash The value
+     * @return The mixed value
+     */
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.dto.PeerInvalidation;
+import com.example.urlshortener.dto.PeerRedirect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receiving side of the HTTP cluster transport. Calls without the shared peer
+ * secret are refused with 403; still keep /cluster off the public load balancer.
+ */
+@RestController
+@Profile("cluster")
+@RequestMapping("/cluster")
+public class ClusterController {
+
+    private final ClusterRedirectResolver clusterRedirectResolver;
+    private final ClusterSettings clusterSettings;
+
+    @Autowired
+    public ClusterController(ClusterRedirectResolver clusterRedirectResolver, ClusterSettings clusterSettings) {
+        this.clusterRedirectResolver = clusterRedirectResolver;
+        this.clusterSettings = clusterSettings;
+    }
+
+    /**
+     * GET /cluster/redirects/{shortUrl}
+     * Resolves a short URL this node owns, for a peer
+     */
+    @GetMapping("/redirects/{shortUrl}")
+    public ResponseEntity<PeerRedirect> lookup(
+            @RequestHeader(value = ClusterSettings.SECRET_HEADER, required = false) String secret,
+            @PathVariable String shortUrl) {
+        if (!clusterSettings.isPeer(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        CachedRedirect redirect = clusterRedirectResolver.resolveOwned(shortUrl);
+        if (redirect == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new PeerRedirect(redirect.getLongUrl(), redirect.isEnabled(), redirect.getExpiresAtMillis()));
+    }
+
+    /**
+     * POST /cluster/invalidations
+     * Drops short URLs a peer created or changed from this node's cache
+     */
+    @PostMapping("/invalidations")
+    public ResponseEntity<Void> invalidate(
+            @RequestHeader(value = ClusterSettings.SECRET_HEADER, required = false) String secret,
+            @RequestBody PeerInvalidation invalidation) {
+        if (!clusterSettings.isPeer(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (invalidation.getShortUrls() != null) {
+            clusterRedirectResolver.peerChanged(invalidation.getShortUrls());
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
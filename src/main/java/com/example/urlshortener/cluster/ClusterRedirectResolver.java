@@ -0,0 +1,300 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.cache.HotKeyTracker;
+import com.example.urlshortener.cache.RedirectCache;
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.cache.ShortUrlFilter;
+import com.example.urlshortener.store.UrlMappingStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolver for the cluster profile. The ring assigns every short URL to one
+ * owner node, and only the owner caches it, so the cluster's combined cache
+ * holds each entry once and grows with every node added. Lookups for codes
+ * owned elsewhere go to the owner over the transport, and the answer is kept
+ * for a short TTL in a near cache so a hot code costs the owner one hop per
+ * TTL rather than one per redirect.
+ * <p>
+ * Mappings created or changed on this node are sent to every peer in small
+ * batches. Peers drop their cached and near-cached entries and add the code to their lookup
+ * filter, so codes issued anywhere pass every node's filter. An unreachable
+ * owner is skipped for a while and its codes are read from the store.
+ */
+@Component
+@Profile("cluster")
+public class ClusterRedirectResolver implements RedirectResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRedirectResolver.class);
+
+    private final UrlMappingStore urlMappingStore;
+    private final RedirectCache redirectCache;
+    private final ShortUrlFilter shortUrlFilter;
+    private final HotKeyTracker hotKeyTracker;
+    private final ClusterSettings clusterSettings;
+    private final ClusterTransport clusterTransport;
+    private final TaskScheduler taskScheduler;
+    private final Duration invalidationInterval;
+    private final long peerRetryNanos;
+
+    private final Counter localLookups;
+    private final Counter nearLookups;
+    private final Counter remoteLookups;
+    private final Counter fallbackLookups;
+    private final Counter invalidationsSent;
+    private final Counter invalidationsReceived;
+
+    // Redirects answered by other owners, or null when disabled
+    private final Cache<String, CachedRedirect> nearCache;
+    // Changed short URLs not yet sent to peers
+    private final Set<String> outbox = new LinkedHashSet<>();
+    private final ReentrantLock outboxLock = new ReentrantLock();
+    // Peers that failed a lookup, with the System.nanoTime() to try them again
+    private final Map<String, Long> peersDown = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> sendTask;
+
+    @Autowired
+    public ClusterRedirectResolver(
+            UrlMappingStore urlMappingStore,
+            RedirectCache redirectCache,
+            ShortUrlFilter shortUrlFilter,
+            HotKeyTracker hotKeyTracker,
+            ClusterSettings clusterSettings,
+            ClusterTransport clusterTransport,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.cluster.invalidation-interval:20ms}") Duration invalidationInterval,
+            @Value("${url-shortener.cluster.peer-retry:5s}") Duration peerRetry,
+            @Value("${url-shortener.cluster.near-cache.ttl:2s}") Duration nearCacheTtl,
+            @Value("${url-shortener.cluster.near-cache.max-size:100000}") long nearCacheMaxSize) {
+        this.urlMappingStore = urlMappingStore;
+        this.redirectCache = redirectCache;
+        this.shortUrlFilter = shortUrlFilter;
+        this.hotKeyTracker = hotKeyTracker;
+        this.clusterSettings = clusterSettings;
+        this.clusterTransport = clusterTransport;
+        this.taskScheduler = taskScheduler;
+        this.invalidationInterval = invalidationInterval;
+        this.peerRetryNanos = peerRetry.toNanos();
+        this.nearCache = nearCacheTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxSize)
+                .expireAfterWrite(nearCacheTtl)
+                .build();
+        if (nearCache != null) {
+            Gauge.builder("url.shortener.cluster.near.cache.size", nearCache, Cache::estimatedSize)
+                    .description("Redirects of other owners held in the near cache")
+                    .register(meterRegistry);
+        }
+        this.localLookups = lookupCounter(meterRegistry, "local");
+        this.nearLookups = lookupCounter(meterRegistry, "near");
+        this.remoteLookups = lookupCounter(meterRegistry, "remote");
+        this.fallbackLookups = lookupCounter(meterRegistry, "fallback");
+        this.invalidationsSent = invalidationCounter(meterRegistry, "sent");
+        this.invalidationsReceived = invalidationCounter(meterRegistry, "received");
+    }
+
+    @PostConstruct
+    void start() {
+        clusterTransport.join(clusterSettings.getNodeId(), this);
+        sendTask = taskScheduler.scheduleWithFixedDelay(this::sendInvalidations, invalidationInterval);
+    }
+
+    @PreDestroy
+    void stop() {
+        sendTask.cancel(false);
+        sendInvalidations();
+        clusterTransport.leave(clusterSettings.getNodeId());
+    }
+
+    @Override
+    public CachedRedirect resolve(String shortUrl) {
+        String owner = clusterSettings.getRing().ownerOf(shortUrl);
+        if (owner.equals(clusterSettings.getNodeId())) {
+            localLookups.increment();
+            hotKeyTracker.record(shortUrl);
+            return resolveOwned(shortUrl, true);
+        }
+
+        // Codes never issued anywhere are ruled out without a network hop
+        if (!shortUrlFilter.mightContain(shortUrl)) {
+            return null;
+        }
+
+        if (nearCache != null) {
+            CachedRedirect redirect = nearCache.getIfPresent(shortUrl);
+            if (redirect != null) {
+                nearLookups.increment();
+                return redirect;
+            }
+        }
+
+        Long retryAt = peersDown.get(owner);
+        if (retryAt == null || System.nanoTime() - retryAt >= 0) {
+            try {
+                CachedRedirect redirect = clusterTransport.lookup(owner, shortUrl);
+                peersDown.remove(owner);
+                remoteLookups.increment();
+                // An invalidation racing this lookup can leave a stale entry, but only until the TTL
+                if (redirect != null && nearCache != null) {
+                    nearCache.put(shortUrl, redirect);
+                }
+                return redirect;
+            } catch (DataAccessException e) {
+                if (peersDown.put(owner, System.nanoTime() + peerRetryNanos) == null) {
+                    log.warn("Cluster node {} unreachable; reading its short URLs from the store", owner, e);
+                }
+            }
+        }
+
+        // Not cached here, so the owner's entry stays the only one
+        fallbackLookups.increment();
+        return urlMappingStore.findRedirect(shortUrl).orElse(null);
+    }
+
+    /**
+     * Resolves a short URL owned by this node for a peer. The peer has checked
+     * its lookup filter already, and ours may not have heard of a code the
+     * peer created moments ago.
+     *
+     * @param shortUrl The short URL
+     * @return The redirect, or null if the short URL does not exist
+     */
+    public CachedRedirect resolveOwned(String shortUrl) {
+        hotKeyTracker.record(shortUrl);
+        return resolveOwned(shortUrl, false);
+    }
+
+    /**
+     * Only short URLs owned by this node are warmed, since a lookup sent to
+     * the owner would count towards the owner's hot keys
+     */
+    @Override
+    public CachedRedirect warm(String shortUrl) {
+        if (!clusterSettings.getRing().ownerOf(shortUrl).equals(clusterSettings.getNodeId())) {
+            return null;
+        }
+        return resolveOwned(shortUrl, true);
+    }
+
+    /**
+     * Resolves a short URL owned by this node: redirect cache first, then the
+     * lookup filter, then a single-flight load from the store. Owners see every
+     * lookup of their short URLs that is not near-cached elsewhere, so callers
+     * count hot keys before calling this.
+     */
+    private CachedRedirect resolveOwned(String shortUrl, boolean checkFilter) {
+        CachedRedirect redirect = redirectCache.get(shortUrl);
+        if (redirect != null) {
+            return redirect;
+        }
+
+        if (checkFilter && !shortUrlFilter.mightContain(shortUrl)) {
+            return null;
+        }
+
+        redirect = redirectCache.load(shortUrl, key -> urlMappingStore.findRedirect(key).orElse(null));
+        if (redirect == null && checkFilter) {
+            shortUrlFilter.recordFalsePositive();
+        }
+        return redirect;
+    }
+
+    @Override
+    public void mappingChanged(String shortUrl, CachedRedirect redirect) {
+        redirectCache.invalidate(shortUrl);
+        invalidateNear(shortUrl);
+        outboxLock.lock();
+        try {
+            outbox.add(shortUrl);
+        } finally {
+            outboxLock.unlock();
+        }
+    }
+
+    /**
+     * Applies mappings created or changed on a peer
+     *
+     * @param shortUrls The short URLs
+     */
+    public void peerChanged(List<String> shortUrls) {
+        for (String shortUrl : shortUrls) {
+            shortUrlFilter.add(shortUrl);
+            redirectCache.invalidate(shortUrl);
+            invalidateNear(shortUrl);
+        }
+        invalidationsReceived.increment(shortUrls.size());
+    }
+
+    /**
+     * Sends the short URLs changed since the last run to every peer in one message each
+     */
+    void sendInvalidations() {
+        List<String> shortUrls;
+        outboxLock.lock();
+        try {
+            if (outbox.isEmpty()) {
+                return;
+            }
+            shortUrls = new ArrayList<>(outbox);
+            outbox.clear();
+        } finally {
+            outboxLock.unlock();
+        }
+
+        for (String peer : clusterSettings.getNodes().keySet()) {
+            if (peer.equals(clusterSettings.getNodeId())) {
+                continue;
+            }
+            try {
+                clusterTransport.invalidate(peer, shortUrls);
+                invalidationsSent.increment(shortUrls.size());
+            } catch (RuntimeException e) {
+                log.warn("Invalidation of {} short URLs not sent to {}", shortUrls.size(), peer, e);
+            }
+        }
+    }
+
+    private void invalidateNear(String shortUrl) {
+        if (nearCache != null) {
+            nearCache.invalidate(shortUrl);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("url.shortener.cluster.lookups")
+                .tag("route", route)
+                .description("Cluster redirect lookups by where they were answered")
+                .register(meterRegistry);
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("url.shortener.cluster.invalidations")
+                .tag("direction", direction)
+                .description("Changed short URLs exchanged with peers")
+                .register(meterRegistry);
+    }
+}
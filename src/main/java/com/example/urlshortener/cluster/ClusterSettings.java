@@ -0,0 +1,99 @@
+package com.example.urlshortener.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static cluster membership: this node's id, every member's base URL, and the
+ * ring built from them, plus the secret peers present on /cluster calls.
+ * Every node must be given the same member list and secret.
+ */
+@Component
+@Profile("cluster")
+public class ClusterSettings {
+
+    /**
+     * Request header carrying the shared peer secret
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final String nodeId;
+    private final Map<String, String> nodes;
+    private final ConsistentHashRing ring;
+    private final byte[] secret;
+
+    @Autowired
+    public ClusterSettings(
+            @Value("${url-shortener.cluster.node-id}") String nodeId,
+            @Value("${url-shortener.cluster.nodes}") List<String> members,
+            @Value("${url-shortener.cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${url-shortener.cluster.secret:}") String secret) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (String member : members) {
+            int separator = member.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("url-shortener.cluster.nodes entries must be id=baseUrl: " + member);
+            }
+            String baseUrl = member.substring(separator + 1).trim();
+            nodes.put(member.substring(0, separator).trim(),
+                    baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl);
+        }
+        if (!nodes.containsKey(nodeId)) {
+            throw new IllegalArgumentException("url-shortener.cluster.node-id " + nodeId + " is not in url-shortener.cluster.nodes");
+        }
+
+        this.nodeId = nodeId;
+        this.nodes = Collections.unmodifiableMap(nodes);
+        this.ring = new ConsistentHashRing(nodes.keySet(), virtualNodes);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The shared peer secret, empty if none is configured
+     */
+    public String getSecret() {
+        return new String(secret, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks a presented secret in constant time. Nothing is a peer while no
+     * secret is configured.
+     *
+     * @param presented The value of the secret header, or null
+     * @return Whether the caller is a peer
+     */
+    public boolean isPeer(String presented) {
+        return secret.length > 0 && presented != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The id of this node
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return Base URL of every member, this node included, keyed by node id
+     */
+    public Map<String, String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The ring over every member
+     */
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+}
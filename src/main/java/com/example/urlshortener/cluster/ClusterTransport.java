@@ -0,0 +1,51 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+/**
+ * Intra-cluster channel: asks a short URL's owner for it and tells peers
+ * about changed mappings. Selected with url-shortener.cluster.transport:
+ * http between processes, or local between contexts in one JVM.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Resolves a short URL on the node that owns it
+     *
+     * @param nodeId The owner
+     * @param shortUrl The short URL
+     * @return The owner's answer, or null if the short URL does not exist
+     * @throws DataAccessResourceFailureException if the owner cannot be reached
+     */
+    CachedRedirect lookup(String nodeId, String shortUrl);
+
+    /**
+     * Sends changed short URLs to a peer without waiting for it. Delivery is
+     * best effort; a lost message leaves the peer's entry until its cache TTL.
+     *
+     * @param nodeId The peer
+     * @param shortUrls The short URLs created or changed on this node
+     */
+    void invalidate(String nodeId, List<String> shortUrls);
+
+    /**
+     * Registers this node to receive lookups and invalidations, for transports
+     * that deliver them in-process
+     *
+     * @param nodeId This node's id
+     * @param node The receiving side
+     */
+    default void join(String nodeId, ClusterRedirectResolver node) {
+    }
+
+    /**
+     * Stops delivering to this node
+     *
+     * @param nodeId This node's id
+     */
+    default void leave(String nodeId) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.StringHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent-hash ring assigning each short URL to one node. Every node is
+ * placed at many pseudo-random points, so keys spread evenly and adding or
+ * removing a node only moves the keys of the arcs it gains or loses.
+ * Immutable; nodes that list the same members build the same ring.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * @param nodeIds The member node ids
+     * @param virtualNodes Points per node on the ring
+     */
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one node and one point per node");
+        }
+
+        List<String> sorted = new ArrayList<>(nodeIds);
+        sorted.sort(null);
+        long[] keyed = new long[sorted.size() * virtualNodes];
+        int count = 0;
+        for (int node = 0; node < sorted.size(); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                keyed[count++] = StringHash.of(sorted.get(node) + "#" + i);
+            }
+        }
+
+        // Sort points with their owners; ties go to the node that sorts first
+        Integer[] order = new Integer[keyed.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keyed[a] != keyed[b] ? Long.compare(keyed[a], keyed[b]) : Integer.compare(a, b));
+
+        this.points = new long[keyed.length];
+        this.owners = new String[keyed.length];
+        for (int i = 0; i < order.length; i++) {
+            points[i] = keyed[order[i]];
+            owners[i] = sorted.get(order[i] / virtualNodes);
+        }
+    }
+
+    /**
+     * Finds the node that owns a key: the first point at or after its hash
+     *
+     * @param key The short URL
+     * @return The owner's node id
+     */
+    public String ownerOf(String key) {
+        int index = Arrays.binarySearch(points, StringHash.of(key));
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Equal points are adjacent; the first one wins
+            while (index > 0 && points[index - 1] == points[index]) {
+                index--;
+            }
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.dto.PeerInvalidation;
+import com.example.urlshortener.dto.PeerRedirect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cluster transport over HTTP/1.1 to the peers' /cluster endpoints, on the
+ * JDK client with its own connection pool. Every call carries the shared peer
+ * secret. Lookups block for at most the configured timeout; invalidations are
+ * sent asynchronously.
+ */
+@Component
+@Profile("cluster")
+@ConditionalOnProperty(name = "url-shortener.cluster.transport", havingValue = "http", matchIfMissing = true)
+public class HttpClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClusterTransport.class);
+
+    private final ClusterSettings clusterSettings;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    @Autowired
+    public HttpClusterTransport(
+            ClusterSettings clusterSettings,
+            ObjectMapper objectMapper,
+            @Value("${url-shortener.cluster.timeout:250ms}") Duration timeout) {
+        if (clusterSettings.getSecret().isBlank()) {
+            throw new IllegalArgumentException("url-shortener.cluster.secret must be set for the http cluster transport");
+        }
+        this.clusterSettings = clusterSettings;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public CachedRedirect lookup(String nodeId, String shortUrl) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl(nodeId) + "/cluster/redirects/" + UriUtils.encodePathSegment(shortUrl, StandardCharsets.UTF_8)))
+                .timeout(timeout)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(ClusterSettings.SECRET_HEADER, clusterSettings.getSecret())
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                throw new DataAccessResourceFailureException("Peer " + nodeId + " answered " + response.statusCode());
+            }
+            PeerRedirect redirect = objectMapper.readValue(response.body(), PeerRedirect.class);
+            return new CachedRedirect(redirect.getLongUrl(), redirect.isEnabled(), redirect.getExpiresAtMillis());
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Peer " + nodeId + " unreachable", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted waiting for peer " + nodeId, e);
+        }
+    }
+
+    @Override
+    public void invalidate(String nodeId, List<String> shortUrls) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new PeerInvalidation(clusterSettings.getNodeId(), shortUrls));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl(nodeId) + "/cluster/invalidations"))
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(ClusterSettings.SECRET_HEADER, clusterSettings.getSecret())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+            if (e != null || response.statusCode() / 100 != 2) {
+                log.warn("Invalidation of {} short URLs not delivered to {}: {}", shortUrls.size(), nodeId,
+                        e != null ? e.toString() : "status " + response.statusCode());
+            }
+        });
+    }
+
+    private String baseUrl(String nodeId) {
+        return clusterSettings.getNodes().get(nodeId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for the network: delivers straight to the other
+ * application contexts of the same JVM, found by node id. Lets multi-node
+ * behavior be tested and benchmarked without ports or serialization.
+ */
+@Component
+@Profile("cluster")
+@ConditionalOnProperty(name = "url-shortener.cluster.transport", havingValue = "local")
+public class LocalClusterTransport implements ClusterTransport {
+
+    // Shared by every context in the JVM, like an in-memory H2 database
+    private static final Map<String, ClusterRedirectResolver> NODES = new ConcurrentHashMap<>();
+
+    @Override
+    public CachedRedirect lookup(String nodeId, String shortUrl) {
+        return node(nodeId).resolveOwned(shortUrl);
+    }
+
+    @Override
+    public void invalidate(String nodeId, List<String> shortUrls) {
+        ClusterRedirectResolver node = NODES.get(nodeId);
+        if (node != null) {
+            node.peerChanged(shortUrls);
+        }
+    }
+
+    @Override
+    public void join(String nodeId, ClusterRedirectResolver node) {
+        if (NODES.putIfAbsent(nodeId, node) != null) {
+            throw new IllegalStateException("Node " + nodeId + " is already running in this JVM");
+        }
+    }
+
+    @Override
+    public void leave(String nodeId) {
+        NODES.remove(nodeId);
+    }
+
+    private static ClusterRedirectResolver node(String nodeId) {
+        ClusterRedirectResolver node = NODES.get(nodeId);
+        if (node == null) {
+            throw new DataAccessResourceFailureException("Node " + nodeId + " is not running");
+        }
+        return node;
+    }
+}
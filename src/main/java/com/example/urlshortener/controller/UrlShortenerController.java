@@ -1,17 +1,43 @@
 package com.example.urlshortener.controller;
 
+import com.example.urlshortener.dto.BatchEnableUrlRequest;
+import com.example.urlshortener.dto.BatchEnableUrlResult;
+import com.example.urlshortener.dto.BatchShortenUrlResult;
+import com.example.urlshortener.dto.ChangeFeedPage;
 import com.example.urlshortener.dto.ShortenUrlRequest;
 import com.example.urlshortener.dto.ShortenUrlResponse;
 import com.example.urlshortener.dto.UpdateUrlRequest;
 import com.example.urlshortener.dto.EnableUrlRequest;
 import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.dto.UrlMappingPage;
+import com.example.urlshortener.feed.ChangeFeed;
+import com.example.urlshortener.redirect.RedirectSettings;
 import com.example.urlshortener.service.UrlShortenerService;
+import com.example.urlshortener.stats.MappingStats;
+import com.example.urlshortener.tracking.ClickTracker;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +50,38 @@ import java.util.Map;
 public class UrlShortenerController {
     
     private final UrlShortenerService urlShortenerService;
+    private final ClickTracker clickTracker;
+    private final MappingStats mappingStats;
+    private final ChangeFeed changeFeed;
+    private final RedirectSettings redirectSettings;
+    private final ObjectMapper objectMapper;
+    private final int batchMaxItems;
+    private final int batchChunkSize;
+    private final int pageMaxSize;
+    private final int hottestLimit;
     
     @Autowired
-    public UrlShortenerController(UrlShortenerService urlShortenerService) {
+    public UrlShortenerController(
+            UrlShortenerService urlShortenerService,
+            ClickTracker clickTracker,
+            MappingStats mappingStats,
+            ChangeFeed changeFeed,
+            RedirectSettings redirectSettings,
+            ObjectMapper objectMapper,
+            @Value("${url-shortener.batch.max-items:10000}") int batchMaxItems,
+            @Value("${url-shortener.batch.chunk-size:500}") int batchChunkSize,
+            @Value("${url-shortener.pagination.max-size:1000}") int pageMaxSize,
+            @Value("${url-shortener.clicks.top-n:10}") int hottestLimit) {
         this.urlShortenerService = urlShortenerService;
+        this.clickTracker = clickTracker;
+        this.mappingStats = mappingStats;
+        this.changeFeed = changeFeed;
+        this.redirectSettings = redirectSettings;
+        this.objectMapper = objectMapper;
+        this.batchMaxItems = batchMaxItems;
+        this.batchChunkSize = batchChunkSize;
+        this.pageMaxSize = pageMaxSize;
+        this.hottestLimit = hottestLimit;
     }
     
     /**
@@ -37,23 +91,90 @@ public class UrlShortenerController {
     @PostMapping("/shorten")
     public ResponseEntity<ShortenUrlResponse> shortenUrl(@Valid @RequestBody ShortenUrlRequest request) {
         try {
-            ShortenUrlResponse response = urlShortenerService.shortenUrl(request.getLongUrl());
+            ShortenUrlResponse response = urlShortenerService.shortenUrl(request.getLongUrl(), request.getExpiresAt());
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * POST /shorten/batch
+     * Shortens a JSON array of URLs, given as strings or {"longUrl": ...} objects
+     */
+    @PostMapping(value = "/shorten/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchShortenUrlResult>> shortenUrls(@RequestBody List<ShortenUrlRequest> requests) {
+        if (requests.size() > batchMaxItems) {
+            throw new IllegalArgumentException("Batch exceeds " + batchMaxItems + " URLs; use NDJSON for larger batches");
+        }
+        
+        return ResponseEntity.ok(shortenBatch(requests));
+    }
+    
+    /**
+     * POST /shorten/batch
+     * Shortens an NDJSON stream of URLs chunk by chunk, streaming one result line per input line.
+     * A malformed line is rejected with 400 until the first chunk is sent; after that the
+     * chunk read so far is shortened and the stream ends with an error line.
+     */
+    @PostMapping(value = "/shorten/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void shortenUrlsStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writerFor(BatchShortenUrlResult.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        List<ShortenUrlRequest> chunk = new ArrayList<>(batchChunkSize);
+        boolean started = false;
+        try (MappingIterator<ShortenUrlRequest> requests = objectMapper.readerFor(ShortenUrlRequest.class).readValues(body)) {
+            while (requests.hasNextValue()) {
+                chunk.add(requests.nextValue());
+                if (chunk.size() == batchChunkSize || !requests.hasNextValue()) {
+                    writeResults(shortenBatch(chunk), writer, out);
+                    started = true;
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            String error = "Malformed NDJSON request: " + e.getOriginalMessage();
+            if (!started) {
+                throw new IllegalArgumentException(error);
+            }
+            // The 200 is already sent, so the error can only be reported in the stream
+            List<BatchShortenUrlResult> results = shortenBatch(chunk);
+            results.add(BatchShortenUrlResult.failed(null, error));
+            writeResults(results, writer, out);
+        }
+    }
+    
+    private static void writeResults(List<BatchShortenUrlResult> results, ObjectWriter writer, OutputStream out)
+            throws IOException {
+        for (BatchShortenUrlResult result : results) {
+            writer.writeValue(out, result);
+            out.write('\n');
+        }
+        out.flush();
+    }
+    
     /**
      * GET /{shortUrl}
-     * Retrieves the original long URL from a short URL
+     * Retrieves the original long URL from a short URL. Most redirects are answered
+     * by RedirectFilter before reaching this method; it serves the rest, such as
+     * percent-encoded codes, and all of them when the fast path is switched off.
      */
     @GetMapping("/{shortUrl}")
     public ResponseEntity<String> getOriginalUrl(@PathVariable String shortUrl) {
         String originalUrl = urlShortenerService.getOriginalUrl(shortUrl);
         
         if (originalUrl != null) {
-            return ResponseEntity.status(HttpStatus.FOUND).header("Location", originalUrl).build();
+            clickTracker.record(shortUrl);
+            mappingStats.recordRedirect();
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(redirectSettings.getStatus())
+                    .header(HttpHeaders.LOCATION, originalUrl);
+            if (redirectSettings.getCacheControl() != null) {
+                response.header(HttpHeaders.CACHE_CONTROL, redirectSettings.getCacheControl());
+            }
+            return response.build();
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -61,12 +182,65 @@ public class UrlShortenerController {
     
     /**
      * GET /
-     * Lists all URL mappings
+     * Lists URL mappings one page at a time, ordered by id
      */
     @GetMapping
-    public ResponseEntity<List<UrlMapping>> getAllMappings() {
-        List<UrlMapping> mappings = urlShortenerService.getAllMappings();
-        return ResponseEntity.ok(mappings);
+    public ResponseEntity<UrlMappingPage> getMappings(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Boolean enabled) {
+        
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        UrlMappingPage page = urlShortenerService.getMappingsPage(after, Math.min(limit, pageMaxSize), enabled);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * GET /export
+     * Streams every URL mapping as NDJSON, ordered by id
+     */
+    @GetMapping("/export")
+    public void exportMappings(
+            @RequestParam(required = false) Boolean enabled,
+            HttpServletResponse response) throws IOException {
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writerFor(UrlMapping.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        try {
+            urlShortenerService.exportMappings(enabled, mapping -> {
+                try {
+                    writer.writeValue(out, mapping);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * GET /changes
+     * Lists mappings changed after a cursor, optionally waiting for the next change
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ChangeFeedPage> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") long wait) {
+        
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        
+        return changeFeed.awaitChanges(since, Math.min(limit, pageMaxSize), Duration.ofSeconds(Math.max(wait, 0)));
     }
     
     /**
@@ -113,15 +287,55 @@ public class UrlShortenerController {
         }
     }
     
+    /**
+     * PUT /enable/batch
+     * Enables/disables a JSON array of {"shortUrl": ..., "isEnabled": ...} items
+     */
+    @PutMapping(value = "/enable/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BatchEnableUrlResult>> updateMappingsEnabled(
+            @RequestBody List<BatchEnableUrlRequest> requests) {
+        if (requests.size() > batchMaxItems) {
+            throw new IllegalArgumentException("Batch exceeds " + batchMaxItems + " items");
+        }
+        return ResponseEntity.ok(urlShortenerService.updateMappingsEnabled(requests));
+    }
+    
     /**
      * GET /stats
-     * Gets statistics about the URL shortener
+     * Gets statistics about the URL shortener, served from memory
      */
     @GetMapping("/stats")
     public ResponseEntity<Object> getStats() {
-        return ResponseEntity.ok(Map.of(
-            "totalMappings", urlShortenerService.getTotalMappings()
-        ));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalMappings", urlShortenerService.getTotalMappings());
+        stats.put("enabledMappings", mappingStats.getEnabledMappings());
+        stats.put("disabledMappings", mappingStats.getDisabledMappings());
+        stats.put("insertsPerSecond", mappingStats.getInsertRate());
+        stats.put("redirectsPerSecond", mappingStats.getRedirectRate());
+        stats.put("hottest", clickTracker.getHottest(hottestLimit));
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Batches only create permanent links; items with an expiry fail on their own
+     * and should go through POST /shorten
+     */
+    private List<BatchShortenUrlResult> shortenBatch(List<ShortenUrlRequest> requests) {
+        List<String> longUrls = new ArrayList<>(requests.size());
+        for (ShortenUrlRequest request : requests) {
+            if (request == null || request.getExpiresAt() == null) {
+                longUrls.add(request != null ? request.getLongUrl() : null);
+            }
+        }
+        
+        Iterator<BatchShortenUrlResult> shortened = urlShortenerService.shortenUrls(longUrls).iterator();
+        List<BatchShortenUrlResult> results = new ArrayList<>(requests.size());
+        for (ShortenUrlRequest request : requests) {
+            results.add(request != null && request.getExpiresAt() != null
+                    ? BatchShortenUrlResult.failed(request.getLongUrl(), "expiresAt is not supported in batches; use POST /shorten")
+                    : shortened.next());
+        }
+        return results;
     }
     
     /**
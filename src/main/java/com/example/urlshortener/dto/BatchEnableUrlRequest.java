@@ -0,0 +1,36 @@
+package com.example.urlshortener.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for one item of a batch enable/disable request
+ */
+public class BatchEnableUrlRequest {
+    
+    private String shortUrl;
+    @JsonProperty("isEnabled")
+    private boolean isEnabled;
+    
+    public BatchEnableUrlRequest() {}
+    
+    public BatchEnableUrlRequest(String shortUrl, boolean isEnabled) {
+        this.shortUrl = shortUrl;
+        this.isEnabled = isEnabled;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+    
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+}
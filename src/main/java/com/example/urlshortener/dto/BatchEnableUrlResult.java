@@ -0,0 +1,33 @@
+package com.example.urlshortener.dto;
+
+/**
+ * DTO for one item of a batch enable/disable response
+ */
+public class BatchEnableUrlResult {
+    
+    private String shortUrl;
+    private boolean updated;
+    
+    public BatchEnableUrlResult() {}
+    
+    public BatchEnableUrlResult(String shortUrl, boolean updated) {
+        this.shortUrl = shortUrl;
+        this.updated = updated;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public boolean isUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(boolean updated) {
+        this.updated = updated;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.urlshortener.dto;
+
+/**
+ * DTO for one item of a batch URL shortening response
+ */
+public class BatchShortenUrlResult {
+    
+    private String shortUrl;
+    private String longUrl;
+    private boolean isNew;
+    private String error;
+    
+    public BatchShortenUrlResult() {}
+    
+    public BatchShortenUrlResult(String shortUrl, String longUrl, boolean isNew) {
+        this.shortUrl = shortUrl;
+        this.longUrl = longUrl;
+        this.isNew = isNew;
+    }
+    
+    public static BatchShortenUrlResult failed(String longUrl, String error) {
+        BatchShortenUrlResult result = new BatchShortenUrlResult(null, longUrl, false);
+        result.setError(error);
+        return result;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public String getLongUrl() {
+        return longUrl;
+    }
+    
+    public void setLongUrl(String longUrl) {
+        this.longUrl = longUrl;
+    }
+    
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    public void setNew(boolean isNew) {
+        this.isNew = isNew;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
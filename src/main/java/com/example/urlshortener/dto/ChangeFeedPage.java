@@ -0,0 +1,38 @@
+package com.example.urlshortener.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the change feed, ordered by update time
+ */
+public class ChangeFeedPage {
+    
+    private List<MappingChange> changes;
+    private String nextCursor;
+    
+    public ChangeFeedPage() {}
+    
+    public ChangeFeedPage(List<MappingChange> changes, String nextCursor) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<MappingChange> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<MappingChange> changes) {
+        this.changes = changes;
+    }
+    
+    /**
+     * Value to pass as "since" on the next request; unchanged when the page is empty
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.urlshortener.dto;
+
+/**
+ * DTO for a short URL tracked by the hot-key sketch
+ */
+public class HotKey {
+    
+    private String shortUrl;
+    private long lookups;
+    private long error;
+    private boolean pinned;
+    
+    public HotKey() {}
+    
+    public HotKey(String shortUrl, long lookups, long error, boolean pinned) {
+        this.shortUrl = shortUrl;
+        this.lookups = lookups;
+        this.error = error;
+        this.pinned = pinned;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    /**
+     * Estimated recent lookups, halved every window; an overestimate by at most {@link #getError()}
+     */
+    public long getLookups() {
+        return lookups;
+    }
+    
+    public void setLookups(long lookups) {
+        this.lookups = lookups;
+    }
+    
+    public long getError() {
+        return error;
+    }
+    
+    public void setError(long error) {
+        this.error = error;
+    }
+    
+    public boolean isPinned() {
+        return pinned;
+    }
+    
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.urlshortener.dto;
+
+/**
+ * DTO for a frequently accessed short URL
+ */
+public class HotShortUrl {
+    
+    private String shortUrl;
+    private long recentClicks;
+    
+    public HotShortUrl() {}
+    
+    public HotShortUrl(String shortUrl, long recentClicks) {
+        this.shortUrl = shortUrl;
+        this.recentClicks = recentClicks;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    /**
+     * Clicks weighted by recency, decaying with a one-minute half-life
+     */
+    public long getRecentClicks() {
+        return recentClicks;
+    }
+    
+    public void setRecentClicks(long recentClicks) {
+        this.recentClicks = recentClicks;
+    }
+}
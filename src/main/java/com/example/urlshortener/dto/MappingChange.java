@@ -0,0 +1,84 @@
+package com.example.urlshortener.dto;
+
+import com.example.urlshortener.entity.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of the change feed: a mapping in its latest state
+ */
+public class MappingChange {
+    
+    private String shortUrl;
+    private String longUrl;
+    private boolean isEnabled;
+    private ChangeType change;
+    private LocalDateTime updatedAt;
+    private LocalDateTime expiresAt;
+    
+    public MappingChange() {}
+    
+    public MappingChange(String shortUrl, String longUrl, boolean isEnabled, ChangeType change,
+                         LocalDateTime updatedAt, LocalDateTime expiresAt) {
+        this.shortUrl = shortUrl;
+        this.longUrl = longUrl;
+        this.isEnabled = isEnabled;
+        this.change = change;
+        this.updatedAt = updatedAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public String getLongUrl() {
+        return longUrl;
+    }
+    
+    public void setLongUrl(String longUrl) {
+        this.longUrl = longUrl;
+    }
+    
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+    
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+    
+    /**
+     * Most recent kind of change; null for mappings last modified before the feed existed
+     */
+    public ChangeType getChange() {
+        return change;
+    }
+    
+    public void setChange(ChangeType change) {
+        this.change = change;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    /**
+     * Expiry of the link; expired links are deleted without appearing in the feed again
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
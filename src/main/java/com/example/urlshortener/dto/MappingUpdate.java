@@ -0,0 +1,58 @@
+package com.example.urlshortener.dto;
+
+import com.example.urlshortener.entity.ChangeType;
+
+/**
+ * A change to an existing mapping, addressed by short URL. Fields left null
+ * keep their stored value, so successive changes to one code can be merged
+ * into a single row update.
+ */
+public final class MappingUpdate {
+
+    private final String shortUrl;
+    private final String longUrl;
+    private final Boolean enabled;
+    private final ChangeType lastChange;
+
+    /**
+     * @param shortUrl The short URL of the mapping
+     * @param longUrl The new long URL, or null to keep it
+     * @param enabled The new enabled flag, or null to keep it
+     * @param lastChange The change type to record, or null to keep the previous one
+     */
+    public MappingUpdate(String shortUrl, String longUrl, Boolean enabled, ChangeType lastChange) {
+        this.shortUrl = shortUrl;
+        this.longUrl = longUrl;
+        this.enabled = enabled;
+        this.lastChange = lastChange;
+    }
+
+    /**
+     * Combines this change with a later one to the same mapping
+     *
+     * @param later The later change
+     * @return A change with the same effect as applying both in order
+     */
+    public MappingUpdate merge(MappingUpdate later) {
+        return new MappingUpdate(shortUrl,
+                later.longUrl != null ? later.longUrl : longUrl,
+                later.enabled != null ? later.enabled : enabled,
+                later.lastChange != null ? later.lastChange : lastChange);
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public ChangeType getLastChange() {
+        return lastChange;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.urlshortener.dto;
+
+import java.util.List;
+
+/**
+ * DTO for short URLs created or changed on a peer node
+ */
+public class PeerInvalidation {
+    
+    private String origin;
+    private List<String> shortUrls;
+    
+    public PeerInvalidation() {}
+    
+    public PeerInvalidation(String origin, List<String> shortUrls) {
+        this.origin = origin;
+        this.shortUrls = shortUrls;
+    }
+    
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public List<String> getShortUrls() {
+        return shortUrls;
+    }
+    
+    public void setShortUrls(List<String> shortUrls) {
+        this.shortUrls = shortUrls;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.urlshortener.dto;
+
+/**
+ * DTO for a redirect resolved by its owner node for a peer
+ */
+public class PeerRedirect {
+    
+    private String longUrl;
+    private boolean enabled;
+    private long expiresAtMillis;
+    
+    public PeerRedirect() {}
+    
+    public PeerRedirect(String longUrl, boolean enabled, long expiresAtMillis) {
+        this.longUrl = longUrl;
+        this.enabled = enabled;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+    
+    public String getLongUrl() {
+        return longUrl;
+    }
+    
+    public void setLongUrl(String longUrl) {
+        this.longUrl = longUrl;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+    
+    public void setExpiresAtMillis(long expiresAtMillis) {
+        this.expiresAtMillis = expiresAtMillis;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.urlshortener.dto;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
 
 /**
  * DTO for URL shortening request
@@ -9,12 +11,12 @@ import jakarta.validation.constraints.Pattern;
 public class ShortenUrlRequest {
     
     @NotBlank(message = "URL cannot be null or empty")
-    @Pattern(
-        regexp = "^https?://[\\w\\-]+(\\.[\\w\\-]+)+([\\w\\-.,@?^=%&:/~+#]*[\\w\\-@?^=%&/~+#])?$",
-        message = "Invalid URL format. Must be a valid HTTP or HTTPS URL"
-    )
+    @Size(max = 2048, message = "URL cannot exceed 2048 characters")
     private String longUrl;
     
+    // Optional; the link stops redirecting at this server local time
+    private LocalDateTime expiresAt;
+    
     public ShortenUrlRequest() {}
     
     public ShortenUrlRequest(String longUrl) {
@@ -28,4 +30,12 @@ public class ShortenUrlRequest {
     public void setLongUrl(String longUrl) {
         this.longUrl = longUrl;
     }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 } 
\ No newline at end of file
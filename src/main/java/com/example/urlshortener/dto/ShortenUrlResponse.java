@@ -1,5 +1,7 @@
 package com.example.urlshortener.dto;
 
+import java.time.LocalDateTime;
+
 /**
  * DTO for URL shortening response
  */
@@ -8,6 +10,7 @@ public class ShortenUrlResponse {
     private String shortUrl;
     private String longUrl;
     private boolean isNew;
+    private LocalDateTime expiresAt;
     
     public ShortenUrlResponse() {}
     
@@ -17,6 +20,11 @@ public class ShortenUrlResponse {
         this.isNew = isNew;
     }
     
+    public ShortenUrlResponse(String shortUrl, String longUrl, boolean isNew, LocalDateTime expiresAt) {
+        this(shortUrl, longUrl, isNew);
+        this.expiresAt = expiresAt;
+    }
+    
     public String getShortUrl() {
         return shortUrl;
     }
@@ -40,4 +48,12 @@ public class ShortenUrlResponse {
     public void setNew(boolean isNew) {
         this.isNew = isNew;
     }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.urlshortener.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One url_mappings row as stored in a snapshot: everything but the id, which
+ * the importing database assigns
+ */
+public final class SnapshotMapping {
+
+    private final String shortUrl;
+    private final String longUrl;
+    private final boolean enabled;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime expiresAt;
+
+    /**
+     * @param shortUrl The short URL
+     * @param longUrl The long URL
+     * @param enabled The enabled flag
+     * @param createdAt When the mapping was created
+     * @param expiresAt The expiry, or null for none
+     */
+    public SnapshotMapping(String shortUrl, String longUrl, boolean enabled, LocalDateTime createdAt,
+            LocalDateTime expiresAt) {
+        this.shortUrl = shortUrl;
+        this.longUrl = longUrl;
+        this.enabled = enabled;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
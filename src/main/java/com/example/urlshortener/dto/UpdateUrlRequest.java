@@ -1,7 +1,7 @@
 package com.example.urlshortener.dto;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 /**
  * DTO for URL mapping update request
@@ -9,10 +9,7 @@ import jakarta.validation.constraints.Pattern;
 public class UpdateUrlRequest {
     
     @NotBlank(message = "New URL cannot be null or empty")
-    @Pattern(
-        regexp = "^https?://[\\w\\-]+(\\.[\\w\\-]+)+([\\w\\-.,@?^=%&:/~+#]*[\\w\\-@?^=%&/~+#])?$",
-        message = "Invalid URL format. Must be a valid HTTP or HTTPS URL"
-    )
+    @Size(max = 2048, message = "New URL cannot exceed 2048 characters")
     private String newLongUrl;
     
     public UpdateUrlRequest() {}
@@ -1,5 +1,7 @@
 package com.example.urlshortener.dto;
 
+import java.time.LocalDateTime;
+
 /**
  * DTO for URL mapping representation
  */
@@ -8,6 +10,7 @@ public class UrlMapping {
     private String shortUrl;
     private String longUrl;
     private boolean isEnabled;
+    private LocalDateTime expiresAt;
     
     public UrlMapping() {}
     
@@ -17,6 +20,11 @@ public class UrlMapping {
         this.isEnabled = isEnabled;
     }
     
+    public UrlMapping(String shortUrl, String longUrl, boolean isEnabled, LocalDateTime expiresAt) {
+        this(shortUrl, longUrl, isEnabled);
+        this.expiresAt = expiresAt;
+    }
+    
     public String getShortUrl() {
         return shortUrl;
     }
@@ -40,4 +48,12 @@ public class UrlMapping {
     public void setEnabled(boolean isEnabled) {
         this.isEnabled = isEnabled;
     }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 } 
\ No newline at end of file
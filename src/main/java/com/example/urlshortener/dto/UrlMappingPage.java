@@ -0,0 +1,38 @@
+package com.example.urlshortener.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of URL mappings, ordered by id
+ */
+public class UrlMappingPage {
+    
+    private List<UrlMapping> mappings;
+    private Long nextCursor;
+    
+    public UrlMappingPage() {}
+    
+    public UrlMappingPage(List<UrlMapping> mappings, Long nextCursor) {
+        this.mappings = mappings;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<UrlMapping> getMappings() {
+        return mappings;
+    }
+    
+    public void setMappings(List<UrlMapping> mappings) {
+        this.mappings = mappings;
+    }
+    
+    /**
+     * Value to pass as "after" to fetch the next page; null on the last page
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
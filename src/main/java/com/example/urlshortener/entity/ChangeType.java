@@ -0,0 +1,11 @@
+package com.example.urlshortener.entity;
+
+/**
+ * Most recent kind of change made to a mapping, reported by the change feed
+ */
+public enum ChangeType {
+    CREATED,
+    URL_UPDATED,
+    ENABLED,
+    DISABLED
+}
@@ -0,0 +1,59 @@
+package com.example.urlshortener.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated redirect counts per short URL, written in batches by the click tracker
+ */
+@Entity
+@Table(name = "click_stats")
+public class ClickStatsEntity {
+    
+    @Id
+    @Column(name = "short_url", length = 10)
+    private String shortUrl;
+    
+    @Column(name = "click_count", nullable = false)
+    private long clickCount;
+    
+    @Column(name = "last_accessed_at", nullable = false)
+    private LocalDateTime lastAccessedAt;
+    
+    // Default constructor
+    public ClickStatsEntity() {}
+    
+    // Getters and Setters
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public long getClickCount() {
+        return clickCount;
+    }
+    
+    public void setClickCount(long clickCount) {
+        this.clickCount = clickCount;
+    }
+    
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+    
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "ClickStatsEntity{" +
+                "shortUrl='" + shortUrl + '\'' +
+                ", clickCount=" + clickCount +
+                ", lastAccessedAt=" + lastAccessedAt +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.urlshortener.entity;
+
+/**
+ * Fixed-width digest of a long URL, stored in url_mappings.long_url_hash so
+ * dedup can use an index instead of comparing 2048-character strings.
+ * Distinct URLs may share a hash, so matches must be confirmed by equality.
+ * The value is persisted: never change the algorithm without rehashing.
+ */
+public final class LongUrlHash {
+    
+    private LongUrlHash() {}
+    
+    /**
+     * Computes the 64-bit hash of a normalized long URL
+     * 
+     * @param longUrl The normalized long URL
+     * @return The hash
+     */
+    public static long of(String longUrl) {
+        // FNV-1a over the UTF-16 code units, finalized with the MurmurHash3 mixer
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < longUrl.length(); i++) {
+            char c = longUrl.charAt(i);
+            hash ^= c & 0xFF;
+            hash *= 0x100000001B3L;
+            hash ^= c >>> 8;
+            hash *= 0x100000001B3L;
+        }
+        
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.urlshortener.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Short code freed by the deletion of an expired link, reusable once its quarantine is over
+ */
+@Entity
+@Table(name = "reclaimed_short_codes", indexes = {
+    @Index(name = "idx_reclaimed_short_codes_available_at", columnList = "available_at")
+})
+public class ReclaimedShortCodeEntity {
+    
+    @Id
+    @Column(name = "short_url", length = 10)
+    private String shortUrl;
+    
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+    
+    // Default constructor
+    public ReclaimedShortCodeEntity() {}
+    
+    // Getters and Setters
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+    
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+    
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReclaimedShortCodeEntity{" +
+                "shortUrl='" + shortUrl + '\'' +
+                ", availableAt=" + availableAt +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.urlshortener.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "short_code_sequences")
+public class ShortCodeSequenceEntity {
+    
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+    
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+    
+    // Default constructor
+    public ShortCodeSequenceEntity() {}
+    
+    // Constructor with required fields
+    public ShortCodeSequenceEntity(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getNextValue() {
+        return nextValue;
+    }
+    
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+    
+    @Override
+    public String toString() {
+        return "ShortCodeSequenceEntity{" +
+                "name='" + name + '\'' +
+                ", nextValue=" + nextValue +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.urlshortener.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a snapshot import through one part file, committed with the rows it counts
+ */
+@Entity
+@Table(name = "snapshot_import_checkpoints")
+public class SnapshotImportCheckpointEntity {
+    
+    // Snapshot id and part file name, as "snapshotId/part"
+    @Id
+    @Column(name = "part_key", length = 128)
+    private String partKey;
+    
+    @Column(name = "rows_done", nullable = false)
+    private long rowsDone;
+    
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor
+    public SnapshotImportCheckpointEntity() {}
+    
+    // Getters and Setters
+    public String getPartKey() {
+        return partKey;
+    }
+    
+    public void setPartKey(String partKey) {
+        this.partKey = partKey;
+    }
+    
+    public long getRowsDone() {
+        return rowsDone;
+    }
+    
+    public void setRowsDone(long rowsDone) {
+        this.rowsDone = rowsDone;
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "SnapshotImportCheckpointEntity{" +
+                "partKey='" + partKey + '\'' +
+                ", rowsDone=" + rowsDone +
+                ", completed=" + completed +
+                '}';
+    }
+}
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "url_mappings")
+@Table(name = "url_mappings", indexes = {
+    @Index(name = "idx_url_mappings_long_url_hash", columnList = "long_url_hash"),
+    @Index(name = "idx_url_mappings_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_url_mappings_expires_at", columnList = "expires_at")
+})
 public class UrlMappingEntity {
     
+    // Ids reserved per sequence round-trip; lets Hibernate batch inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "url_mappings_seq")
+    @SequenceGenerator(name = "url_mappings_seq", sequenceName = "url_mappings_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(name = "short_url", unique = true, nullable = false, length = 10)
@@ -17,6 +25,10 @@ public class UrlMappingEntity {
     @Column(name = "long_url", nullable = false, length = 2048)
     private String longUrl;
     
+    // Null only for rows written before the column existed, until backfilled
+    @Column(name = "long_url_hash")
+    private Long longUrlHash;
+    
     @Column(name = "is_enabled", nullable = false)
     private boolean isEnabled;
     
@@ -26,15 +38,29 @@ public class UrlMappingEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Null for rows written before the change feed existed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_change", length = 16)
+    private ChangeType lastChange;
+    
+    // Null for links that never expire
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        longUrlHash = LongUrlHash.of(longUrl);
+        if (lastChange == null) {
+            lastChange = ChangeType.CREATED;
+        }
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        longUrlHash = LongUrlHash.of(longUrl);
     }
     
     // Default constructor
@@ -72,6 +98,14 @@ public class UrlMappingEntity {
         this.longUrl = longUrl;
     }
     
+    public Long getLongUrlHash() {
+        return longUrlHash;
+    }
+    
+    public void setLongUrlHash(Long longUrlHash) {
+        this.longUrlHash = longUrlHash;
+    }
+    
     public boolean isEnabled() {
         return isEnabled;
     }
@@ -96,15 +130,34 @@ public class UrlMappingEntity {
         this.updatedAt = updatedAt;
     }
     
+    public ChangeType getLastChange() {
+        return lastChange;
+    }
+    
+    public void setLastChange(ChangeType lastChange) {
+        this.lastChange = lastChange;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
     @Override
     public String toString() {
         return "UrlMappingEntity{" +
                 "id=" + id +
                 ", shortUrl='" + shortUrl + '\'' +
                 ", longUrl='" + longUrl + '\'' +
+                ", longUrlHash=" + longUrlHash +
                 ", isEnabled=" + isEnabled +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", lastChange=" + lastChange +
+                ", expiresAt=" + expiresAt +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.example.urlshortener.expiry;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.feed.MappingChangedEvent;
+import com.example.urlshortener.repository.ClickStatsJdbcRepository;
+import com.example.urlshortener.repository.ReclaimedShortCodeJdbcRepository;
+import com.example.urlshortener.stats.MappingStats;
+import com.example.urlshortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes links whose expiry has passed. Redirects already refuse them at
+ * lookup time, so the sweeper only reclaims space and is free to lag behind.
+ * Each sweep walks the expires_at index in bounded batches, either deleting
+ * the mappings with their click stats or disabling them.
+ * <p>
+ * Short codes of deleted links are queued in reclaimed_short_codes and only
+ * issued again after a quarantine, so a stale link in an old email or cache
+ * does not suddenly lead somewhere else.
+ */
+@Component
+public class ExpiredLinkSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredLinkSweeper.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UrlMappingStore urlMappingStore;
+    private final ClickStatsJdbcRepository clickStatsJdbcRepository;
+    private final ReclaimedShortCodeJdbcRepository reclaimedShortCodeJdbcRepository;
+    private final RedirectResolver redirectResolver;
+    private final MappingStats mappingStats;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final boolean delete;
+    private final boolean reuseCodes;
+    private final Duration sweepInterval;
+    private final Duration quarantine;
+    private final int batchSize;
+    private final int maxBatchesPerSweep;
+    private final Counter swept;
+
+    // One sweep at a time on this node
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    // Disabled links stay in the index, so disabling resumes from the last expiry handled
+    private LocalDateTime disabledUpTo = EPOCH;
+    private ScheduledFuture<?> sweepTask;
+
+    @Autowired
+    public ExpiredLinkSweeper(
+            UrlMappingStore urlMappingStore,
+            ClickStatsJdbcRepository clickStatsJdbcRepository,
+            ReclaimedShortCodeJdbcRepository reclaimedShortCodeJdbcRepository,
+            RedirectResolver redirectResolver,
+            MappingStats mappingStats,
+            ApplicationEventPublisher eventPublisher,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.expiry.enabled:true}") boolean enabled,
+            @Value("${url-shortener.expiry.action:delete}") String action,
+            @Value("${url-shortener.expiry.reuse-codes:true}") boolean reuseCodes,
+            @Value("${url-shortener.expiry.sweep-interval:1m}") Duration sweepInterval,
+            @Value("${url-shortener.expiry.quarantine:30d}") Duration quarantine,
+            @Value("${url-shortener.expiry.batch-size:500}") int batchSize,
+            @Value("${url-shortener.expiry.max-batches-per-sweep:20}") int maxBatchesPerSweep) {
+        if (!action.equals("delete") && !action.equals("disable")) {
+            throw new IllegalArgumentException("url-shortener.expiry.action must be delete or disable: " + action);
+        }
+        this.urlMappingStore = urlMappingStore;
+        this.clickStatsJdbcRepository = clickStatsJdbcRepository;
+        this.reclaimedShortCodeJdbcRepository = reclaimedShortCodeJdbcRepository;
+        this.redirectResolver = redirectResolver;
+        this.mappingStats = mappingStats;
+        this.eventPublisher = eventPublisher;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.delete = action.equals("delete") && urlMappingStore.supportsDelete();
+        this.reuseCodes = reuseCodes && delete;
+        this.sweepInterval = sweepInterval;
+        this.quarantine = quarantine;
+        this.batchSize = batchSize;
+        this.maxBatchesPerSweep = maxBatchesPerSweep;
+        this.swept = Counter.builder("url.shortener.expiry.swept")
+                .tag("action", delete ? "delete" : "disable")
+                .description("Expired links removed by the sweeper")
+                .register(meterRegistry);
+
+        if (action.equals("delete") && !delete) {
+            log.warn("The mapping store cannot delete; expired links will be disabled instead");
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            sweepTask = taskScheduler.scheduleWithFixedDelay(this::sweep, sweepInterval);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sweepTask != null) {
+            sweepTask.cancel(false);
+        }
+    }
+
+    /**
+     * Handles links expired by now, up to the per-sweep batch limit. The rest
+     * is left for the next sweep so a backlog never monopolizes the database.
+     *
+     * @return The number of links deleted or disabled
+     */
+    public int sweep() {
+        sweepLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            for (int i = 0; i < maxBatchesPerSweep; i++) {
+                List<UrlMappingEntity> batch = urlMappingStore.findExpired(delete ? EPOCH : disabledUpTo, now, !delete, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                total += delete ? deleteBatch(batch, now) : disableBatch(batch);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+
+            if (total > 0) {
+                swept.increment(total);
+                log.info("{} {} expired links", delete ? "Deleted" : "Disabled", total);
+            }
+            return total;
+        } catch (DataAccessException e) {
+            // Expired links are refused at lookup time, so a failed sweep only delays cleanup
+            log.warn("Expired link sweep failed", e);
+            return 0;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private int deleteBatch(List<UrlMappingEntity> batch, LocalDateTime now) {
+        int deleted = urlMappingStore.deleteAll(batch);
+        int enabledCount = (int) batch.stream().filter(UrlMappingEntity::isEnabled).count();
+        mappingStats.recordDeleted(deleted, Math.min(deleted, enabledCount));
+
+        List<String> shortUrls = batch.stream().map(UrlMappingEntity::getShortUrl).toList();
+        clickStatsJdbcRepository.deleteAll(shortUrls);
+        if (reuseCodes) {
+            reclaimedShortCodeJdbcRepository.addAll(shortUrls, now.plus(quarantine));
+        }
+        for (UrlMappingEntity mapping : batch) {
+            redirectResolver.mappingChanged(mapping.getShortUrl(),
+                    new CachedRedirect(mapping.getLongUrl(), false, mapping.getExpiresAt()));
+        }
+        return deleted;
+    }
+
+    private int disableBatch(List<UrlMappingEntity> batch) {
+        int disabled = urlMappingStore.disableAll(batch);
+        for (int i = 0; i < disabled; i++) {
+            mappingStats.recordEnabledChanged(false);
+        }
+
+        for (UrlMappingEntity mapping : batch) {
+            redirectResolver.mappingChanged(mapping.getShortUrl(),
+                    new CachedRedirect(mapping.getLongUrl(), false, mapping.getExpiresAt()));
+        }
+        eventPublisher.publishEvent(new MappingChangedEvent(
+                batch.stream().map(UrlMappingEntity::getShortUrl).toList()));
+        disabledUpTo = batch.get(batch.size() - 1).getExpiresAt();
+        return disabled;
+    }
+}
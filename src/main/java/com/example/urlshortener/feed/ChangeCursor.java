@@ -0,0 +1,61 @@
+package com.example.urlshortener.feed;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Position in the change feed: the updated_at and id of the last change seen.
+ * Rendered as "{microseconds since the epoch}-{id}"; clients treat it as opaque.
+ */
+public final class ChangeCursor {
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    /**
+     * Position before every change
+     */
+    public static final ChangeCursor START = new ChangeCursor(EPOCH, 0);
+    
+    private final LocalDateTime updatedAt;
+    private final long id;
+    
+    public ChangeCursor(LocalDateTime updatedAt, long id) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+    
+    /**
+     * Parses a cursor returned by an earlier page
+     * 
+     * @param cursor The cursor
+     * @return The position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static ChangeCursor parse(String cursor) {
+        int separator = cursor.indexOf('-', 1);
+        try {
+            if (separator < 0) {
+                throw new NumberFormatException();
+            }
+            long micros = Long.parseLong(cursor, 0, separator, 10);
+            long id = Long.parseLong(cursor, separator + 1, cursor.length(), 10);
+            return new ChangeCursor(EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid change cursor: " + cursor);
+        }
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    @Override
+    public String toString() {
+        long micros = ChronoUnit.MICROS.between(EPOCH, updatedAt);
+        return micros + "-" + id;
+    }
+}
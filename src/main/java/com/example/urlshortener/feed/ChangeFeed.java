@@ -0,0 +1,186 @@
+package com.example.urlshortener.feed;
+
+import com.example.urlshortener.dto.ChangeFeedPage;
+import com.example.urlshortener.dto.MappingChange;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.store.UrlMappingStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Incremental feed of mapping changes ordered by (updated_at, id).
+ * Each changed mapping is reported once in its latest state, so a consumer
+ * catches up in time proportional to what changed since its cursor.
+ * <p>
+ * Changes younger than the settle delay are held back: a write stamped
+ * earlier but committed later than one already returned would otherwise
+ * fall behind a consumer's cursor and be missed.
+ * <p>
+ * Long-polling requests wait until a change settles. Writes on this node
+ * wake them as soon as their changes settle; writes on other nodes are
+ * picked up by a periodic poll that only runs while someone is waiting.
+ */
+@Component
+public class ChangeFeed {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+    
+    private final UrlMappingStore urlMappingStore;
+    private final TaskScheduler taskScheduler;
+    private final Duration settleDelay;
+    private final Duration maxWait;
+    private final Duration pollInterval;
+    
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private ScheduledFuture<?> pollTask;
+    
+    @Autowired
+    public ChangeFeed(
+            UrlMappingStore urlMappingStore,
+            TaskScheduler taskScheduler,
+            @Value("${url-shortener.changes.settle-delay:2s}") Duration settleDelay,
+            @Value("${url-shortener.changes.max-wait:30s}") Duration maxWait,
+            @Value("${url-shortener.changes.poll-interval:1s}") Duration pollInterval) {
+        this.urlMappingStore = urlMappingStore;
+        this.taskScheduler = taskScheduler;
+        this.settleDelay = settleDelay;
+        this.maxWait = maxWait;
+        this.pollInterval = pollInterval;
+    }
+    
+    @PostConstruct
+    void start() {
+        pollTask = taskScheduler.scheduleWithFixedDelay(this::wakeWaiters, pollInterval);
+    }
+    
+    @PreDestroy
+    void stop() {
+        pollTask.cancel(false);
+        for (Waiter waiter : waiters) {
+            waiter.result.setResult(waiter.timeoutPage);
+        }
+    }
+    
+    /**
+     * Gets the settled changes after a cursor
+     * 
+     * @param since Cursor from an earlier page, or null to start from the beginning
+     * @param limit Maximum number of changes
+     * @return The changes, with the cursor to resume from
+     */
+    public ChangeFeedPage getChanges(String since, int limit) {
+        ChangeCursor cursor = since != null ? ChangeCursor.parse(since) : ChangeCursor.START;
+        LocalDateTime until = LocalDateTime.now().minus(settleDelay);
+        List<UrlMappingEntity> mappings = urlMappingStore.findChanges(cursor.getUpdatedAt(), cursor.getId(), until, limit);
+        
+        List<MappingChange> changes = new ArrayList<>(mappings.size());
+        for (UrlMappingEntity mapping : mappings) {
+            changes.add(new MappingChange(mapping.getShortUrl(), mapping.getLongUrl(), mapping.isEnabled(),
+                    mapping.getLastChange(), mapping.getUpdatedAt(), mapping.getExpiresAt()));
+        }
+        
+        if (!mappings.isEmpty()) {
+            UrlMappingEntity last = mappings.get(mappings.size() - 1);
+            cursor = new ChangeCursor(last.getUpdatedAt(), last.getId());
+        }
+        return new ChangeFeedPage(changes, cursor.toString());
+    }
+    
+    /**
+     * Gets the settled changes after a cursor, waiting for some if there are none yet
+     * 
+     * @param since Cursor from an earlier page, or null to start from the beginning
+     * @param limit Maximum number of changes
+     * @param wait How long to wait for a change, capped at the configured maximum
+     * @return The changes, or an empty page if none settled in time
+     */
+    public DeferredResult<ChangeFeedPage> awaitChanges(String since, int limit, Duration wait) {
+        ChangeFeedPage page = getChanges(since, limit);
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        
+        DeferredResult<ChangeFeedPage> result = new DeferredResult<>(Math.max(1, timeout.toMillis()), page);
+        if (!page.getChanges().isEmpty() || timeout.isZero() || timeout.isNegative()) {
+            result.setResult(page);
+            return result;
+        }
+        
+        Waiter waiter = new Waiter(page.getNextCursor(), limit, result, page);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        return result;
+    }
+    
+    /**
+     * Wakes waiting requests once a local write has settled
+     */
+    @EventListener
+    public void onMappingChanged(MappingChangedEvent event) {
+        if (!waiters.isEmpty()) {
+            taskScheduler.schedule(this::wakeWaiters, Instant.now().plus(settleDelay));
+        }
+    }
+    
+    /**
+     * Answers every waiting request whose cursor now has changes after it
+     */
+    void wakeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        
+        // Waiters at the same position share one query
+        Map<String, ChangeFeedPage> pages = new HashMap<>();
+        try {
+            for (Waiter waiter : waiters) {
+                if (waiter.result.isSetOrExpired()) {
+                    continue;
+                }
+                ChangeFeedPage page = pages.computeIfAbsent(waiter.cursor + "/" + waiter.limit,
+                        key -> getChanges(waiter.cursor, waiter.limit));
+                if (!page.getChanges().isEmpty()) {
+                    waiter.result.setResult(page);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Change feed poll failed", e);
+        }
+    }
+    
+    /**
+     * A long-polling request
+     */
+    private static final class Waiter {
+        
+        final String cursor;
+        final int limit;
+        final DeferredResult<ChangeFeedPage> result;
+        final ChangeFeedPage timeoutPage;
+        
+        Waiter(String cursor, int limit, DeferredResult<ChangeFeedPage> result, ChangeFeedPage timeoutPage) {
+            this.cursor = cursor;
+            this.limit = limit;
+            this.result = result;
+            this.timeoutPage = timeoutPage;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.urlshortener.feed;
+
+import java.util.List;
+
+/**
+ * Published after mappings are created or changed on this node
+ */
+public class MappingChangedEvent {
+    
+    private final List<String> shortUrls;
+    
+    public MappingChangedEvent(List<String> shortUrls) {
+        this.shortUrls = shortUrls;
+    }
+    
+    public List<String> getShortUrls() {
+        return shortUrls;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.urlshortener.migration;
+
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.repository.UrlMappingJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fills url_mappings.long_url_hash for rows created before the column existed.
+ * Runs in the background after startup, one short batch at a time, so boot is
+ * never blocked and no long lock is held on the table.
+ */
+@Component
+public class LongUrlHashBackfill {
+    
+    private static final Logger log = LoggerFactory.getLogger(LongUrlHashBackfill.class);
+    
+    private final UrlMappingJdbcRepository urlMappingJdbcRepository;
+    private final int batchSize;
+    
+    private volatile boolean complete;
+    
+    @Autowired
+    public LongUrlHashBackfill(
+            UrlMappingJdbcRepository urlMappingJdbcRepository,
+            @Value("${url-shortener.migration.backfill-batch-size:500}") int batchSize) {
+        this.urlMappingJdbcRepository = urlMappingJdbcRepository;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Hashes every unhashed row in id order
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        long lastId = 0;
+        long backfilled = 0;
+        
+        Map<Long, String> rows;
+        do {
+            rows = urlMappingJdbcRepository.findWithoutLongUrlHash(lastId, batchSize);
+            
+            Map<Long, Long> hashes = new LinkedHashMap<>();
+            for (Map.Entry<Long, String> row : rows.entrySet()) {
+                hashes.put(row.getKey(), LongUrlHash.of(row.getValue()));
+                lastId = row.getKey();
+            }
+            
+            if (!hashes.isEmpty()) {
+                urlMappingJdbcRepository.updateMissingLongUrlHashes(hashes);
+                backfilled += hashes.size();
+            }
+        } while (rows.size() == batchSize);
+        
+        complete = true;
+        if (backfilled > 0) {
+            log.info("Backfilled long URL hashes for {} mappings", backfilled);
+        }
+    }
+    
+    /**
+     * Whether every row has a long URL hash
+     * 
+     * @return true once the backfill has finished
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
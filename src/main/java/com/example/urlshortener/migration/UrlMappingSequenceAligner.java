@@ -0,0 +1,50 @@
+package com.example.urlshortener.migration;
+
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.repository.UrlMappingRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves url_mappings_seq past the highest existing id.
+ * Tables created while ids came from an identity column already hold ids
+ * the new sequence would hand out again, so the sequence is restarted
+ * before the first insert.
+ */
+@Component
+public class UrlMappingSequenceAligner {
+    
+    private static final Logger log = LoggerFactory.getLogger(UrlMappingSequenceAligner.class);
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Depends on the repository so the schema exists before aligning
+    @Autowired
+    public UrlMappingSequenceAligner(JdbcTemplate jdbcTemplate, UrlMappingRepository urlMappingRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Restarts the sequence if it could return an id that is already taken.
+     * The pooled optimizer hands out the allocation block ending at the value
+     * it reads, so the sequence must be a full block above the highest id.
+     */
+    @PostConstruct
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM url_mappings", Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(
+            "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'URL_MAPPINGS_SEQ'",
+            Long.class
+        );
+        
+        long required = maxId + UrlMappingEntity.ID_ALLOCATION_SIZE;
+        if (maxId > 0 && nextValue < required) {
+            jdbcTemplate.execute("ALTER SEQUENCE url_mappings_seq RESTART WITH " + required);
+            log.info("Restarted url_mappings_seq at {} (highest id {})", required, maxId);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.urlshortener.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limit applied separately to each client.
+ * Each bucket is a single AtomicLong holding the time at which it will next be
+ * full (the generic cell rate algorithm), so admitting a request is one CAS and
+ * never takes a lock. Buckets live in a size-bounded cache and are dropped once
+ * idle; an idle bucket has refilled, so dropping it loses nothing.
+ */
+public class ClientRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param name Budget name used to tag the metrics
+     * @param permitsPerSecond Sustained rate allowed per client
+     * @param burst Requests a client with a full bucket may send at once
+     * @param maxClients Buckets kept in memory; the least recently used are evicted beyond it
+     * @param idleTimeout Time without requests after which a bucket is dropped
+     * @param meterRegistry Registry for the bucket count gauge
+     */
+    public ClientRateLimiter(String name, double permitsPerSecond, int burst, long maxClients,
+                             Duration idleTimeout, MeterRegistry meterRegistry) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive rate and burst");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = emissionIntervalNanos * burst;
+        // A bucket must not be dropped before it has refilled
+        Duration refill = Duration.ofNanos(burstNanos);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout.compareTo(refill) > 0 ? idleTimeout : refill)
+                .build();
+        Gauge.builder("url.shortener.ratelimit.clients", buckets, Cache::estimatedSize)
+                .tag("budget", name)
+                .description("Clients with a rate-limit bucket in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one permit from a client's bucket
+     *
+     * @param client The client key
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a permit is available
+     */
+    public long tryAcquire(String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    /**
+     * Picks the key a request is limited under. Unknown API keys fall back to the
+     * address, so made-up keys cannot each claim a fresh bucket.
+     *
+     * @param apiKey The client header of the request, or null
+     * @param apiKeys The API keys that get a bucket of their own
+     * @param remoteAddress The address the request came from
+     * @return The client key
+     */
+    public static String clientKey(String apiKey, Set<String> apiKeys, String remoteAddress) {
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + remoteAddress;
+    }
+
+    /**
+     * Rounds a wait returned by {@link #tryAcquire(String)} up to whole seconds for a Retry-After header
+     *
+     * @param waitNanos The wait in nanoseconds
+     * @return The wait in seconds, at least 1
+     */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    long tryAcquire(String client, long now) {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.urlshortener.ratelimit;
+
+import com.example.urlshortener.cluster.ClusterSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the controllers.
+ * Writes (POST and PUT) and reads such as redirects draw on separate per-client
+ * budgets, so a client flooding POST /shorten runs out of write permits without
+ * touching anyone's redirect budget. Writes are also capped in how many may run
+ * at once across all clients, which keeps request threads and database
+ * connections free for redirects. Rejected requests get 429 with Retry-After.
+ * Ordered ahead of the redirect fast path, which answers without calling the rest of the chain.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REDIRECT = "redirect";
+    private static final String WRITE = "write";
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final ClientRateLimiter redirectLimiter;
+    private final ClientRateLimiter writeLimiter;
+    private final Semaphore writePermits;
+    private final ClusterSettings clusterSettings;
+    private final Counter redirectsRejected;
+    private final Counter writesRejected;
+    private final Counter writesShed;
+
+    @Autowired
+    public RateLimitFilter(
+            MeterRegistry meterRegistry,
+            ObjectProvider<ClusterSettings> clusterSettings,
+            @Value("${url-shortener.rate-limit.enabled:true}") boolean enabled,
+            @Value("${url-shortener.rate-limit.client-header:X-API-Key}") String clientHeader,
+            @Value("${url-shortener.rate-limit.api-keys:}") Set<String> apiKeys,
+            @Value("${url-shortener.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${url-shortener.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${url-shortener.rate-limit.redirect.permits-per-second:200}") double redirectRate,
+            @Value("${url-shortener.rate-limit.redirect.burst:400}") int redirectBurst,
+            @Value("${url-shortener.rate-limit.write.permits-per-second:20}") double writeRate,
+            @Value("${url-shortener.rate-limit.write.burst:50}") int writeBurst,
+            @Value("${url-shortener.rate-limit.write.max-concurrent:16}") int maxConcurrentWrites) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader;
+        this.apiKeys = apiKeys;
+        this.redirectLimiter = new ClientRateLimiter(REDIRECT, redirectRate, redirectBurst, maxClients, idleTimeout, meterRegistry);
+        this.writeLimiter = new ClientRateLimiter(WRITE, writeRate, writeBurst, maxClients, idleTimeout, meterRegistry);
+        this.writePermits = new Semaphore(maxConcurrentWrites);
+        this.clusterSettings = clusterSettings.getIfAvailable();
+        this.redirectsRejected = rejectedCounter(meterRegistry, REDIRECT, "rate");
+        this.writesRejected = rejectedCounter(meterRegistry, WRITE, "rate");
+        this.writesShed = rejectedCounter(meterRegistry, WRITE, "concurrency");
+        Gauge.builder("url.shortener.ratelimit.writes.in.flight", writePermits,
+                        permits -> maxConcurrentWrites - permits.availablePermits())
+                .description("Write requests currently admitted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || path.startsWith("/actuator") || path.startsWith("/h2-console") || isPeer(request, path);
+    }
+
+    /**
+     * Peer traffic of the cluster profile is not client traffic, but only when it carries the peer secret
+     */
+    private boolean isPeer(HttpServletRequest request, String path) {
+        return clusterSettings != null && path.startsWith("/cluster/")
+                && clusterSettings.isPeer(request.getHeader(ClusterSettings.SECRET_HEADER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = ClientRateLimiter.clientKey(request.getHeader(clientHeader), apiKeys, request.getRemoteAddr());
+
+        if (!isWrite(request)) {
+            long wait = redirectLimiter.tryAcquire(client);
+            if (wait > 0) {
+                redirectsRejected.increment();
+                reject(response, wait, "Rate limit exceeded");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long wait = writeLimiter.tryAcquire(client);
+        if (wait > 0) {
+            writesRejected.increment();
+            reject(response, wait, "Rate limit exceeded");
+            return;
+        }
+        if (!writePermits.tryAcquire()) {
+            writesShed.increment();
+            reject(response, TimeUnit.SECONDS.toNanos(1), "Too many concurrent writes");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            writePermits.release();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ClientRateLimiter.retryAfterSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String budget, String reason) {
+        return Counter.builder("url.shortener.ratelimit.rejected")
+                .tag("budget", budget)
+                .tag("reason", reason)
+                .description("Requests rejected with 429")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.urlshortener.reactive;
+
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.ratelimit.ClientRateLimiter;
+import com.example.urlshortener.redirect.RedirectSettings;
+import com.example.urlshortener.service.UrlShortenerService;
+import com.example.urlshortener.stats.MappingStats;
+import com.example.urlshortener.tracking.ClickTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves GET /{shortUrl} from a Reactor Netty server on its own port, next to
+ * the Spring MVC application, which keeps every other endpoint including writes.
+ * A connection costs a channel on a small set of event-loop threads instead of a
+ * Tomcat worker thread. When the redirect resolver answers from memory, as with
+ * the read-replica profile, lookups run on the event loop; otherwise they are
+ * handed to the bounded elastic scheduler so a database read never stalls it.
+ */
+@Component
+@Profile("reactive-redirects")
+public class ReactiveRedirectServer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRedirectServer.class);
+
+    private static final String BUDGET = "reactive-redirect";
+
+    private final UrlShortenerService urlShortenerService;
+    private final RedirectResolver redirectResolver;
+    private final ClickTracker clickTracker;
+    private final MappingStats mappingStats;
+    private final RedirectSettings redirectSettings;
+    private final int port;
+    private final boolean rateLimitEnabled;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final ClientRateLimiter rateLimiter;
+    private final Counter rejected;
+
+    private DisposableServer server;
+
+    @Autowired
+    public ReactiveRedirectServer(
+            UrlShortenerService urlShortenerService,
+            RedirectResolver redirectResolver,
+            ClickTracker clickTracker,
+            MappingStats mappingStats,
+            RedirectSettings redirectSettings,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.reactive.port:8081}") int port,
+            @Value("${url-shortener.rate-limit.enabled:true}") boolean rateLimitEnabled,
+            @Value("${url-shortener.rate-limit.client-header:X-API-Key}") String clientHeader,
+            @Value("${url-shortener.rate-limit.api-keys:}") Set<String> apiKeys,
+            @Value("${url-shortener.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${url-shortener.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${url-shortener.rate-limit.redirect.permits-per-second:200}") double redirectRate,
+            @Value("${url-shortener.rate-limit.redirect.burst:400}") int redirectBurst) {
+        this.urlShortenerService = urlShortenerService;
+        this.redirectResolver = redirectResolver;
+        this.clickTracker = clickTracker;
+        this.mappingStats = mappingStats;
+        this.redirectSettings = redirectSettings;
+        this.port = port;
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.clientHeader = clientHeader;
+        this.apiKeys = apiKeys;
+        this.rateLimiter = new ClientRateLimiter(BUDGET, redirectRate, redirectBurst, maxClients, idleTimeout, meterRegistry);
+        this.rejected = Counter.builder("url.shortener.ratelimit.rejected")
+                .tag("budget", BUDGET)
+                .tag("reason", "rate")
+                .description("Requests rejected with 429")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route(RequestPredicates.GET("/{shortUrl}"), this::redirect);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes)))
+                .bindNow();
+        log.info("Reactive redirect server listening on port {} ({} lookups)",
+                server.port(), redirectResolver.isNonBlocking() ? "event-loop" : "offloaded");
+    }
+
+    @PreDestroy
+    void stop() {
+        server.disposeNow();
+    }
+
+    private Mono<ServerResponse> redirect(ServerRequest request) {
+        String shortUrl = request.pathVariable("shortUrl");
+
+        if (rateLimitEnabled) {
+            String remoteAddress = request.remoteAddress()
+                    .map(InetSocketAddress::getAddress)
+                    .map(InetAddress::getHostAddress)
+                    .orElse("unknown");
+            long wait = rateLimiter.tryAcquire(ClientRateLimiter.clientKey(
+                    request.headers().firstHeader(clientHeader), apiKeys, remoteAddress));
+            if (wait > 0) {
+                rejected.increment();
+                return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(ClientRateLimiter.retryAfterSeconds(wait)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("error", "Rate limit exceeded"));
+            }
+        }
+
+        Mono<String> longUrl = redirectResolver.isNonBlocking()
+                ? Mono.justOrEmpty(urlShortenerService.getOriginalUrl(shortUrl))
+                : Mono.fromCallable(() -> urlShortenerService.getOriginalUrl(shortUrl))
+                    .subscribeOn(Schedulers.boundedElastic());
+
+        return longUrl
+                .flatMap(url -> {
+                    clickTracker.record(shortUrl);
+                    mappingStats.recordRedirect();
+                    ServerResponse.BodyBuilder response = ServerResponse.status(redirectSettings.getStatus())
+                            .header(HttpHeaders.LOCATION, url);
+                    if (redirectSettings.getCacheControl() != null) {
+                        response.header(HttpHeaders.CACHE_CONTROL, redirectSettings.getCacheControl());
+                    }
+                    return response.build();
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+}
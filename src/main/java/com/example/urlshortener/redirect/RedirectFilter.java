@@ -0,0 +1,119 @@
+package com.example.urlshortener.redirect;
+
+import com.example.urlshortener.service.UrlShortenerService;
+import com.example.urlshortener.shortcode.ReservedShortCodes;
+import com.example.urlshortener.stats.MappingStats;
+import com.example.urlshortener.tracking.ClickTracker;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers GET and HEAD /{shortUrl} before the DispatcherServlet, so a redirect
+ * costs a lookup and two header writes: no handler mapping, path-variable map,
+ * ResponseEntity or content negotiation. Runs last among the filters, after
+ * rate limiting and the HTTP server observation. Paths the filter does not
+ * own, including codes that need percent-decoding, go down the chain to the
+ * controller, which answers them the same way.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RedirectFilter implements Filter {
+
+    private static final String PATH_PATTERN = "/{shortUrl}";
+
+    private final UrlShortenerService urlShortenerService;
+    private final ClickTracker clickTracker;
+    private final MappingStats mappingStats;
+    private final RedirectSettings redirectSettings;
+    private final boolean enabled;
+
+    @Autowired
+    public RedirectFilter(
+            UrlShortenerService urlShortenerService,
+            ClickTracker clickTracker,
+            MappingStats mappingStats,
+            RedirectSettings redirectSettings,
+            @Value("${url-shortener.redirect.fast-path:true}") boolean enabled) {
+        this.urlShortenerService = urlShortenerService;
+        this.clickTracker = clickTracker;
+        this.mappingStats = mappingStats;
+        this.redirectSettings = redirectSettings;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        String shortUrl = enabled ? shortUrl(request) : null;
+        if (shortUrl == null) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        // Keeps http.server.requests tagged with the endpoint rather than REDIRECTION or NOT_FOUND
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(PATH_PATTERN));
+
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        String longUrl = urlShortenerService.getOriginalUrl(shortUrl);
+        if (longUrl == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        clickTracker.record(shortUrl);
+        mappingStats.recordRedirect();
+        // Same answer as the controller's @CrossOrigin(origins = "*")
+        if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        }
+        response.setStatus(redirectSettings.getStatus());
+        response.setHeader(HttpHeaders.LOCATION, longUrl);
+        if (redirectSettings.getCacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, redirectSettings.getCacheControl());
+        }
+    }
+
+    /**
+     * Extracts the short URL from a request this filter owns
+     *
+     * @return The short URL, or null if the request is for another endpoint
+     */
+    private static String shortUrl(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return null;
+        }
+
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + 1;
+        if (uri.length() <= start || uri.charAt(start - 1) != '/') {
+            return null;
+        }
+        for (int i = start; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            // Nested paths, and codes that would need decoding, are left to the controller
+            if (c == '/' || c == '%' || c == ';') {
+                return null;
+            }
+        }
+
+        String shortUrl = uri.substring(start);
+        return ReservedShortCodes.isReserved(shortUrl) ? null : shortUrl;
+    }
+}
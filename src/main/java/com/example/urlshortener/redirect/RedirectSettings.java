@@ -0,0 +1,45 @@
+package com.example.urlshortener.redirect;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Status code and Cache-Control header of redirect responses, shared by every
+ * endpoint that redirects so they answer the same way
+ */
+@Component
+public class RedirectSettings {
+
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 307, 308);
+
+    private final int status;
+    private final String cacheControl;
+
+    @Autowired
+    public RedirectSettings(
+            @Value("${url-shortener.redirect.status:302}") int status,
+            @Value("${url-shortener.redirect.cache-control:}") String cacheControl) {
+        if (!REDIRECT_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("url-shortener.redirect.status must be 301, 302, 307 or 308: " + status);
+        }
+        this.status = status;
+        this.cacheControl = cacheControl.isBlank() ? null : cacheControl.trim();
+    }
+
+    /**
+     * @return The HTTP status of a redirect
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The Cache-Control value for redirects, or null to send none
+     */
+    public String getCacheControl() {
+        return cacheControl;
+    }
+}
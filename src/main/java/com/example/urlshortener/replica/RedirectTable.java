@@ -0,0 +1,287 @@
+package com.example.urlshortener.replica;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.shortcode.ShortCode;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable off-heap table from short code to long URL.
+ * Codes are packed into longs by {@link ShortCode} and kept with a reference
+ * to their URL in an open-addressing table of 16-byte slots. URLs are stored back to back as
+ * UTF-8 in a second direct buffer. Neither buffer holds Java objects, so the
+ * table adds almost nothing to the heap or to GC work whatever its size.
+ * Codes outside the alphabet, which only legacy data could contain, go to a
+ * small on-heap map, as do the expiries of the few links that have one.
+ */
+public final class RedirectTable {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int LENGTH_BITS = 16;
+    private static final int MAX_URL_BYTES = (1 << LENGTH_BITS) - 1;
+    // Slots are addressed with an int byte offset
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final ByteBuffer slots;
+    private final ByteBuffer urls;
+    private final int mask;
+    private final int size;
+    private final Map<String, String> irregular;
+    private final Map<String, Long> expiries;
+
+    private RedirectTable(ByteBuffer slots, ByteBuffer urls, int size, Map<String, String> irregular,
+            Map<String, Long> expiries) {
+        this.slots = slots;
+        this.urls = urls;
+        this.mask = slots.capacity() / SLOT_SIZE - 1;
+        this.size = size;
+        this.irregular = irregular;
+        this.expiries = expiries;
+    }
+
+    /**
+     * Creates a table with no entries
+     *
+     * @return The empty table
+     */
+    public static RedirectTable empty() {
+        return new Builder().build();
+    }
+
+    /**
+     * Looks up the long URL of a short code
+     *
+     * @param shortUrl The short code
+     * @return The long URL, or null if the code is not in the table
+     */
+    public String get(String shortUrl) {
+        long key = ShortCode.encode(shortUrl);
+        if (key < 0) {
+            return irregular.get(shortUrl);
+        }
+
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        long ref = slots.getLong(slot * SLOT_SIZE + 8);
+        byte[] url = new byte[(int) (ref & MAX_URL_BYTES)];
+        urls.get((int) (ref >>> LENGTH_BITS), url);
+        return new String(url, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Looks up when a short code expires
+     *
+     * @param shortUrl The short code
+     * @return The expiry in epoch milliseconds, or {@link CachedRedirect#NEVER}
+     */
+    public long expiresAt(String shortUrl) {
+        if (expiries.isEmpty()) {
+            return CachedRedirect.NEVER;
+        }
+        return expiries.getOrDefault(shortUrl, CachedRedirect.NEVER);
+    }
+
+    /**
+     * Number of codes in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes held outside the heap by the slot and URL buffers
+     */
+    public long memoryBytes() {
+        return (long) slots.capacity() + urls.capacity();
+    }
+
+    private int find(long key) {
+        for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = slots.getLong(slot * SLOT_SIZE);
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Accumulates entries and builds the table in one pass once their number is known.
+     * Adding a code twice keeps the last URL.
+     */
+    public static final class Builder {
+
+        private long[] keys = new long[1024];
+        private long[] refs = new long[1024];
+        private int count;
+        private ByteBuffer urls = ByteBuffer.allocateDirect(1 << 16);
+        private final Map<String, String> irregular = new HashMap<>();
+        private final Map<String, Long> expiries = new HashMap<>();
+
+        /**
+         * Adds a mapping that does not expire
+         *
+         * @param shortUrl The short code
+         * @param longUrl The long URL
+         */
+        public Builder add(String shortUrl, String longUrl) {
+            return add(shortUrl, longUrl, CachedRedirect.NEVER);
+        }
+
+        /**
+         * Adds a mapping
+         *
+         * @param shortUrl The short code
+         * @param longUrl The long URL
+         * @param expiresAtMillis The expiry in epoch milliseconds, or {@link CachedRedirect#NEVER}
+         */
+        public Builder add(String shortUrl, String longUrl, long expiresAtMillis) {
+            if (expiresAtMillis != CachedRedirect.NEVER) {
+                expiries.put(shortUrl, expiresAtMillis);
+            } else {
+                expiries.remove(shortUrl);
+            }
+
+            long key = ShortCode.encode(shortUrl);
+            if (key < 0) {
+                irregular.put(shortUrl, longUrl);
+                return this;
+            }
+
+            byte[] url = longUrl.getBytes(StandardCharsets.UTF_8);
+            if (url.length > MAX_URL_BYTES) {
+                throw new IllegalArgumentException("Long URL too large for the redirect table: " + shortUrl);
+            }
+            ensureUrlCapacity(url.length);
+            int offset = urls.position();
+            urls.put(url);
+            addRef(key, (long) offset << LENGTH_BITS | url.length);
+            return this;
+        }
+
+        /**
+         * Adds every entry of an existing table, copying the encoded URLs without decoding them.
+         * Entries that have expired by now are dropped.
+         *
+         * @param table The table to copy
+         * @param excluded Codes to leave out
+         */
+        public Builder addAll(RedirectTable table, Set<String> excluded) {
+            Set<String> dropped = new HashSet<>(excluded);
+            long now = System.currentTimeMillis();
+            table.expiries.forEach((shortUrl, expiresAt) -> {
+                if (now >= expiresAt) {
+                    dropped.add(shortUrl);
+                } else if (!excluded.contains(shortUrl)) {
+                    expiries.put(shortUrl, expiresAt);
+                }
+            });
+
+            Set<Long> excludedKeys = new HashSet<>();
+            for (String shortUrl : dropped) {
+                excludedKeys.add(ShortCode.encode(shortUrl));
+            }
+
+            for (int slot = 0; slot <= table.mask; slot++) {
+                long key = table.slots.getLong(slot * SLOT_SIZE);
+                if (key == 0 || excludedKeys.contains(key)) {
+                    continue;
+                }
+                long ref = table.slots.getLong(slot * SLOT_SIZE + 8);
+                int length = (int) (ref & MAX_URL_BYTES);
+                ensureUrlCapacity(length);
+                int offset = urls.position();
+                urls.put(urls.position(), table.urls, (int) (ref >>> LENGTH_BITS), length);
+                urls.position(offset + length);
+                addRef(key, (long) offset << LENGTH_BITS | length);
+            }
+
+            table.irregular.forEach((shortUrl, longUrl) -> {
+                if (!dropped.contains(shortUrl)) {
+                    irregular.put(shortUrl, longUrl);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Builds the table. The builder must not be used afterwards.
+         *
+         * @return The table
+         */
+        public RedirectTable build() {
+            int capacity = Integer.highestOneBit(Math.max(8, count + count / 2)) << 1;
+            if (count > MAX_CAPACITY / 2 || capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("Too many entries for the redirect table: " + count);
+            }
+
+            ByteBuffer slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+            int mask = capacity - 1;
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                long key = keys[i];
+                int slot = (int) mix(key) & mask;
+                while (slots.getLong(slot * SLOT_SIZE) != 0 && slots.getLong(slot * SLOT_SIZE) != key) {
+                    slot = (slot + 1) & mask;
+                }
+                if (slots.getLong(slot * SLOT_SIZE) == 0) {
+                    slots.putLong(slot * SLOT_SIZE, key);
+                    size++;
+                }
+                slots.putLong(slot * SLOT_SIZE + 8, refs[i]);
+            }
+
+            // Trim the URL buffer to what was written
+            ByteBuffer trimmed = ByteBuffer.allocateDirect(Math.max(1, urls.position()));
+            trimmed.put(0, urls, 0, urls.position());
+            keys = null;
+            refs = null;
+            urls = null;
+            return new RedirectTable(slots, trimmed, size + irregular.size(), Map.copyOf(irregular),
+                    Map.copyOf(expiries));
+        }
+
+        private void addRef(long key, long ref) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                refs = Arrays.copyOf(refs, count * 2);
+            }
+            keys[count] = key;
+            refs[count] = ref;
+            count++;
+        }
+
+        private void ensureUrlCapacity(int length) {
+            if (urls.remaining() >= length) {
+                return;
+            }
+            long needed = (long) urls.position() + length;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Long URLs exceed 2 GB in the redirect table");
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, (long) urls.capacity() * 2));
+            ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+            grown.put(0, urls, 0, urls.position());
+            grown.position(urls.position());
+            urls = grown;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.urlshortener.replica;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolver for the read-replica profile: every enabled mapping is loaded into
+ * a {@link RedirectTable} before the application starts serving, and redirects
+ * never touch the database afterwards.
+ * <p>
+ * Rows whose updated_at moved since the last refresh are polled periodically
+ * into a small on-heap map of changes that takes precedence over the table.
+ * Once that map grows past a threshold it is merged into a new table, which
+ * replaces the old one in a single volatile write.
+ */
+@Component
+@Profile("read-replica")
+public class ReplicaRedirectResolver implements RedirectResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRedirectResolver.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UrlMappingStore urlMappingStore;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshInterval;
+    private final Duration refreshOverlap;
+    private final int mergeThreshold;
+
+    // Serializes refreshes, merges and local changes
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = new Snapshot(RedirectTable.empty());
+    private LocalDateTime watermark = EPOCH;
+    private volatile long loadMillis;
+    private volatile long lastRefreshMillis;
+    private ScheduledFuture<?> refreshTask;
+
+    @Autowired
+    public ReplicaRedirectResolver(
+            UrlMappingStore urlMappingStore,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.replica.refresh-interval:30s}") Duration refreshInterval,
+            @Value("${url-shortener.replica.refresh-overlap:10s}") Duration refreshOverlap,
+            @Value("${url-shortener.replica.merge-threshold:10000}") int mergeThreshold) {
+        this.urlMappingStore = urlMappingStore;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.refreshInterval = refreshInterval;
+        this.refreshOverlap = refreshOverlap;
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    @PostConstruct
+    void start() {
+        load();
+
+        Gauge.builder("url.shortener.replica.entries", this, r -> r.snapshot.table.size())
+                .description("Mappings in the off-heap redirect table")
+                .register(meterRegistry);
+        Gauge.builder("url.shortener.replica.pending.changes", this, r -> r.snapshot.changes.size())
+                .description("Changed mappings not yet merged into the table")
+                .register(meterRegistry);
+        Gauge.builder("url.shortener.replica.memory", this, r -> r.snapshot.table.memoryBytes())
+                .baseUnit("bytes")
+                .description("Off-heap memory held by the redirect table")
+                .register(meterRegistry);
+        Gauge.builder("url.shortener.replica.memory.per.million.links", this, ReplicaRedirectResolver::bytesPerMillionLinks)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        TimeGauge.builder("url.shortener.replica.load.time", this, TimeUnit.MILLISECONDS, r -> r.loadMillis)
+                .description("Time taken by the startup load")
+                .register(meterRegistry);
+        TimeGauge.builder("url.shortener.replica.staleness", this, TimeUnit.MILLISECONDS,
+                        r -> System.currentTimeMillis() - r.lastRefreshMillis)
+                .description("Time since the last successful refresh")
+                .register(meterRegistry);
+
+        refreshTask = taskScheduler.scheduleWithFixedDelay(this::refresh, refreshInterval);
+    }
+
+    @PreDestroy
+    void stop() {
+        refreshTask.cancel(false);
+    }
+
+    @Override
+    public CachedRedirect resolve(String shortUrl) {
+        Snapshot current = snapshot;
+        CachedRedirect changed = current.changes.get(shortUrl);
+        if (changed != null) {
+            return changed;
+        }
+
+        String longUrl = current.table.get(shortUrl);
+        return longUrl != null ? new CachedRedirect(longUrl, true, current.table.expiresAt(shortUrl)) : null;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    /**
+     * Applies a write made on this node right away instead of waiting for the next refresh
+     */
+    @Override
+    public void mappingChanged(String shortUrl, CachedRedirect redirect) {
+        refreshLock.lock();
+        try {
+            snapshot.changes.put(shortUrl, redirect);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Loads every enabled mapping into a new table
+     */
+    void load() {
+        long start = System.currentTimeMillis();
+        // Rows updated while the load runs are newer than this and are picked up by the first refresh
+        LocalDateTime latest = urlMappingStore.findLatestUpdatedAt();
+
+        RedirectTable.Builder builder = new RedirectTable.Builder();
+        urlMappingStore.forEachMapping(true, mapping -> builder.add(
+                mapping.getShortUrl(), mapping.getLongUrl(), CachedRedirect.toMillis(mapping.getExpiresAt())));
+        RedirectTable table = builder.build();
+
+        refreshLock.lock();
+        try {
+            watermark = latest != null ? latest : EPOCH;
+            snapshot = new Snapshot(table);
+        } finally {
+            refreshLock.unlock();
+        }
+
+        loadMillis = System.currentTimeMillis() - start;
+        lastRefreshMillis = System.currentTimeMillis();
+        log.info("Loaded {} redirects into {} KB off-heap in {} ms",
+                table.size(), table.memoryBytes() / 1024, loadMillis);
+    }
+
+    /**
+     * Polls the rows updated since the last refresh. Rows are re-read from a
+     * little before the watermark so that writes committed late, or stamped
+     * by a node with a slower clock, are not missed.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            Snapshot current = snapshot;
+            LocalDateTime[] latest = { watermark };
+            int[] changed = { 0 };
+
+            urlMappingStore.forEachUpdatedSince(watermark.minus(refreshOverlap), mapping -> {
+                CachedRedirect redirect = new CachedRedirect(mapping.getLongUrl(), mapping.isEnabled(), mapping.getExpiresAt());
+                if (!current.isUnchanged(mapping.getShortUrl(), redirect)) {
+                    current.changes.put(mapping.getShortUrl(), redirect);
+                    changed[0]++;
+                }
+                if (mapping.getUpdatedAt().isAfter(latest[0])) {
+                    latest[0] = mapping.getUpdatedAt();
+                }
+            });
+            watermark = latest[0];
+            lastRefreshMillis = System.currentTimeMillis();
+
+            if (changed[0] > 0) {
+                log.debug("Refreshed {} changed redirects", changed[0]);
+            }
+            if (current.changes.size() > mergeThreshold) {
+                merge(current);
+            }
+        } catch (DataAccessException e) {
+            // Keep serving the last known table
+            log.warn("Redirect table refresh failed", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the pending changes into a new table and swaps it in
+     */
+    private void merge(Snapshot current) {
+        long start = System.currentTimeMillis();
+        RedirectTable.Builder builder = new RedirectTable.Builder().addAll(current.table, current.changes.keySet());
+        for (Map.Entry<String, CachedRedirect> entry : current.changes.entrySet()) {
+            CachedRedirect redirect = entry.getValue();
+            if (redirect.isEnabled() && !redirect.isExpired(start)) {
+                builder.add(entry.getKey(), redirect.getLongUrl(), redirect.getExpiresAtMillis());
+            }
+        }
+        RedirectTable table = builder.build();
+        snapshot = new Snapshot(table);
+        log.info("Merged {} changes into a table of {} redirects in {} ms",
+                current.changes.size(), table.size(), System.currentTimeMillis() - start);
+    }
+
+    private double bytesPerMillionLinks() {
+        RedirectTable table = snapshot.table;
+        return table.size() == 0 ? 0 : table.memoryBytes() * 1_000_000.0 / table.size();
+    }
+
+    /**
+     * A table and the changes made since it was built
+     */
+    private static final class Snapshot {
+
+        final RedirectTable table;
+        final Map<String, CachedRedirect> changes = new ConcurrentHashMap<>();
+
+        Snapshot(RedirectTable table) {
+            this.table = table;
+        }
+
+        boolean isUnchanged(String shortUrl, CachedRedirect redirect) {
+            CachedRedirect changed = changes.get(shortUrl);
+            if (changed != null) {
+                return changed.isEnabled() == redirect.isEnabled() && changed.getLongUrl().equals(redirect.getLongUrl())
+                        && changed.getExpiresAtMillis() == redirect.getExpiresAtMillis();
+            }
+            String longUrl = table.get(shortUrl);
+            if (!redirect.isEnabled()) {
+                return longUrl == null;
+            }
+            return redirect.getLongUrl().equals(longUrl) && table.expiresAt(shortUrl) == redirect.getExpiresAtMillis();
+        }
+    }
+}
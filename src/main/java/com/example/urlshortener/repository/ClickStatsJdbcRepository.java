@@ -0,0 +1,69 @@
+package com.example.urlshortener.repository;
+
+import com.example.urlshortener.tracking.ClickDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Batched writes to click_stats
+ */
+@Repository
+public class ClickStatsJdbcRepository {
+
+    private static final String UPSERT_SQL =
+            "MERGE INTO click_stats t "
+            + "USING (VALUES (CAST(? AS VARCHAR(10)), CAST(? AS BIGINT), CAST(? AS TIMESTAMP(6)))) "
+            + "s(short_url, clicks, accessed_at) ON t.short_url = s.short_url "
+            + "WHEN MATCHED THEN UPDATE SET click_count = t.click_count + s.clicks, "
+            + "last_accessed_at = GREATEST(t.last_accessed_at, s.accessed_at) "
+            + "WHEN NOT MATCHED THEN INSERT (short_url, click_count, last_accessed_at) "
+            + "VALUES (s.short_url, s.clicks, s.accessed_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ClickStatsJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds click deltas to their rows, creating missing rows, in one JDBC batch
+     *
+     * @param deltas The deltas, at most one per short URL
+     */
+    public void upsert(List<ClickDelta> deltas) {
+        List<Object[]> batch = deltas.stream()
+                .map(delta -> new Object[] {
+                    delta.getShortUrl(),
+                    delta.getClicks(),
+                    new Timestamp(delta.getLastAccessedAtMillis())
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    /**
+     * Finds the short URLs with the most clicks
+     *
+     * @param limit Maximum number of short URLs
+     * @return The short URLs, most clicked first
+     */
+    public List<String> findMostClicked(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT short_url FROM click_stats ORDER BY click_count DESC LIMIT ?", String.class, limit);
+    }
+
+    /**
+     * Deletes the rows of short URLs that no longer exist, in one JDBC batch
+     *
+     * @param shortUrls The short URLs
+     */
+    public void deleteAll(List<String> shortUrls) {
+        List<Object[]> batch = shortUrls.stream().map(shortUrl -> new Object[] { shortUrl }).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM click_stats WHERE short_url = ?", batch);
+    }
+}
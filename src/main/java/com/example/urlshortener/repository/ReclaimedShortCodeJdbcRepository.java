@@ -0,0 +1,69 @@
+package com.example.urlshortener.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of short codes freed by expired links, in reclaimed_short_codes
+ */
+@Repository
+public class ReclaimedShortCodeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReclaimedShortCodeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds codes to the pool in one JDBC batch
+     *
+     * @param shortUrls The freed short URLs
+     * @param availableAt When they may be issued again
+     */
+    public void addAll(List<String> shortUrls, LocalDateTime availableAt) {
+        List<Object[]> batch = shortUrls.stream()
+                .map(shortUrl -> new Object[] { shortUrl, Timestamp.valueOf(availableAt) })
+                .toList();
+        jdbcTemplate.batchUpdate("MERGE INTO reclaimed_short_codes (short_url, available_at) KEY (short_url) VALUES (?, ?)", batch);
+    }
+
+    /**
+     * Takes codes whose quarantine is over out of the pool, oldest first.
+     * A code is only returned if this caller's delete removed it, so nodes
+     * claiming at the same time never receive the same code.
+     *
+     * @param now The current time
+     * @param limit Maximum number of codes
+     * @return The claimed short URLs
+     */
+    public List<String> claim(LocalDateTime now, int limit) {
+        List<String> candidates = jdbcTemplate.queryForList(
+            "SELECT short_url FROM reclaimed_short_codes WHERE available_at <= ? ORDER BY available_at LIMIT ?",
+            String.class,
+            Timestamp.valueOf(now), limit
+        );
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        int[] deleted = jdbcTemplate.batchUpdate(
+            "DELETE FROM reclaimed_short_codes WHERE short_url = ?",
+            candidates.stream().map(shortUrl -> new Object[] { shortUrl }).toList()
+        );
+        List<String> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < deleted.length; i++) {
+            if (deleted[i] == 1) {
+                claimed.add(candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.urlshortener.repository;
+
+import com.example.urlshortener.entity.ShortCodeSequenceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShortCodeSequenceRepository extends JpaRepository<ShortCodeSequenceEntity, String> {
+    
+    /**
+     * Find a sequence by name, locking its row until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ShortCodeSequenceEntity s WHERE s.name = :name")
+    Optional<ShortCodeSequenceEntity> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,192 @@
+package com.example.urlshortener.repository;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+import com.example.urlshortener.entity.ChangeType;
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access for snapshot export and import: id-range reads of url_mappings,
+ * and batched inserts committed together with their import checkpoint
+ */
+@Repository
+public class SnapshotJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public SnapshotJdbcRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${url-shortener.jdbc.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Finds the lowest and highest id in url_mappings
+     *
+     * @return The two ids, or null if the table is empty
+     */
+    public long[] findIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM url_mappings", resultSet -> {
+            resultSet.next();
+            long min = resultSet.getLong(1);
+            return resultSet.wasNull() ? null : new long[] { min, resultSet.getLong(2) };
+        });
+    }
+
+    /**
+     * Streams the mappings of an id range in id order with lazy query execution
+     *
+     * @param fromId Lowest id, inclusive
+     * @param toId Highest id, inclusive
+     * @param consumer Receives each mapping
+     */
+    public void forEachInIdRange(long fromId, long toId, Consumer<SnapshotMapping> consumer) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT short_url, long_url, is_enabled, created_at, expires_at FROM url_mappings"
+                            + " WHERE id BETWEEN ? AND ? ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, fromId);
+                statement.setLong(2, toId);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Timestamp expiresAt = resultSet.getTimestamp(5);
+                        consumer.accept(new SnapshotMapping(
+                            resultSet.getString(1),
+                            resultSet.getString(2),
+                            resultSet.getBoolean(3),
+                            resultSet.getTimestamp(4).toLocalDateTime(),
+                            expiresAt != null ? expiresAt.toLocalDateTime() : null
+                        ));
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the import progress of every part of a snapshot
+     *
+     * @param snapshotId The snapshot id
+     * @return Rows already imported per part name, with -1 for completed parts
+     */
+    public Map<String, Long> findCheckpoints(String snapshotId) {
+        Map<String, Long> checkpoints = new HashMap<>();
+        String prefix = snapshotId + "/";
+        jdbcTemplate.query(
+            "SELECT part_key, rows_done, completed FROM snapshot_import_checkpoints WHERE part_key LIKE ?",
+            resultSet -> {
+                checkpoints.put(resultSet.getString(1).substring(prefix.length()),
+                        resultSet.getBoolean(3) ? -1L : resultSet.getLong(2));
+            },
+            prefix + "%"
+        );
+        return checkpoints;
+    }
+
+    /**
+     * Inserts a batch of snapshot rows and records the part's progress in the
+     * same transaction, so a resumed import neither skips nor repeats rows.
+     * Short URLs that already exist are left as they are.
+     *
+     * @param mappings The rows
+     * @param partKey Snapshot id and part name
+     * @param rowsDone Rows of the part handled once this batch commits
+     * @param completed Whether this is the part's last batch
+     * @return The number of rows inserted; the rest already existed
+     */
+    @Transactional
+    public int importBatch(List<SnapshotMapping> mappings, String partKey, long rowsDone, boolean completed) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = allocateIds(mappings.size());
+
+        List<Object[]> batch = new ArrayList<>(mappings.size());
+        for (int i = 0; i < mappings.size(); i++) {
+            SnapshotMapping mapping = mappings.get(i);
+            batch.add(new Object[] {
+                ids.get(i),
+                mapping.getShortUrl(),
+                mapping.getLongUrl(),
+                LongUrlHash.of(mapping.getLongUrl()),
+                mapping.isEnabled(),
+                Timestamp.valueOf(mapping.getCreatedAt()),
+                Timestamp.valueOf(now),
+                ChangeType.CREATED.name(),
+                mapping.getExpiresAt() != null ? Timestamp.valueOf(mapping.getExpiresAt()) : null,
+                mapping.getShortUrl()
+            });
+        }
+
+        // A part's last batch may be empty and only record that the part is finished
+        int[] counts = mappings.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(
+            "INSERT INTO url_mappings (id, short_url, long_url, long_url_hash, is_enabled, created_at, updated_at,"
+                    + " last_change, expires_at) SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? FROM DUAL"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM url_mappings WHERE short_url = ?)",
+            batch
+        );
+        jdbcTemplate.update(
+            "MERGE INTO snapshot_import_checkpoints (part_key, rows_done, completed, updated_at) KEY (part_key)"
+                    + " VALUES (?, ?, ?, ?)",
+            partKey, rowsDone, completed, Timestamp.valueOf(now)
+        );
+
+        int inserted = 0;
+        for (int count : counts) {
+            inserted += count;
+        }
+        return inserted;
+    }
+
+    /**
+     * Takes ids from url_mappings_seq the way Hibernate's pooled optimizer
+     * does: each sequence value v reserves v - allocationSize + 1 through v
+     *
+     * @param count Number of ids
+     * @return The ids
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long high = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR url_mappings_seq", Long.class);
+            // Hibernate's first block starts at the initial value and overlaps lower ones
+            if (high < UrlMappingEntity.ID_ALLOCATION_SIZE) {
+                continue;
+            }
+            for (long id = high - UrlMappingEntity.ID_ALLOCATION_SIZE + 1; id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.urlshortener.repository;
+
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.entity.ChangeType;
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to url_mappings for bulk operations that should not
+ * hydrate entities or go through the persistence context
+ */
+@Repository
+public class UrlMappingJdbcRepository {
+
+    private static final String MAPPING_COLUMNS =
+            "id, short_url, long_url, is_enabled, created_at, updated_at, last_change, expires_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public UrlMappingJdbcRepository(
+            JdbcTemplate jdbcTemplate,
+            @Value("${url-shortener.jdbc.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams every short URL through a forward-only result set
+     *
+     * @param consumer Receives each short URL
+     */
+    public void forEachShortUrl(Consumer<String> consumer) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "SELECT short_url FROM url_mappings",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(fetchSize);
+                return statement;
+            },
+            resultSet -> {
+                consumer.accept(resultSet.getString(1));
+            }
+        );
+    }
+
+    /**
+     * Streams mappings in id order without materializing the result.
+     * H2 lazy query execution is switched on for the statement so rows are
+     * produced as they are read, keeping memory flat for any table size.
+     *
+     * @param enabled Only mappings with this enabled flag, or all if null
+     * @param consumer Receives each mapping
+     */
+    public void forEachMapping(Boolean enabled, Consumer<UrlMapping> consumer) {
+        String sql = "SELECT short_url, long_url, is_enabled, expires_at FROM url_mappings"
+                + (enabled != null ? " WHERE is_enabled = ?" : "")
+                + " ORDER BY id";
+        
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                if (enabled != null) {
+                    statement.setBoolean(1, enabled);
+                }
+                
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(new UrlMapping(
+                            resultSet.getString(1),
+                            resultSet.getString(2),
+                            resultSet.getBoolean(3),
+                            toLocalDateTime(resultSet.getTimestamp(4))
+                        ));
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds the most recent update time in the table
+     *
+     * @return The latest updated_at, or null if the table is empty
+     */
+    public LocalDateTime findLatestUpdatedAt() {
+        return jdbcTemplate.queryForObject("SELECT MAX(updated_at) FROM url_mappings", LocalDateTime.class);
+    }
+
+    /**
+     * Streams the rows updated after a point in time, oldest first, through the updated_at index
+     *
+     * @param since Only rows with a later updated_at are returned
+     * @param consumer Receives each row with its short URL, long URL, enabled flag, updated_at and expires_at
+     */
+    public void forEachUpdatedSince(LocalDateTime since, Consumer<UrlMappingEntity> consumer) {
+        jdbcTemplate.query(
+            "SELECT short_url, long_url, is_enabled, updated_at, expires_at FROM url_mappings WHERE updated_at > ? ORDER BY updated_at",
+            resultSet -> {
+                UrlMappingEntity mapping = new UrlMappingEntity(
+                    resultSet.getString(1),
+                    resultSet.getString(2),
+                    resultSet.getBoolean(3)
+                );
+                mapping.setUpdatedAt(resultSet.getTimestamp(4).toLocalDateTime());
+                mapping.setExpiresAt(toLocalDateTime(resultSet.getTimestamp(5)));
+                consumer.accept(mapping);
+            },
+            Timestamp.valueOf(since)
+        );
+    }
+
+    /**
+     * Finds the rows changed after a feed position through the (updated_at, id) index
+     *
+     * @param afterUpdatedAt updated_at of the last row already seen
+     * @param afterId Id of the last row already seen
+     * @param until Only rows updated up to this time are returned
+     * @param limit Maximum number of rows
+     * @return The rows ordered by updated_at and then id
+     */
+    public List<UrlMappingEntity> findChanges(LocalDateTime afterUpdatedAt, long afterId, LocalDateTime until, int limit) {
+        // The leading range on updated_at lets H2 seek the index instead of evaluating the OR per row
+        return jdbcTemplate.query(
+            "SELECT " + MAPPING_COLUMNS + " FROM url_mappings"
+                + " WHERE updated_at >= ? AND (updated_at > ? OR id > ?) AND updated_at <= ?"
+                + " ORDER BY updated_at, id LIMIT ?",
+            UrlMappingJdbcRepository::mapRow,
+            Timestamp.valueOf(afterUpdatedAt), Timestamp.valueOf(afterUpdatedAt), afterId, Timestamp.valueOf(until), limit
+        );
+    }
+
+    /**
+     * Finds rows whose expiry lies in a range through the expires_at index
+     *
+     * @param from Only rows expiring at or after this time are returned
+     * @param until Only rows expiring at or before this time are returned
+     * @param enabledOnly Skip rows that are already disabled
+     * @param limit Maximum number of rows
+     * @return The rows ordered by expires_at
+     */
+    public List<UrlMappingEntity> findExpired(LocalDateTime from, LocalDateTime until, boolean enabledOnly, int limit) {
+        return jdbcTemplate.query(
+            "SELECT " + MAPPING_COLUMNS + " FROM url_mappings WHERE expires_at >= ? AND expires_at <= ?"
+                + (enabledOnly ? " AND is_enabled = TRUE" : "")
+                + " ORDER BY expires_at LIMIT ?",
+            UrlMappingJdbcRepository::mapRow,
+            Timestamp.valueOf(from), Timestamp.valueOf(until), limit
+        );
+    }
+
+    /**
+     * Deletes rows by id in one JDBC batch. Each statement commits on its own, so no lock outlives a row.
+     *
+     * @param ids The ids
+     * @return The number of rows deleted
+     */
+    public int deleteByIds(List<Long> ids) {
+        List<Object[]> batch = ids.stream().map(id -> new Object[] { id }).toList();
+        return sum(jdbcTemplate.batchUpdate("DELETE FROM url_mappings WHERE id = ?", batch));
+    }
+
+    /**
+     * Disables enabled rows by id in one JDBC batch, recording the change for the feed
+     *
+     * @param ids The ids
+     * @param now The new updated_at
+     * @return The number of rows that were enabled and are now disabled
+     */
+    public int disableByIds(List<Long> ids, LocalDateTime now) {
+        List<Object[]> batch = ids.stream().map(id -> new Object[] { Timestamp.valueOf(now), id }).toList();
+        return sum(jdbcTemplate.batchUpdate(
+            "UPDATE url_mappings SET is_enabled = FALSE, last_change = 'DISABLED', updated_at = ?"
+                + " WHERE id = ? AND is_enabled = TRUE",
+            batch
+        ));
+    }
+
+    /**
+     * Applies changes addressed by short URL in one JDBC batch. Null fields keep the stored value.
+     *
+     * @param updates The changes, at most one per short URL
+     * @param now The updated_at to record
+     * @return The number of rows updated
+     */
+    public int updateAll(List<MappingUpdate> updates, LocalDateTime now) {
+        List<Object[]> batch = updates.stream().map(update -> new Object[] {
+            update.getLongUrl(),
+            update.getLongUrl() != null ? LongUrlHash.of(update.getLongUrl()) : null,
+            update.getEnabled(),
+            update.getLastChange() != null ? update.getLastChange().name() : null,
+            Timestamp.valueOf(now),
+            update.getShortUrl()
+        }).toList();
+        return sum(jdbcTemplate.batchUpdate(
+            "UPDATE url_mappings SET long_url = COALESCE(?, long_url), long_url_hash = COALESCE(?, long_url_hash),"
+                + " is_enabled = COALESCE(?, is_enabled), last_change = COALESCE(?, last_change), updated_at = ?"
+                + " WHERE short_url = ?",
+            batch,
+            new int[] { Types.VARCHAR, Types.BIGINT, Types.BOOLEAN, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR }
+        ));
+    }
+
+    /**
+     * Finds rows written before long_url_hash existed, in id order
+     *
+     * @param afterId Only rows with a greater id are returned
+     * @param limit Maximum number of rows
+     * @return Long URLs keyed by id, in id order
+     */
+    public Map<Long, String> findWithoutLongUrlHash(long afterId, int limit) {
+        Map<Long, String> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, long_url FROM url_mappings WHERE id > ? AND long_url_hash IS NULL ORDER BY id LIMIT ?",
+            resultSet -> {
+                rows.put(resultSet.getLong(1), resultSet.getString(2));
+            },
+            afterId, limit
+        );
+        return rows;
+    }
+
+    /**
+     * Sets long_url_hash on rows that still have none, in one JDBC batch.
+     * Rows hashed in the meantime by an update are left untouched.
+     *
+     * @param hashes Hashes keyed by id
+     */
+    public void updateMissingLongUrlHashes(Map<Long, Long> hashes) {
+        List<Object[]> batch = hashes.entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .toList();
+        jdbcTemplate.batchUpdate(
+            "UPDATE url_mappings SET long_url_hash = ? WHERE id = ? AND long_url_hash IS NULL",
+            batch
+        );
+    }
+
+    private static UrlMappingEntity mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        UrlMappingEntity mapping = new UrlMappingEntity(
+            resultSet.getString(2),
+            resultSet.getString(3),
+            resultSet.getBoolean(4)
+        );
+        mapping.setId(resultSet.getLong(1));
+        mapping.setCreatedAt(resultSet.getTimestamp(5).toLocalDateTime());
+        mapping.setUpdatedAt(toLocalDateTime(resultSet.getTimestamp(6)));
+        String lastChange = resultSet.getString(7);
+        mapping.setLastChange(lastChange != null ? ChangeType.valueOf(lastChange) : null);
+        mapping.setExpiresAt(toLocalDateTime(resultSet.getTimestamp(8)));
+        return mapping;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            // Drivers may report an unknown count for a successful statement
+            total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return total;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.urlshortener.repository;
 
 import com.example.urlshortener.entity.UrlMappingEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,21 @@ public interface UrlMappingRepository extends JpaRepository<UrlMappingEntity, Lo
      */
     Optional<UrlMappingEntity> findByLongUrl(String longUrl);
     
+    /**
+     * Find URL mappings whose long URL hashes to the given value
+     */
+    List<UrlMappingEntity> findByLongUrlHash(Long longUrlHash);
+    
+    /**
+     * Find URL mappings whose long URL hashes to any of the given values
+     */
+    List<UrlMappingEntity> findByLongUrlHashIn(Collection<Long> longUrlHashes);
+    
+    /**
+     * Find URL mappings by any of the given long URLs
+     */
+    List<UrlMappingEntity> findByLongUrlIn(Collection<String> longUrls);
+    
     /**
      * Check if a short URL exists
      */
@@ -42,6 +59,16 @@ public interface UrlMappingRepository extends JpaRepository<UrlMappingEntity, Lo
      */
     List<UrlMappingEntity> findByIsEnabledFalse();
     
+    /**
+     * Find the URL mappings following the given id, in id order
+     */
+    List<UrlMappingEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    /**
+     * Find the enabled or disabled URL mappings following the given id, in id order
+     */
+    List<UrlMappingEntity> findByIdGreaterThanAndIsEnabledOrderByIdAsc(Long id, boolean isEnabled, Limit limit);
+    
     /**
      * Count total URL mappings
      */
@@ -1,40 +1,106 @@
 package com.example.urlshortener.service;
 
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.cache.ShortUrlFilter;
+import com.example.urlshortener.dto.BatchEnableUrlRequest;
+import com.example.urlshortener.dto.BatchEnableUrlResult;
+import com.example.urlshortener.dto.BatchShortenUrlResult;
+import com.example.urlshortener.dto.MappingUpdate;
 import com.example.urlshortener.dto.ShortenUrlResponse;
 import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.dto.UrlMappingPage;
+import com.example.urlshortener.entity.ChangeType;
 import com.example.urlshortener.entity.UrlMappingEntity;
-import com.example.urlshortener.repository.UrlMappingRepository;
+import com.example.urlshortener.feed.MappingChangedEvent;
+import com.example.urlshortener.shortcode.ReclaimedShortCodePool;
+import com.example.urlshortener.shortcode.ReservedShortCodes;
+import com.example.urlshortener.shortcode.ShortCodeGenerator;
+import com.example.urlshortener.stats.MappingStats;
+import com.example.urlshortener.store.UrlMappingStore;
+import com.example.urlshortener.url.UrlCanonicalizer;
+import com.example.urlshortener.writebehind.WriteBehindBuffer;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Service layer for URL shortening operations
+ * Service layer for URL shortening operations.
+ * Every public method is timed with a percentile histogram under url.shortener.service.
  */
 @Service
+@Timed(value = "url.shortener.service", histogram = true)
 public class UrlShortenerService {
     
-    private final UrlMappingRepository urlMappingRepository;
-    private final Random random;
+    private final UrlMappingStore urlMappingStore;
+    private final RedirectResolver redirectResolver;
+    private final ShortUrlFilter shortUrlFilter;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ReclaimedShortCodePool reclaimedShortCodePool;
+    private final MappingStats mappingStats;
+    private final UrlCanonicalizer urlCanonicalizer;
+    private final ApplicationEventPublisher eventPublisher;
+    // Only present with the write-behind profile
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final int batchChunkSize;
     
-    // Character set for generating short URLs (alphanumeric)
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-    private static final int SHORT_URL_LENGTH = 6;
-    
-    // URL validation pattern
-    private static final Pattern URL_PATTERN = Pattern.compile(
-        "^https?://[\\w\\-]+(\\.[\\w\\-]+)+([\\w\\-.,@?^=%&:/~+#]*[\\w\\-@?^=%&/~+#])?$"
-    );
+    private final Counter redirectHits;
+    private final Counter redirectMisses;
+    private final Counter redirectsDisabled;
+    private final Counter redirectsExpired;
+    private final Counter collisionRetries;
+    private final Counter dedupHits;
     
     @Autowired
-    public UrlShortenerService(UrlMappingRepository urlMappingRepository) {
-        this.urlMappingRepository = urlMappingRepository;
-        this.random = new Random();
+    public UrlShortenerService(
+            UrlMappingStore urlMappingStore,
+            RedirectResolver redirectResolver,
+            ShortUrlFilter shortUrlFilter,
+            ShortCodeGenerator shortCodeGenerator,
+            ReclaimedShortCodePool reclaimedShortCodePool,
+            MappingStats mappingStats,
+            UrlCanonicalizer urlCanonicalizer,
+            ApplicationEventPublisher eventPublisher,
+            ObjectProvider<WriteBehindBuffer> writeBehindBuffer,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.batch.chunk-size:500}") int batchChunkSize) {
+        this.urlMappingStore = urlMappingStore;
+        this.redirectResolver = redirectResolver;
+        this.shortUrlFilter = shortUrlFilter;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.reclaimedShortCodePool = reclaimedShortCodePool;
+        this.mappingStats = mappingStats;
+        this.urlCanonicalizer = urlCanonicalizer;
+        this.eventPublisher = eventPublisher;
+        this.writeBehindBuffer = writeBehindBuffer.getIfAvailable();
+        this.batchChunkSize = batchChunkSize;
+        this.redirectHits = redirectCounter(meterRegistry, "hit");
+        this.redirectMisses = redirectCounter(meterRegistry, "miss");
+        this.redirectsDisabled = redirectCounter(meterRegistry, "disabled");
+        this.redirectsExpired = redirectCounter(meterRegistry, "expired");
+        this.collisionRetries = Counter.builder("url.shortener.shorten.collision.retries")
+                .description("Generated short URLs discarded because they were already taken")
+                .register(meterRegistry);
+        this.dedupHits = Counter.builder("url.shortener.shorten.dedup.hits")
+                .description("Shortened URLs answered with an existing mapping")
+                .register(meterRegistry);
     }
     
     /**
@@ -44,76 +110,241 @@ public class UrlShortenerService {
      * @return Response containing short URL and whether it's new
      */
     public ShortenUrlResponse shortenUrl(String longUrl) {
-        if (longUrl == null || longUrl.trim().isEmpty()) {
-            throw new IllegalArgumentException("URL cannot be null or empty");
-        }
-        
-        // Normalize the URL
-        longUrl = longUrl.trim();
+        return shortenUrl(longUrl, null);
+    }
+    
+    /**
+     * Shortens a long URL, optionally with an expiry. A link with an expiry is
+     * always a new mapping, since sharing it would expire the link for every
+     * caller that was given the same short URL.
+     * 
+     * @param longUrl The long URL to shorten
+     * @param expiresAt When the link stops redirecting, in server local time, or null for never
+     * @return Response containing short URL and whether it's new
+     */
+    public ShortenUrlResponse shortenUrl(String longUrl, LocalDateTime expiresAt) {
+        String submittedUrl = longUrl;
+        longUrl = normalizeLongUrl(longUrl);
         
-        // Validate URL format
-        if (!isValidURL(longUrl)) {
-            throw new IllegalArgumentException("Invalid URL format: " + longUrl);
+        if (expiresAt != null) {
+            if (!expiresAt.isAfter(LocalDateTime.now())) {
+                throw new IllegalArgumentException("expiresAt must be in the future");
+            }
+            String shortUrl = insertMapping(longUrl, expiresAt);
+            return new ShortenUrlResponse(shortUrl, longUrl, true, expiresAt);
         }
         
         // Check if URL is already shortened
-        Optional<UrlMappingEntity> existingMapping = urlMappingRepository.findByLongUrl(longUrl);
+        Optional<UrlMappingEntity> existingMapping = urlMappingStore.findByLongUrl(longUrl);
+        if (existingMapping.isEmpty() && !longUrl.equals(submittedUrl.trim())) {
+            // Mappings created before canonicalization were stored as submitted
+            existingMapping = urlMappingStore.findByLongUrl(submittedUrl.trim());
+        }
         boolean isNew = existingMapping.isEmpty();
         
         String shortUrl;
         if (isNew) {
-            // Generate a unique short URL
-            shortUrl = generateUniqueShortURL();
-            
-            // Save to database
-            UrlMappingEntity newMapping = new UrlMappingEntity(shortUrl, longUrl, true);
-            urlMappingRepository.save(newMapping);
+            shortUrl = insertMapping(longUrl, null);
         } else {
             shortUrl = existingMapping.get().getShortUrl();
+            dedupHits.increment();
         }
         
         return new ShortenUrlResponse(shortUrl, longUrl, isNew);
     }
     
+    /**
+     * Creates a mapping under a new short URL
+     * 
+     * @param longUrl The canonical long URL
+     * @param expiresAt The expiry, or null for none
+     * @return The short URL
+     */
+    private String insertMapping(String longUrl, LocalDateTime expiresAt) {
+        // Generate a unique short URL
+        String shortUrl = generateUniqueShortURL();
+        
+        // Register with the lookup filter before the row becomes visible
+        shortUrlFilter.add(shortUrl);
+        
+        // Save to database
+        UrlMappingEntity newMapping = new UrlMappingEntity(shortUrl, longUrl, true);
+        newMapping.setExpiresAt(expiresAt);
+        urlMappingStore.save(newMapping);
+        redirectResolver.mappingChanged(shortUrl, new CachedRedirect(longUrl, true, expiresAt));
+        mappingStats.recordInserted(1);
+        eventPublisher.publishEvent(new MappingChangedEvent(List.of(shortUrl)));
+        return shortUrl;
+    }
+    
+    /**
+     * Shortens many long URLs at once. Each chunk is deduplicated against the
+     * database with a single query and its new mappings are inserted in one
+     * JDBC batch. Invalid URLs fail individually without affecting the others.
+     * 
+     * @param longUrls The long URLs to shorten
+     * @return One result per input URL, in input order
+     */
+    public List<BatchShortenUrlResult> shortenUrls(List<String> longUrls) {
+        List<BatchShortenUrlResult> results = new ArrayList<>(longUrls.size());
+        
+        for (int from = 0; from < longUrls.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, longUrls.size());
+            results.addAll(shortenChunk(longUrls.subList(from, to)));
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Shortens one chunk of a batch
+     * 
+     * @param longUrls The long URLs in the chunk
+     * @return One result per input URL, in input order
+     */
+    private List<BatchShortenUrlResult> shortenChunk(List<String> longUrls) {
+        BatchShortenUrlResult[] results = new BatchShortenUrlResult[longUrls.size()];
+        
+        // Validate and group positions by canonical URL
+        Map<String, List<Integer>> positionsByUrl = new LinkedHashMap<>();
+        Map<String, String> submittedUrls = new HashMap<>();
+        for (int i = 0; i < longUrls.size(); i++) {
+            try {
+                String longUrl = normalizeLongUrl(longUrls.get(i));
+                positionsByUrl.computeIfAbsent(longUrl, url -> new ArrayList<>()).add(i);
+                
+                String submittedUrl = longUrls.get(i).trim();
+                if (!longUrl.equals(submittedUrl)) {
+                    submittedUrls.putIfAbsent(longUrl, submittedUrl);
+                }
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchShortenUrlResult.failed(longUrls.get(i), e.getMessage());
+            }
+        }
+        
+        Map<String, String> existingShortUrls = urlMappingStore.findShortUrlsByLongUrls(positionsByUrl.keySet());
+        
+        // Mappings created before canonicalization were stored as submitted
+        submittedUrls.keySet().removeAll(existingShortUrls.keySet());
+        if (!submittedUrls.isEmpty()) {
+            Map<String, String> legacyShortUrls = urlMappingStore.findShortUrlsByLongUrls(Set.copyOf(submittedUrls.values()));
+            submittedUrls.forEach((longUrl, submittedUrl) -> {
+                String shortUrl = legacyShortUrls.get(submittedUrl);
+                if (shortUrl != null) {
+                    existingShortUrls.put(longUrl, shortUrl);
+                }
+            });
+        }
+        
+        List<UrlMappingEntity> newMappings = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : positionsByUrl.entrySet()) {
+            String longUrl = entry.getKey();
+            String shortUrl = existingShortUrls.get(longUrl);
+            boolean isNew = shortUrl == null;
+            
+            if (isNew) {
+                shortUrl = generateUniqueShortURL();
+                shortUrlFilter.add(shortUrl);
+                newMappings.add(new UrlMappingEntity(shortUrl, longUrl, true));
+            }
+            
+            // Repeats within the batch resolve to the same mapping
+            List<Integer> positions = entry.getValue();
+            dedupHits.increment(isNew ? positions.size() - 1 : positions.size());
+            for (int i = 0; i < positions.size(); i++) {
+                results[positions.get(i)] = new BatchShortenUrlResult(shortUrl, longUrl, isNew && i == 0);
+            }
+        }
+        
+        urlMappingStore.saveAll(newMappings);
+        for (UrlMappingEntity mapping : newMappings) {
+            redirectResolver.mappingChanged(mapping.getShortUrl(), new CachedRedirect(mapping.getLongUrl(), true));
+        }
+        mappingStats.recordInserted(newMappings.size());
+        if (!newMappings.isEmpty()) {
+            eventPublisher.publishEvent(new MappingChangedEvent(
+                    newMappings.stream().map(UrlMappingEntity::getShortUrl).toList()));
+        }
+        
+        return Arrays.asList(results);
+    }
+    
     /**
      * Retrieves the original long URL from a short URL
      * 
      * @param shortUrl The short URL
-     * @return The original long URL, or null if not found/disabled
+     * @return The original long URL, or null if not found/disabled/expired
      */
     public String getOriginalUrl(String shortUrl) {
         if (shortUrl == null || shortUrl.trim().isEmpty()) {
             return null;
         }
         
-        Optional<UrlMappingEntity> mapping = urlMappingRepository.findByShortUrl(shortUrl.trim());
-        if (mapping.isEmpty()) {
+        shortUrl = shortUrl.trim();
+        
+        // Buffered updates are not in the store yet
+        CachedRedirect redirect = writeBehindBuffer != null ? writeBehindBuffer.resolve(shortUrl) : null;
+        if (redirect == null) {
+            redirect = redirectResolver.resolve(shortUrl);
+        }
+        if (redirect == null) {
+            redirectMisses.increment();
             return null;
         }
-        
-        UrlMappingEntity urlMapping = mapping.get();
-        if (!urlMapping.isEnabled()) {
+        if (!redirect.isEnabled()) {
+            redirectsDisabled.increment();
+            return null;
+        }
+        // Checked on every lookup, so a link stops working at its expiry regardless of when the sweeper runs
+        if (redirect.isExpired(System.currentTimeMillis())) {
+            redirectsExpired.increment();
             return null;
         }
         
-        return urlMapping.getLongUrl();
+        redirectHits.increment();
+        return redirect.getLongUrl();
     }
     
     /**
-     * Gets all URL mappings
+     * Gets one page of URL mappings using keyset pagination on id
      * 
-     * @return List of URL mappings
+     * @param after Only mappings with a greater id are returned; null for the first page
+     * @param limit Maximum number of mappings in the page
+     * @param enabled Only mappings with this enabled flag, or all if null
+     * @return The page, with the cursor for the next one
      */
-    public List<UrlMapping> getAllMappings() {
-        List<UrlMappingEntity> mappings = urlMappingRepository.findAll();
+    public UrlMappingPage getMappingsPage(Long after, int limit, Boolean enabled) {
+        long afterId = after != null ? after : 0L;
         
-        return mappings.stream()
+        // Fetch one extra row to know whether another page follows
+        List<UrlMappingEntity> entities = urlMappingStore.findPage(afterId, enabled, limit + 1);
+        
+        boolean hasMore = entities.size() > limit;
+        if (hasMore) {
+            entities = entities.subList(0, limit);
+        }
+        
+        List<UrlMapping> mappings = entities.stream()
                 .map(mapping -> new UrlMapping(
                     mapping.getShortUrl(), 
                     mapping.getLongUrl(), 
-                    mapping.isEnabled()
+                    mapping.isEnabled(),
+                    mapping.getExpiresAt()
                 ))
                 .collect(Collectors.toList());
+        Long nextCursor = hasMore ? entities.get(entities.size() - 1).getId() : null;
+        
+        return new UrlMappingPage(mappings, nextCursor);
+    }
+    
+    /**
+     * Streams every URL mapping in id order with constant memory
+     * 
+     * @param enabled Only mappings with this enabled flag, or all if null
+     * @param consumer Receives each mapping
+     */
+    public void exportMappings(Boolean enabled, Consumer<UrlMapping> consumer) {
+        urlMappingStore.forEachMapping(enabled, consumer);
     }
     
     /**
@@ -132,22 +363,27 @@ public class UrlShortenerService {
             throw new IllegalArgumentException("New URL cannot be null or empty");
         }
         
-        // Normalize the new URL
-        newLongUrl = newLongUrl.trim();
+        // Validate and canonicalize the new URL
+        newLongUrl = normalizeLongUrl(newLongUrl);
         
-        // Validate the new URL format
-        if (!isValidURL(newLongUrl)) {
-            throw new IllegalArgumentException("Invalid URL format: " + newLongUrl);
+        if (writeBehindBuffer != null) {
+            return !applyUpdates(List.of(new MappingUpdate(shortUrl.trim(), newLongUrl, null, null))).isEmpty();
         }
         
-        Optional<UrlMappingEntity> existingMapping = urlMappingRepository.findByShortUrl(shortUrl.trim());
+        Optional<UrlMappingEntity> existingMapping = urlMappingStore.findByShortUrl(shortUrl.trim());
         if (existingMapping.isEmpty()) {
             return false;
         }
         
         UrlMappingEntity mapping = existingMapping.get();
+        if (!newLongUrl.equals(mapping.getLongUrl())) {
+            mapping.setLastChange(ChangeType.URL_UPDATED);
+        }
         mapping.setLongUrl(newLongUrl);
-        urlMappingRepository.save(mapping);
+        urlMappingStore.save(mapping);
+        redirectResolver.mappingChanged(mapping.getShortUrl(),
+                new CachedRedirect(mapping.getLongUrl(), mapping.isEnabled(), mapping.getExpiresAt()));
+        eventPublisher.publishEvent(new MappingChangedEvent(List.of(mapping.getShortUrl())));
         
         return true;
     }
@@ -164,25 +400,135 @@ public class UrlShortenerService {
             return false;
         }
 
-        Optional<UrlMappingEntity> existingMapping = urlMappingRepository.findByShortUrl(shortUrl.trim());
+        if (writeBehindBuffer != null) {
+            return !applyUpdates(List.of(new MappingUpdate(shortUrl.trim(), null, isEnabled, null))).isEmpty();
+        }
+
+        Optional<UrlMappingEntity> existingMapping = urlMappingStore.findByShortUrl(shortUrl.trim());
         if (existingMapping.isEmpty()) {
             return false;
         }
         
         UrlMappingEntity mapping = existingMapping.get();
+        boolean changed = mapping.isEnabled() != isEnabled;
+        if (changed) {
+            mapping.setLastChange(isEnabled ? ChangeType.ENABLED : ChangeType.DISABLED);
+        }
         mapping.setEnabled(isEnabled);
-        urlMappingRepository.save(mapping);
+        urlMappingStore.save(mapping);
+        redirectResolver.mappingChanged(mapping.getShortUrl(),
+                new CachedRedirect(mapping.getLongUrl(), mapping.isEnabled(), mapping.getExpiresAt()));
+        
+        if (changed) {
+            mappingStats.recordEnabledChanged(isEnabled);
+            eventPublisher.publishEvent(new MappingChangedEvent(List.of(mapping.getShortUrl())));
+        }
         
         return true;
     }
     
     /**
-     * Gets the total number of URL mappings
+     * Enables/disables many short URLs at once. Each chunk is written in one
+     * store batch, or handed to the write-behind buffer when it is active.
+     * 
+     * @param requests The short URLs and their new enabled status
+     * @return One result per request, in request order
+     */
+    public List<BatchEnableUrlResult> updateMappingsEnabled(List<BatchEnableUrlRequest> requests) {
+        List<BatchEnableUrlResult> results = new ArrayList<>(requests.size());
+        
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            List<BatchEnableUrlRequest> chunk = requests.subList(from, Math.min(from + batchChunkSize, requests.size()));
+            
+            List<MappingUpdate> updates = new ArrayList<>(chunk.size());
+            for (BatchEnableUrlRequest request : chunk) {
+                if (request != null && request.getShortUrl() != null && !request.getShortUrl().trim().isEmpty()) {
+                    updates.add(new MappingUpdate(request.getShortUrl().trim(), null, request.isEnabled(), null));
+                }
+            }
+            
+            Set<String> updated = applyUpdates(updates);
+            for (BatchEnableUrlRequest request : chunk) {
+                String shortUrl = request != null && request.getShortUrl() != null ? request.getShortUrl().trim() : null;
+                results.add(new BatchEnableUrlResult(shortUrl, shortUrl != null && updated.contains(shortUrl)));
+            }
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Applies changes to existing mappings in one store batch, or through the
+     * write-behind buffer when it is active. The change type of each mapping is
+     * worked out against its current state, and repeated short URLs are merged.
+     * 
+     * @param requested The changes; null fields keep the current value
+     * @return The short URLs that exist and were updated
+     */
+    private Set<String> applyUpdates(List<MappingUpdate> requested) {
+        // State of each short URL as of the changes seen so far
+        Map<String, CachedRedirect> redirects = new HashMap<>();
+        Map<String, MappingUpdate> updates = new LinkedHashMap<>();
+        List<Boolean> enabledChanges = new ArrayList<>();
+        
+        for (MappingUpdate request : requested) {
+            String shortUrl = request.getShortUrl();
+            CachedRedirect before = redirects.containsKey(shortUrl) ? redirects.get(shortUrl) : currentRedirect(shortUrl);
+            redirects.put(shortUrl, before);
+            if (before == null) {
+                continue;
+            }
+            
+            String longUrl = request.getLongUrl() != null ? request.getLongUrl() : before.getLongUrl();
+            boolean enabled = request.getEnabled() != null ? request.getEnabled() : before.isEnabled();
+            ChangeType change = null;
+            if (!longUrl.equals(before.getLongUrl())) {
+                change = ChangeType.URL_UPDATED;
+            }
+            if (enabled != before.isEnabled()) {
+                change = enabled ? ChangeType.ENABLED : ChangeType.DISABLED;
+                enabledChanges.add(enabled);
+            }
+            
+            redirects.put(shortUrl, new CachedRedirect(longUrl, enabled, before.getExpiresAtMillis()));
+            updates.merge(shortUrl, new MappingUpdate(shortUrl, request.getLongUrl(), request.getEnabled(), change),
+                    MappingUpdate::merge);
+        }
+        if (updates.isEmpty()) {
+            return Set.of();
+        }
+        
+        if (writeBehindBuffer != null) {
+            // The change feed event follows when the buffer flushes to the store
+            redirects.putAll(writeBehindBuffer.submit(new ArrayList<>(updates.values())));
+        } else {
+            urlMappingStore.updateAll(new ArrayList<>(updates.values()));
+            eventPublisher.publishEvent(new MappingChangedEvent(List.copyOf(updates.keySet())));
+        }
+        
+        updates.keySet().forEach(shortUrl -> redirectResolver.mappingChanged(shortUrl, redirects.get(shortUrl)));
+        enabledChanges.forEach(mappingStats::recordEnabledChanged);
+        return updates.keySet();
+    }
+    
+    /**
+     * Reads the state of a mapping, including updates the write-behind buffer has not flushed
+     * 
+     * @param shortUrl The short URL
+     * @return The mapping, or null if it doesn't exist
+     */
+    private CachedRedirect currentRedirect(String shortUrl) {
+        CachedRedirect redirect = writeBehindBuffer != null ? writeBehindBuffer.resolve(shortUrl) : null;
+        return redirect != null ? redirect : urlMappingStore.findRedirect(shortUrl).orElse(null);
+    }
+    
+    /**
+     * Gets the total number of URL mappings from the in-memory counters
      * 
      * @return The total count
      */
     public long getTotalMappings() {
-        return urlMappingRepository.count();
+        return mappingStats.getTotalMappings();
     }
     
     /**
@@ -192,66 +538,74 @@ public class UrlShortenerService {
      * @return true if it exists, false otherwise
      */
     public boolean hasShortUrl(String shortUrl) {
-        return shortUrl != null && urlMappingRepository.existsByShortUrl(shortUrl.trim());
+        return shortUrl != null && shortUrlExists(shortUrl.trim());
     }
     
     /**
-     * Generates a unique short URL that doesn't already exist in the database
+     * Generates a unique short URL that doesn't already exist in the database.
+     * Codes of expired links are reused first once their quarantine is over.
+     * Codes from a collision-free generator are only checked against the lookup
+     * filter, which screens out codes issued by earlier strategies. Codes that
+     * collide with another endpoint's path are skipped.
      * 
      * @return A unique short URL
      */
     private String generateUniqueShortURL() {
+        // Reclaimed codes are still in the lookup filter, so ask the store directly
+        String reclaimed;
+        while ((reclaimed = reclaimedShortCodePool.poll()) != null) {
+            if (!ReservedShortCodes.isReserved(reclaimed) && !urlMappingStore.existsByShortUrl(reclaimed)) {
+                return reclaimed;
+            }
+        }
+        
         String shortUrl;
         int attempts = 0;
-        final int MAX_ATTEMPTS = 100; // Prevent infinite loops
         
         do {
-            shortUrl = generateRandomShortURL();
-            attempts++;
-            
-            // If we've tried too many times, increase the length
-            if (attempts > MAX_ATTEMPTS) {
-                shortUrl = generateRandomShortURL(SHORT_URL_LENGTH + 1);
-                attempts = 0;
+            if (attempts > 0) {
+                collisionRetries.increment();
             }
-        } while (urlMappingRepository.existsByShortUrl(shortUrl));
+            shortUrl = shortCodeGenerator.nextShortCode(attempts);
+            attempts++;
+        } while (ReservedShortCodes.isReserved(shortUrl) || shortUrlExists(shortUrl));
         
         return shortUrl;
     }
     
     /**
-     * Generates a random short URL of the default length
-     * 
-     * @return A random short URL
-     */
-    private String generateRandomShortURL() {
-        return generateRandomShortURL(SHORT_URL_LENGTH);
-    }
-    
-    /**
-     * Generates a random short URL of specified length
+     * Checks the database for a short URL unless the lookup filter rules it out
      * 
-     * @param length The length of the short URL to generate
-     * @return A random short URL
+     * @param shortUrl The short URL to check
+     * @return true if it exists, false otherwise
      */
-    private String generateRandomShortURL(int length) {
-        StringBuilder shortUrl = new StringBuilder();
-        
-        for (int i = 0; i < length; i++) {
-            int randomIndex = random.nextInt(CHARACTERS.length());
-            shortUrl.append(CHARACTERS.charAt(randomIndex));
+    private boolean shortUrlExists(String shortUrl) {
+        if (!shortUrlFilter.mightContain(shortUrl)) {
+            return false;
         }
         
-        return shortUrl.toString();
+        boolean exists = urlMappingStore.existsByShortUrl(shortUrl);
+        if (!exists) {
+            shortUrlFilter.recordFalsePositive();
+        }
+        return exists;
     }
     
     /**
-     * Validates if a URL has a proper format
+     * Validates a long URL and brings it to the canonical form used as the dedup key
      * 
-     * @param url The URL to validate
-     * @return true if the URL is valid, false otherwise
+     * @param longUrl The long URL as submitted
+     * @return The canonical long URL
+     * @throws IllegalArgumentException if the URL is empty or malformed
      */
-    private boolean isValidURL(String url) {
-        return URL_PATTERN.matcher(url).matches();
+    private String normalizeLongUrl(String longUrl) {
+        return urlCanonicalizer.canonicalize(longUrl);
+    }
+    
+    private static Counter redirectCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("url.shortener.redirects")
+                .tag("outcome", outcome)
+                .description("Short URL lookups by outcome")
+                .register(meterRegistry);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.urlshortener.shortcode;
+
+import java.util.Arrays;
+
+/**
+ * Base-62 alphabet shared by every short code
+ */
+public final class Base62 {
+    
+    // Character set for generating short URLs (alphanumeric)
+    public static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    
+    public static final int BASE = CHARACTERS.length();
+    
+    // Longest code that fits the short_url column
+    public static final int MAX_LENGTH = 10;
+    
+    private static final long[] POWERS = new long[MAX_LENGTH + 1];
+    
+    // Digit value of each ASCII character, -1 outside the alphabet
+    private static final int[] DIGITS = new int[128];
+    
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i <= MAX_LENGTH; i++) {
+            POWERS[i] = POWERS[i - 1] * BASE;
+        }
+        Arrays.fill(DIGITS, -1);
+        for (int i = 0; i < BASE; i++) {
+            DIGITS[CHARACTERS.charAt(i)] = i;
+        }
+    }
+    
+    private Base62() {}
+    
+    /**
+     * Number of distinct codes of the given length
+     * 
+     * @param length The code length
+     * @return 62 to the power of length
+     */
+    public static long capacity(int length) {
+        return POWERS[length];
+    }
+    
+    /**
+     * Looks up the value of one character of a code
+     * 
+     * @param c The character
+     * @return Its digit value, or -1 if it is not in the alphabet
+     */
+    public static int digit(char c) {
+        return c < DIGITS.length ? DIGITS[c] : -1;
+    }
+    
+    /**
+     * Splits a value into fixed-width base-62 digits, least significant first
+     * 
+     * @param value The value, below {@link #capacity(int)} for the width
+     * @param digits Receives the digits; its length is the width
+     */
+    public static void toDigits(long value, int[] digits) {
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (int) (value % BASE);
+            value /= BASE;
+        }
+    }
+    
+    /**
+     * Renders fixed-width digits as a code, most significant digit first
+     * 
+     * @param digits The digits, least significant first
+     * @return The short code
+     */
+    public static String toCode(int[] digits) {
+        char[] chars = new char[digits.length];
+        for (int i = 0; i < digits.length; i++) {
+            chars[digits.length - 1 - i] = CHARACTERS.charAt(digits[i]);
+        }
+        return new String(chars);
+    }
+}
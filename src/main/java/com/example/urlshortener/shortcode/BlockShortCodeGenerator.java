@@ -0,0 +1,119 @@
+package com.example.urlshortener.shortcode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counter-based generator that never issues the same code twice.
+ * Ids are leased in blocks from a database sequence, so each node only
+ * touches the database once per block. Ids fill every code of the minimum
+ * length before moving on to longer codes, and are optionally passed
+ * through a keyed bijective scramble so consecutive codes look unrelated.
+ * Without a configured key, a random one is generated on first use and
+ * stored in the database, so every node sharing it issues the same codes.
+ */
+@Component
+@ConditionalOnProperty(name = "url-shortener.short-code.strategy", havingValue = "block", matchIfMissing = true)
+public class BlockShortCodeGenerator implements ShortCodeGenerator {
+    
+    static final String SEQUENCE_NAME = "short_code";
+    static final String SCRAMBLE_KEY_NAME = "short_code_scramble_key";
+    
+    private final ShortCodeBlockAllocator blockAllocator;
+    private final int blockSize;
+    private final int minLength;
+    private final boolean scramble;
+    
+    // Current block, guarded by lock; a lock rather than synchronized so a
+    // virtual thread leasing a block does not pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextId;
+    private long blockEnd;
+    // Set with the first block when the key comes from the database
+    private ShortCodeScrambler scrambler;
+    
+    @Autowired
+    public BlockShortCodeGenerator(
+            ShortCodeBlockAllocator blockAllocator,
+            @Value("${url-shortener.short-code.block-size:1000}") int blockSize,
+            @Value("${url-shortener.short-code.min-length:6}") int minLength,
+            @Value("${url-shortener.short-code.scramble:true}") boolean scramble,
+            @Value("${url-shortener.short-code.scramble-key:0}") long scrambleKey) {
+        if (minLength < 1 || minLength > Base62.MAX_LENGTH) {
+            throw new IllegalArgumentException("Short code length must be between 1 and " + Base62.MAX_LENGTH);
+        }
+        this.blockAllocator = blockAllocator;
+        this.blockSize = blockSize;
+        this.minLength = minLength;
+        this.scramble = scramble;
+        this.scrambler = scramble && scrambleKey != 0 ? new ShortCodeScrambler(scrambleKey) : null;
+    }
+    
+    @Override
+    public String nextShortCode(int attempt) {
+        return encode(nextId());
+    }
+    
+    /**
+     * Maps an id to its code: ids below 62^minLength use minLength characters,
+     * the following 62^(minLength + 1) ids use one more, and so on
+     * 
+     * @param id The id
+     * @return The short code
+     */
+    String encode(long id) {
+        long remaining = id;
+        for (int length = minLength; length <= Base62.MAX_LENGTH; length++) {
+            long capacity = Base62.capacity(length);
+            if (remaining < capacity) {
+                int[] digits = new int[length];
+                Base62.toDigits(remaining, digits);
+                if (scrambler != null) {
+                    scrambler.scramble(digits);
+                }
+                return Base62.toCode(digits);
+            }
+            remaining -= capacity;
+        }
+        throw new IllegalStateException("Short code space exhausted");
+    }
+    
+    private long nextId() {
+        lock.lock();
+        try {
+            if (nextId == blockEnd) {
+                long start;
+                try {
+                    start = blockAllocator.leaseBlock(SEQUENCE_NAME, blockSize);
+                } catch (DataIntegrityViolationException e) {
+                    // Another node created the sequence row first
+                    start = blockAllocator.leaseBlock(SEQUENCE_NAME, blockSize);
+                }
+                nextId = start;
+                blockEnd = start + blockSize;
+                if (scramble && scrambler == null) {
+                    scrambler = new ShortCodeScrambler(storedScrambleKey());
+                }
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long storedScrambleKey() {
+        long generated = new SecureRandom().nextLong();
+        try {
+            return blockAllocator.getOrCreate(SCRAMBLE_KEY_NAME, generated);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored its key first
+            return blockAllocator.getOrCreate(SCRAMBLE_KEY_NAME, generated);
+        }
+    }
+}
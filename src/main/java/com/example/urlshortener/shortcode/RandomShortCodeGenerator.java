@@ -0,0 +1,41 @@
+package com.example.urlshortener.shortcode;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws random codes; callers must check them for collisions.
+ * After too many rejected candidates the code length grows by one.
+ */
+@Component
+@ConditionalOnProperty(name = "url-shortener.short-code.strategy", havingValue = "random")
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+    
+    private static final int SHORT_URL_LENGTH = 6;
+    private static final int MAX_ATTEMPTS = 100;
+    
+    @Override
+    public String nextShortCode(int attempt) {
+        // If we've tried too many times, increase the length
+        return generateRandomShortURL(attempt < MAX_ATTEMPTS ? SHORT_URL_LENGTH : SHORT_URL_LENGTH + 1);
+    }
+    
+    /**
+     * Generates a random short URL of specified length
+     * 
+     * @param length The length of the short URL to generate
+     * @return A random short URL
+     */
+    public String generateRandomShortURL(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] shortUrl = new char[length];
+        
+        for (int i = 0; i < length; i++) {
+            shortUrl[i] = Base62.CHARACTERS.charAt(random.nextInt(Base62.BASE));
+        }
+        
+        return new String(shortUrl);
+    }
+}
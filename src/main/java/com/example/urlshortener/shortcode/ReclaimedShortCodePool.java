@@ -0,0 +1,94 @@
+package com.example.urlshortener.shortcode;
+
+import com.example.urlshortener.repository.ReclaimedShortCodeJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out short codes freed by expired links once their quarantine is over.
+ * Codes are claimed from reclaimed_short_codes in batches and buffered in
+ * memory; when the table has nothing due, it is not asked again until the
+ * recheck interval has passed, so an empty pool costs no query per insert.
+ * Codes buffered when the process stops are not reissued.
+ */
+@Component
+public class ReclaimedShortCodePool {
+
+    private static final Logger log = LoggerFactory.getLogger(ReclaimedShortCodePool.class);
+
+    private final ReclaimedShortCodeJdbcRepository reclaimedShortCodeJdbcRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long recheckIntervalMillis;
+    private final Counter reused;
+
+    private final Deque<String> buffer = new ArrayDeque<>();
+    // Guards the buffer, so only one caller claims a batch from the database at a time
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextClaimAtMillis;
+
+    @Autowired
+    public ReclaimedShortCodePool(
+            ReclaimedShortCodeJdbcRepository reclaimedShortCodeJdbcRepository,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.expiry.reuse-codes:true}") boolean enabled,
+            @Value("${url-shortener.expiry.reuse-batch-size:100}") int batchSize,
+            @Value("${url-shortener.expiry.sweep-interval:1m}") Duration recheckInterval) {
+        this.reclaimedShortCodeJdbcRepository = reclaimedShortCodeJdbcRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.recheckIntervalMillis = recheckInterval.toMillis();
+        this.reused = Counter.builder("url.shortener.expiry.codes.reused")
+                .description("Short codes of expired links issued again")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a reclaimed code
+     *
+     * @return A code whose quarantine is over, or null if none is due
+     */
+    public String poll() {
+        if (!enabled) {
+            return null;
+        }
+
+        lock.lock();
+        try {
+            if (buffer.isEmpty() && System.currentTimeMillis() >= nextClaimAtMillis) {
+                claim();
+            }
+            String shortUrl = buffer.poll();
+            if (shortUrl != null) {
+                reused.increment();
+            }
+            return shortUrl;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void claim() {
+        try {
+            buffer.addAll(reclaimedShortCodeJdbcRepository.claim(LocalDateTime.now(), batchSize));
+        } catch (DataAccessException e) {
+            // Reuse is best effort: fall back to fresh codes until the next check
+            log.warn("Could not claim reclaimed short codes", e);
+        }
+        if (buffer.size() < batchSize) {
+            nextClaimAtMillis = System.currentTimeMillis() + recheckIntervalMillis;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.urlshortener.shortcode;
+
+import java.util.Set;
+
+/**
+ * Single-segment paths served by something other than the redirect endpoint.
+ * A mapping with one of these codes could never be reached, so they are never issued.
+ */
+public final class ReservedShortCodes {
+
+    public static final Set<String> PATHS = Set.of(
+            "shorten", "export", "changes", "enable", "stats", "error", "actuator", "h2-console", "cluster");
+
+    private ReservedShortCodes() {}
+
+    /**
+     * Checks whether a code collides with another endpoint
+     *
+     * @param shortUrl The short code
+     * @return true if the code is reserved
+     */
+    public static boolean isReserved(String shortUrl) {
+        return PATHS.contains(shortUrl);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.urlshortener.shortcode;
+
+/**
+ * Packs short codes into longs for in-memory indexes. A code is read as a
+ * bijective base-62 number, with digits 1 to 62 instead of 0 to 61, so leading
+ * 'A's still count and every code of up to {@link Base62#MAX_LENGTH} characters
+ * maps to a distinct positive long. 0 is never a code and can mark empty slots.
+ */
+public final class ShortCode {
+    
+    // Returned for codes that cannot be packed
+    public static final long NONE = -1;
+    
+    private ShortCode() {}
+    
+    /**
+     * Packs a short code
+     * 
+     * @param shortUrl The short code
+     * @return The packed code, or {@link #NONE} if it is empty, too long or outside the alphabet
+     */
+    public static long encode(String shortUrl) {
+        int length = shortUrl.length();
+        if (length == 0 || length > Base62.MAX_LENGTH) {
+            return NONE;
+        }
+        
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = Base62.digit(shortUrl.charAt(i));
+            if (digit < 0) {
+                return NONE;
+            }
+            packed = packed * Base62.BASE + digit + 1;
+        }
+        return packed;
+    }
+    
+    /**
+     * Unpacks a short code
+     * 
+     * @param packed A value returned by {@link #encode(String)}
+     * @return The short code
+     * @throws IllegalArgumentException if the value is not a packed code
+     */
+    public static String decode(long packed) {
+        if (packed <= 0) {
+            throw new IllegalArgumentException("Not a packed short code: " + packed);
+        }
+        
+        char[] chars = new char[Base62.MAX_LENGTH];
+        int start = chars.length;
+        while (packed > 0) {
+            if (start == 0) {
+                throw new IllegalArgumentException("Not a packed short code: " + packed);
+            }
+            // Digits run from 1 to 62, so step back one before taking the remainder
+            packed--;
+            chars[--start] = Base62.CHARACTERS.charAt((int) (packed % Base62.BASE));
+            packed /= Base62.BASE;
+        }
+        return new String(chars, start, chars.length - start);
+    }
+}
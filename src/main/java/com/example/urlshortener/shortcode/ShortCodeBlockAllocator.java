@@ -0,0 +1,56 @@
+package com.example.urlshortener.shortcode;
+
+import com.example.urlshortener.entity.ShortCodeSequenceEntity;
+import com.example.urlshortener.repository.ShortCodeSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leases ranges of ids from the short_code_sequences table.
+ * The sequence row is locked for the duration of the lease so that nodes
+ * sharing the database never receive overlapping ranges. The table also
+ * holds values that every node must agree on, such as the scramble key.
+ */
+@Component
+public class ShortCodeBlockAllocator {
+    
+    private final ShortCodeSequenceRepository sequenceRepository;
+    
+    @Autowired
+    public ShortCodeBlockAllocator(ShortCodeSequenceRepository sequenceRepository) {
+        this.sequenceRepository = sequenceRepository;
+    }
+    
+    /**
+     * Reserves the next block of ids
+     * 
+     * @param name The sequence name
+     * @param size Number of ids to reserve
+     * @return The first id of the block
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long leaseBlock(String name, int size) {
+        ShortCodeSequenceEntity sequence = sequenceRepository.findForUpdate(name)
+                .orElseGet(() -> sequenceRepository.save(new ShortCodeSequenceEntity(name, 0)));
+        
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + size);
+        return start;
+    }
+    
+    /**
+     * Reads a value shared by every node, storing the given one if there is none yet
+     * 
+     * @param name The row name
+     * @param value The value to store if the row does not exist
+     * @return The stored value
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long getOrCreate(String name, long value) {
+        return sequenceRepository.findForUpdate(name)
+                .orElseGet(() -> sequenceRepository.save(new ShortCodeSequenceEntity(name, value)))
+                .getNextValue();
+    }
+}
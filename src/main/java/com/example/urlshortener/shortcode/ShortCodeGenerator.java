@@ -0,0 +1,16 @@
+package com.example.urlshortener.shortcode;
+
+/**
+ * Strategy for producing short codes for new URL mappings
+ */
+public interface ShortCodeGenerator {
+    
+    /**
+     * Produces a candidate short code. The caller rejects candidates that are
+     * taken or {@link ReservedShortCodes reserved} and asks again.
+     * 
+     * @param attempt Number of candidates already rejected for the current insert
+     * @return A short code made of {@link Base62#CHARACTERS}
+     */
+    String nextShortCode(int attempt);
+}
@@ -0,0 +1,68 @@
+package com.example.urlshortener.shortcode;
+
+import java.util.SplittableRandom;
+
+/**
+ * Keyed bijection over fixed-width base-62 digit strings.
+ * Each round adds key digits with a chained carry, first from the least
+ * significant digit up and then back down, so a change in any input digit
+ * reaches every output digit. Every step is invertible, so distinct inputs
+ * always map to distinct outputs of the same width.
+ */
+public class ShortCodeScrambler {
+    
+    private static final int ROUNDS = 2;
+    
+    private final int[][] upKeys = new int[ROUNDS][Base62.MAX_LENGTH];
+    private final int[][] downKeys = new int[ROUNDS][Base62.MAX_LENGTH];
+    
+    public ShortCodeScrambler(long key) {
+        SplittableRandom random = new SplittableRandom(key);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < Base62.MAX_LENGTH; i++) {
+                upKeys[round][i] = random.nextInt(Base62.BASE);
+                downKeys[round][i] = random.nextInt(Base62.BASE);
+            }
+        }
+    }
+    
+    /**
+     * Scrambles digits in place
+     * 
+     * @param digits Base-62 digits, least significant first
+     */
+    public void scramble(int[] digits) {
+        int width = digits.length;
+        for (int round = 0; round < ROUNDS; round++) {
+            int carry = 0;
+            for (int i = 0; i < width; i++) {
+                digits[i] = (digits[i] + upKeys[round][i] + carry) % Base62.BASE;
+                carry = digits[i];
+            }
+            carry = 0;
+            for (int i = width - 1; i >= 0; i--) {
+                digits[i] = (digits[i] + downKeys[round][i] + carry) % Base62.BASE;
+                carry = digits[i];
+            }
+        }
+    }
+    
+    /**
+     * Reverses {@link #scramble(int[])} in place
+     * 
+     * @param digits Scrambled base-62 digits, least significant first
+     */
+    public void unscramble(int[] digits) {
+        int width = digits.length;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            for (int i = 0; i < width; i++) {
+                int carry = i < width - 1 ? digits[i + 1] : 0;
+                digits[i] = Math.floorMod(digits[i] - downKeys[round][i] - carry, Base62.BASE);
+            }
+            for (int i = width - 1; i >= 0; i--) {
+                int carry = i > 0 ? digits[i - 1] : 0;
+                digits[i] = Math.floorMod(digits[i] - upKeys[round][i] - carry, Base62.BASE);
+            }
+        }
+    }
+}
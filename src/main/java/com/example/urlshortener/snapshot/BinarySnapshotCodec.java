@@ -0,0 +1,110 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Binary part files. After a four-byte magic and a version byte, each record is:
+ * <pre>
+ * byte flags | utf short url | utf long url | long created at | [long expires at]
+ * </pre>
+ * Flag bit 0 is the enabled flag and bit 1 marks an expiry. Times are
+ * microseconds since the epoch, read as UTC so local times round-trip exactly.
+ * A part ends with a flags byte of -1, so a truncated file is detected.
+ */
+final class BinarySnapshotCodec {
+
+    private static final int MAGIC = 0x55534E50; // "USNP"
+    private static final int VERSION = 1;
+    private static final int ENABLED = 1;
+    private static final int HAS_EXPIRY = 2;
+    private static final int END = -1;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private BinarySnapshotCodec() {
+    }
+
+    static final class Writer implements SnapshotFormat.PartWriter {
+
+        private final DataOutputStream out;
+
+        Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+        }
+
+        @Override
+        public void write(SnapshotMapping mapping) throws IOException {
+            int flags = (mapping.isEnabled() ? ENABLED : 0) | (mapping.getExpiresAt() != null ? HAS_EXPIRY : 0);
+            out.writeByte(flags);
+            out.writeUTF(mapping.getShortUrl());
+            out.writeUTF(mapping.getLongUrl());
+            out.writeLong(toMicros(mapping.getCreatedAt()));
+            if (mapping.getExpiresAt() != null) {
+                out.writeLong(toMicros(mapping.getExpiresAt()));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END);
+            out.close();
+        }
+    }
+
+    static final class Reader implements SnapshotFormat.PartReader {
+
+        private final DataInputStream in;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+            if (this.in.readInt() != MAGIC || this.in.readByte() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " binary snapshot part");
+            }
+        }
+
+        @Override
+        public SnapshotMapping read() throws IOException {
+            try {
+                int flags = in.readByte();
+                if (flags == END) {
+                    return null;
+                }
+                return new SnapshotMapping(
+                        in.readUTF(),
+                        in.readUTF(),
+                        (flags & ENABLED) != 0,
+                        fromMicros(in.readLong()),
+                        (flags & HAS_EXPIRY) != 0 ? fromMicros(in.readLong()) : null);
+            } catch (EOFException e) {
+                throw new IOException("Snapshot part is truncated", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+}
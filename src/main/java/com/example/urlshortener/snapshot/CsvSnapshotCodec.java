@@ -0,0 +1,171 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV part files in UTF-8 with a header row and RFC 4180 quoting:
+ * <pre>
+ * short_url,long_url,is_enabled,created_at,expires_at
+ * </pre>
+ * Times are ISO-8601 local date-times; an empty expires_at means none.
+ */
+final class CsvSnapshotCodec {
+
+    static final String HEADER = "short_url,long_url,is_enabled,created_at,expires_at";
+    private static final int COLUMNS = 5;
+
+    private CsvSnapshotCodec() {
+    }
+
+    static final class Writer implements SnapshotFormat.PartWriter {
+
+        private final BufferedWriter out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        Writer(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            this.out.write(HEADER + "\r\n");
+        }
+
+        @Override
+        public void write(SnapshotMapping mapping) throws IOException {
+            appendField(mapping.getShortUrl()).append(',');
+            appendField(mapping.getLongUrl()).append(',');
+            line.append(mapping.isEnabled()).append(',');
+            line.append(mapping.getCreatedAt()).append(',');
+            if (mapping.getExpiresAt() != null) {
+                line.append(mapping.getExpiresAt());
+            }
+            line.append("\r\n");
+            out.append(line);
+            line.setLength(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private StringBuilder appendField(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                return line.append(value);
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            return line.append('"');
+        }
+    }
+
+    static final class Reader implements SnapshotFormat.PartReader {
+
+        private final BufferedReader in;
+        private final List<String> fields = new ArrayList<>(COLUMNS);
+        private final StringBuilder field = new StringBuilder(256);
+        private long lineNumber = 1;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+            String header = this.in.readLine();
+            if (!HEADER.equals(header)) {
+                throw new IOException("Expected CSV header '" + HEADER + "' but found '" + header + "'");
+            }
+        }
+
+        @Override
+        public SnapshotMapping read() throws IOException {
+            String line = in.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+            split(line);
+            if (fields.size() != COLUMNS) {
+                throw new IOException("Line " + lineNumber + " has " + fields.size() + " columns, expected " + COLUMNS);
+            }
+            try {
+                String expiresAt = fields.get(4);
+                return new SnapshotMapping(
+                        fields.get(0),
+                        fields.get(1),
+                        Boolean.parseBoolean(fields.get(2)),
+                        LocalDateTime.parse(fields.get(3)),
+                        expiresAt.isEmpty() ? null : LocalDateTime.parse(expiresAt));
+            } catch (RuntimeException e) {
+                throw new IOException("Line " + lineNumber + " is not a valid mapping", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * Splits a record into fields, reading further lines while a quoted field is open
+         */
+        private void split(String line) throws IOException {
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // A line break inside quotes belongs to the field
+                    line = in.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        throw new IOException("Quoted field is not closed at the end of the part");
+                    }
+                    field.append("\r\n");
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.urlshortener.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs one snapshot export or import and exits, enabled with the snapshot
+ * profile. The command and its options come from url-shortener.snapshot.*,
+ * usually given on the command line. Throughput and peak heap use are logged
+ * when the command finishes.
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotCommand.class);
+
+    private final SnapshotExporter snapshotExporter;
+    private final SnapshotImporter snapshotImporter;
+    private final ConfigurableApplicationContext context;
+    private final String command;
+    private final String dir;
+    private final SnapshotFormat format;
+    private final long rangeSize;
+    private final int batchSize;
+    private final int parallelism;
+
+    @Autowired
+    public SnapshotCommand(
+            SnapshotExporter snapshotExporter,
+            SnapshotImporter snapshotImporter,
+            ConfigurableApplicationContext context,
+            Environment environment,
+            @Value("${url-shortener.snapshot.command:}") String command,
+            @Value("${url-shortener.snapshot.dir:./data/snapshot}") String dir,
+            @Value("${url-shortener.snapshot.format:binary}") String format,
+            @Value("${url-shortener.snapshot.range-size:100000}") long rangeSize,
+            @Value("${url-shortener.snapshot.batch-size:1000}") int batchSize,
+            @Value("${url-shortener.snapshot.parallelism:4}") int parallelism) {
+        if (environment.acceptsProfiles(Profiles.of("kv-store"))) {
+            throw new IllegalStateException("Snapshots read and write the database; the kv-store profile is not supported");
+        }
+        if (rangeSize <= 0 || batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Snapshot range-size, batch-size and parallelism must be positive");
+        }
+        this.snapshotExporter = snapshotExporter;
+        this.snapshotImporter = snapshotImporter;
+        this.context = context;
+        this.command = command;
+        this.dir = dir;
+        this.format = SnapshotFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        this.rangeSize = rangeSize;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Paths.get(dir);
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+
+        long rows;
+        switch (command) {
+            case "export" -> {
+                rows = snapshotExporter.export(path, format, rangeSize, parallelism);
+                log.info("Exported {} rows to {} as {}", rows, path, format);
+            }
+            case "import" -> {
+                long[] counts = snapshotImporter.importSnapshot(path, batchSize, parallelism);
+                rows = counts[0];
+                log.info("Imported {} rows from {}: {} inserted, {} skipped as existing short URLs",
+                        rows, path, counts[1], counts[0] - counts[1]);
+            }
+            default -> throw new IllegalArgumentException(
+                    "Set url-shortener.snapshot.command to export or import, not '" + command + "'");
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // The sum of per-pool peaks, which may be reached at different moments, bounds the real peak from above
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        log.info(String.format(Locale.ROOT, "Snapshot %s: %d rows in %.1f s (%.0f rows/s), peak heap %d MB",
+                command, rows, seconds, rows / Math.max(seconds, 1e-9), peakHeap >> 20));
+
+        // Scheduler threads would otherwise keep the JVM running
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
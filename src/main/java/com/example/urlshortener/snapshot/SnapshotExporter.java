@@ -0,0 +1,255 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.repository.SnapshotJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+/**
+ * Writes url_mappings to a snapshot directory. The id span of the table is cut
+ * into fixed ranges and each range becomes one part file, written in parallel
+ * on a fork-join pool. Finished parts are recorded in export.checkpoint, so an
+ * interrupted export started again on the same directory only writes the
+ * parts that are missing. The manifest is written last and marks the snapshot
+ * complete.
+ * <p>
+ * Rows are read with ordinary statements, so an export of a live database is
+ * not a point-in-time copy: rows changed while it runs may or may not be in it.
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotExporter {
+
+    static final String MANIFEST = "manifest.properties";
+    static final String CHECKPOINT = "export.checkpoint";
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotExporter.class);
+
+    private final SnapshotJdbcRepository snapshotJdbcRepository;
+
+    @Autowired
+    public SnapshotExporter(SnapshotJdbcRepository snapshotJdbcRepository) {
+        this.snapshotJdbcRepository = snapshotJdbcRepository;
+    }
+
+    /**
+     * Exports every mapping, resuming an interrupted export of the same directory
+     *
+     * @param dir The snapshot directory
+     * @param format The part file format
+     * @param rangeSize Ids covered by each part
+     * @param parallelism Parts written at once
+     * @return The number of rows written by this run
+     * @throws IllegalStateException if the directory already holds a complete snapshot
+     *         or an interrupted export in another format
+     */
+    public long export(Path dir, SnapshotFormat format, long rangeSize, int parallelism) throws IOException {
+        if (Files.exists(dir.resolve(MANIFEST))) {
+            throw new IllegalStateException(dir + " already holds a complete snapshot");
+        }
+        Files.createDirectories(dir);
+
+        Checkpoint checkpoint = Checkpoint.open(dir.resolve(CHECKPOINT), format, rangeSize, snapshotJdbcRepository);
+        List<Long> starts = checkpoint.partStarts();
+        if (!checkpoint.done.isEmpty()) {
+            log.info("Resuming export to {}: {} of {} parts already written", dir, checkpoint.done.size(), starts.size());
+        }
+
+        long written;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            written = pool.invoke(new ExportTask(dir, format, checkpoint, starts, 0, starts.size()));
+        } finally {
+            pool.shutdown();
+            checkpoint.close();
+        }
+
+        long rows = checkpoint.done.values().stream().mapToLong(Long::longValue).sum();
+        Properties manifest = new Properties();
+        manifest.setProperty("snapshot-id", UUID.randomUUID().toString());
+        manifest.setProperty("format", format.name());
+        manifest.setProperty("parts", Integer.toString(starts.size()));
+        manifest.setProperty("rows", Long.toString(rows));
+        manifest.setProperty("created-at", LocalDateTime.now().toString());
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            manifest.store(out, "url_mappings snapshot");
+        }
+        Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(dir.resolve(CHECKPOINT));
+        return written;
+    }
+
+    /**
+     * File name of a part
+     *
+     * @param part The part number
+     * @param format The part file format
+     * @return The file name
+     */
+    static String partFile(int part, SnapshotFormat format) {
+        return String.format("part-%05d.%s", part, format.getExtension());
+    }
+
+    /**
+     * Exports the parts in [from, to), splitting until each task has one part
+     */
+    private final class ExportTask extends RecursiveTask<Long> {
+
+        private final Path dir;
+        private final SnapshotFormat format;
+        private final Checkpoint checkpoint;
+        private final List<Long> starts;
+        private final int from;
+        private final int to;
+
+        ExportTask(Path dir, SnapshotFormat format, Checkpoint checkpoint, List<Long> starts, int from, int to) {
+            this.dir = dir;
+            this.format = format;
+            this.checkpoint = checkpoint;
+            this.starts = starts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ExportTask left = new ExportTask(dir, format, checkpoint, starts, from, middle);
+                left.fork();
+                long right = new ExportTask(dir, format, checkpoint, starts, middle, to).compute();
+                return right + left.join();
+            }
+            if (checkpoint.done.containsKey(from)) {
+                return 0L;
+            }
+
+            long fromId = starts.get(from);
+            long toId = fromId + checkpoint.rangeSize - 1;
+            Path file = dir.resolve(partFile(from, format));
+            Path tmp = dir.resolve(file.getFileName() + ".tmp");
+            long[] rows = new long[1];
+            try {
+                try (SnapshotFormat.PartWriter writer = format.writer(Files.newOutputStream(tmp))) {
+                    snapshotJdbcRepository.forEachInIdRange(fromId, toId, mapping -> {
+                        try {
+                            writer.write(mapping);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    });
+                }
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                checkpoint.record(from, rows[0]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + file, e);
+            }
+            return rows[0];
+        }
+    }
+
+    /**
+     * The export plan and the parts finished so far. The first line is
+     * "format min-id max-id range-size" and every later line is "part rows".
+     * The plan is kept across restarts so resumed parts cover the same ids.
+     */
+    private static final class Checkpoint {
+
+        final long minId;
+        final long maxId;
+        final long rangeSize;
+        final Map<Integer, Long> done = new ConcurrentHashMap<>();
+        private final BufferedWriter out;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Checkpoint(long minId, long maxId, long rangeSize, BufferedWriter out) {
+            this.minId = minId;
+            this.maxId = maxId;
+            this.rangeSize = rangeSize;
+            this.out = out;
+        }
+
+        static Checkpoint open(Path file, SnapshotFormat format, long rangeSize,
+                SnapshotJdbcRepository snapshotJdbcRepository) throws IOException {
+            if (Files.exists(file)) {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                String[] plan = lines.get(0).split(" ");
+                if (!plan[0].equals(format.name())) {
+                    throw new IllegalStateException("An interrupted " + plan[0] + " export is in " + file.getParent()
+                            + "; resume it in that format or use another directory");
+                }
+                Checkpoint checkpoint = new Checkpoint(Long.parseLong(plan[1]), Long.parseLong(plan[2]),
+                        Long.parseLong(plan[3]), append(file));
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] fields = line.split(" ");
+                    // A line cut short by a crash names a part that is simply written again
+                    if (fields.length == 2) {
+                        checkpoint.done.put(Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+                    }
+                }
+                return checkpoint;
+            }
+
+            long[] range = snapshotJdbcRepository.findIdRange();
+            Checkpoint checkpoint = range != null
+                    ? new Checkpoint(range[0], range[1], rangeSize, append(file))
+                    : new Checkpoint(1, 0, rangeSize, append(file));
+            checkpoint.write(format.name() + " " + checkpoint.minId + " " + checkpoint.maxId + " " + rangeSize);
+            return checkpoint;
+        }
+
+        List<Long> partStarts() {
+            int parts = minId > maxId ? 0 : (int) ((maxId - minId) / rangeSize + 1);
+            return LongStream.range(0, parts).map(part -> minId + part * rangeSize).boxed().toList();
+        }
+
+        void record(int part, long rows) throws IOException {
+            write(part + " " + rows);
+            done.put(part, rows);
+        }
+
+        void close() throws IOException {
+            out.close();
+        }
+
+        private void write(String line) throws IOException {
+            lock.lock();
+            try {
+                out.write(line);
+                out.newLine();
+                out.flush();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static BufferedWriter append(Path file) throws IOException {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
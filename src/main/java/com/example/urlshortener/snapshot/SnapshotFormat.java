@@ -0,0 +1,75 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * File format of snapshot parts. CSV is readable and editable by other
+ * tools; binary is about a third smaller and faster to write and parse.
+ */
+public enum SnapshotFormat {
+
+    CSV("csv") {
+        @Override
+        PartWriter writer(OutputStream out) throws IOException {
+            return new CsvSnapshotCodec.Writer(out);
+        }
+
+        @Override
+        PartReader reader(InputStream in) throws IOException {
+            return new CsvSnapshotCodec.Reader(in);
+        }
+    },
+
+    BINARY("bin") {
+        @Override
+        PartWriter writer(OutputStream out) throws IOException {
+            return new BinarySnapshotCodec.Writer(out);
+        }
+
+        @Override
+        PartReader reader(InputStream in) throws IOException {
+            return new BinarySnapshotCodec.Reader(in);
+        }
+    };
+
+    private final String extension;
+
+    SnapshotFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return The file extension of part files, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract PartWriter writer(OutputStream out) throws IOException;
+
+    abstract PartReader reader(InputStream in) throws IOException;
+
+    /**
+     * Writes the mappings of one part
+     */
+    interface PartWriter extends Closeable {
+
+        void write(SnapshotMapping mapping) throws IOException;
+    }
+
+    /**
+     * Reads the mappings of one part
+     */
+    interface PartReader extends Closeable {
+
+        /**
+         * @return The next mapping, or null at the end of the part
+         */
+        SnapshotMapping read() throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+import com.example.urlshortener.repository.SnapshotJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads a snapshot written by {@link SnapshotExporter} into url_mappings. Part
+ * files are imported in parallel on a fork-join pool, in batches that commit
+ * together with the part's progress in snapshot_import_checkpoints. An
+ * interrupted import of the same snapshot continues after the last committed
+ * batch of each part.
+ * <p>
+ * Short URLs and creation times are kept; new ids are taken from the id
+ * sequence. Short URLs that already exist are skipped, not overwritten.
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotImporter.class);
+
+    private final SnapshotJdbcRepository snapshotJdbcRepository;
+
+    @Autowired
+    public SnapshotImporter(SnapshotJdbcRepository snapshotJdbcRepository) {
+        this.snapshotJdbcRepository = snapshotJdbcRepository;
+    }
+
+    /**
+     * Imports a complete snapshot, resuming an interrupted import of it
+     *
+     * @param dir The snapshot directory
+     * @param batchSize Rows per insert batch and checkpoint
+     * @param parallelism Parts imported at once
+     * @return Rows read by this run, and how many of them were inserted
+     * @throws IllegalStateException if the directory has no manifest
+     */
+    public long[] importSnapshot(Path dir, int batchSize, int parallelism) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(dir.resolve(SnapshotExporter.MANIFEST))) {
+            manifest.load(in);
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException(dir + " holds no complete snapshot: " + SnapshotExporter.MANIFEST
+                    + " is missing");
+        }
+        String snapshotId = manifest.getProperty("snapshot-id");
+        SnapshotFormat format = SnapshotFormat.valueOf(manifest.getProperty("format"));
+        int parts = Integer.parseInt(manifest.getProperty("parts"));
+
+        Map<String, Long> checkpoints = snapshotJdbcRepository.findCheckpoints(snapshotId);
+        if (!checkpoints.isEmpty()) {
+            log.info("Resuming import of snapshot {}: {} of {} parts started, {} finished", snapshotId,
+                    checkpoints.size(), parts, checkpoints.values().stream().filter(rows -> rows < 0).count());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ImportTask(dir, format, snapshotId, checkpoints, batchSize, 0, parts));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Imports the parts in [from, to), splitting until each task has one part
+     */
+    private final class ImportTask extends RecursiveTask<long[]> {
+
+        private final Path dir;
+        private final SnapshotFormat format;
+        private final String snapshotId;
+        private final Map<String, Long> checkpoints;
+        private final int batchSize;
+        private final int from;
+        private final int to;
+
+        ImportTask(Path dir, SnapshotFormat format, String snapshotId, Map<String, Long> checkpoints,
+                int batchSize, int from, int to) {
+            this.dir = dir;
+            this.format = format;
+            this.snapshotId = snapshotId;
+            this.checkpoints = checkpoints;
+            this.batchSize = batchSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ImportTask left = new ImportTask(dir, format, snapshotId, checkpoints, batchSize, from, middle);
+                left.fork();
+                long[] right = new ImportTask(dir, format, snapshotId, checkpoints, batchSize, middle, to).compute();
+                long[] joined = left.join();
+                return new long[] { joined[0] + right[0], joined[1] + right[1] };
+            }
+            if (from == to) {
+                return new long[2];
+            }
+
+            String part = SnapshotExporter.partFile(from, format);
+            long rowsDone = checkpoints.getOrDefault(part, 0L);
+            if (rowsDone < 0) {
+                return new long[2];
+            }
+
+            try (SnapshotFormat.PartReader reader = format.reader(Files.newInputStream(dir.resolve(part)))) {
+                for (long skipped = 0; skipped < rowsDone; skipped++) {
+                    if (reader.read() == null) {
+                        throw new IllegalStateException(part + " is shorter than its import checkpoint");
+                    }
+                }
+
+                long read = 0;
+                long inserted = 0;
+                List<SnapshotMapping> batch = new ArrayList<>(batchSize);
+                SnapshotMapping next = reader.read();
+                do {
+                    if (next != null) {
+                        batch.add(next);
+                        next = reader.read();
+                    }
+                    // The last batch also marks the part finished, even when it is empty
+                    if (batch.size() == batchSize || next == null) {
+                        read += batch.size();
+                        inserted += snapshotJdbcRepository.importBatch(batch, snapshotId + "/" + part,
+                                rowsDone + read, next == null);
+                        batch.clear();
+                    }
+                } while (next != null);
+                return new long[] { read, inserted };
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + part, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.urlshortener.stats;
+
+import com.example.urlshortener.store.UrlMappingStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory mapping counts and traffic rates for GET /stats.
+ * Counts are seeded from the database at startup and then adjusted by the
+ * write paths, so reading them never queries the database. A periodic
+ * reconciliation recounts the table to correct any drift, for example from
+ * writes made by other nodes.
+ */
+@Component
+public class MappingStats {
+    
+    private static final Logger log = LoggerFactory.getLogger(MappingStats.class);
+    
+    private static final Duration RATE_TICK = Duration.ofSeconds(5);
+    
+    private final UrlMappingStore urlMappingStore;
+    private final TaskScheduler taskScheduler;
+    private final Duration reconcileInterval;
+    
+    private final AtomicLong totalMappings = new AtomicLong();
+    private final AtomicLong enabledMappings = new AtomicLong();
+    private final RateMeter insertRate = new RateMeter(RATE_TICK);
+    private final RateMeter redirectRate = new RateMeter(RATE_TICK);
+    
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+    
+    @Autowired
+    public MappingStats(
+            UrlMappingStore urlMappingStore,
+            TaskScheduler taskScheduler,
+            @Value("${url-shortener.stats.reconcile-interval:5m}") Duration reconcileInterval) {
+        this.urlMappingStore = urlMappingStore;
+        this.taskScheduler = taskScheduler;
+        this.reconcileInterval = reconcileInterval;
+    }
+    
+    @PostConstruct
+    void start() {
+        reconcile();
+        tasks.add(taskScheduler.scheduleWithFixedDelay(this::reconcile, reconcileInterval));
+        tasks.add(taskScheduler.scheduleAtFixedRate(this::tick, RATE_TICK));
+    }
+    
+    @PreDestroy
+    void stop() {
+        tasks.forEach(task -> task.cancel(false));
+    }
+    
+    /**
+     * Resets the counts from the store
+     */
+    public void reconcile() {
+        long total = urlMappingStore.count();
+        long enabled = urlMappingStore.countEnabled();
+        
+        long previousTotal = totalMappings.getAndSet(total);
+        long previousEnabled = enabledMappings.getAndSet(enabled);
+        if (previousTotal != total || previousEnabled != enabled) {
+            log.debug("Reconciled mapping counts: total {} -> {}, enabled {} -> {}",
+                    previousTotal, total, previousEnabled, enabled);
+        }
+    }
+    
+    /**
+     * Records newly inserted mappings, all enabled
+     * 
+     * @param count Number of mappings inserted
+     */
+    public void recordInserted(int count) {
+        totalMappings.addAndGet(count);
+        enabledMappings.addAndGet(count);
+        insertRate.mark(count);
+    }
+    
+    /**
+     * Records a mapping switching between enabled and disabled
+     * 
+     * @param isEnabled The new enabled status
+     */
+    public void recordEnabledChanged(boolean isEnabled) {
+        enabledMappings.addAndGet(isEnabled ? 1 : -1);
+    }
+    
+    /**
+     * Records mappings deleted, for example by the expiry sweeper
+     * 
+     * @param count Number of mappings deleted
+     * @param enabledCount How many of them were enabled
+     */
+    public void recordDeleted(int count, int enabledCount) {
+        totalMappings.addAndGet(-count);
+        enabledMappings.addAndGet(-enabledCount);
+    }
+    
+    /**
+     * Records a redirect served
+     */
+    public void recordRedirect() {
+        redirectRate.mark(1);
+    }
+    
+    public long getTotalMappings() {
+        return totalMappings.get();
+    }
+    
+    public long getEnabledMappings() {
+        return enabledMappings.get();
+    }
+    
+    public long getDisabledMappings() {
+        return totalMappings.get() - enabledMappings.get();
+    }
+    
+    /**
+     * Inserts per second, averaged over the last minute
+     */
+    public double getInsertRate() {
+        return insertRate.getRatePerSecond();
+    }
+    
+    /**
+     * Redirects per second, averaged over the last minute
+     */
+    public double getRedirectRate() {
+        return redirectRate.getRatePerSecond();
+    }
+    
+    private void tick() {
+        insertRate.tick();
+        redirectRate.tick();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.urlshortener.stats;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exponentially weighted moving average of an event rate over one minute.
+ * Marking an event only bumps a striped counter; the average is updated by
+ * {@link #tick()}, which must be called once per tick interval.
+ */
+public class RateMeter {
+    
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    
+    private final LongAdder uncounted = new LongAdder();
+    private final double tickSeconds;
+    private final double alpha;
+    
+    // Written only by the ticking thread
+    private volatile double ratePerSecond;
+    private volatile boolean initialized;
+    
+    public RateMeter(Duration tickInterval) {
+        this.tickSeconds = tickInterval.toMillis() / 1000.0;
+        this.alpha = 1 - Math.exp(-(double) tickInterval.toMillis() / WINDOW.toMillis());
+    }
+    
+    /**
+     * Records events
+     * 
+     * @param count Number of events
+     */
+    public void mark(long count) {
+        uncounted.add(count);
+    }
+    
+    /**
+     * Folds the events recorded since the previous tick into the average
+     */
+    public void tick() {
+        double instantRate = uncounted.sumThenReset() / tickSeconds;
+        if (initialized) {
+            ratePerSecond += alpha * (instantRate - ratePerSecond);
+        } else {
+            ratePerSecond = instantRate;
+            initialized = true;
+        }
+    }
+    
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+}
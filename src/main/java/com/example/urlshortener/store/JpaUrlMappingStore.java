@@ -0,0 +1,181 @@
+package com.example.urlshortener.store;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.migration.LongUrlHashBackfill;
+import com.example.urlshortener.repository.UrlMappingJdbcRepository;
+import com.example.urlshortener.repository.UrlMappingRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Default store: url_mappings on H2 through JPA, with plain JDBC for streaming reads
+ */
+@Component
+@Profile("!kv-store")
+@Timed(value = "url.shortener.store", histogram = true)
+public class JpaUrlMappingStore implements UrlMappingStore {
+    
+    private final UrlMappingRepository urlMappingRepository;
+    private final UrlMappingJdbcRepository urlMappingJdbcRepository;
+    private final LongUrlHashBackfill longUrlHashBackfill;
+    
+    @Autowired
+    public JpaUrlMappingStore(
+            UrlMappingRepository urlMappingRepository,
+            UrlMappingJdbcRepository urlMappingJdbcRepository,
+            LongUrlHashBackfill longUrlHashBackfill) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.urlMappingJdbcRepository = urlMappingJdbcRepository;
+        this.longUrlHashBackfill = longUrlHashBackfill;
+    }
+    
+    @Override
+    public Optional<UrlMappingEntity> findByShortUrl(String shortUrl) {
+        return urlMappingRepository.findByShortUrl(shortUrl);
+    }
+    
+    /**
+     * Declared here so redirect lookups are timed with the other store methods
+     */
+    @Override
+    public Optional<CachedRedirect> findRedirect(String shortUrl) {
+        return UrlMappingStore.super.findRedirect(shortUrl);
+    }
+    
+    @Override
+    public boolean existsByShortUrl(String shortUrl) {
+        return urlMappingRepository.existsByShortUrl(shortUrl);
+    }
+    
+    /**
+     * Looks the long URL up through the indexed hash column, confirming
+     * candidates by equality. Falls back to a scan of long_url while older
+     * rows are still being backfilled.
+     */
+    @Override
+    public Optional<UrlMappingEntity> findByLongUrl(String longUrl) {
+        for (UrlMappingEntity candidate : urlMappingRepository.findByLongUrlHash(LongUrlHash.of(longUrl))) {
+            if (candidate.getLongUrl().equals(longUrl) && candidate.getExpiresAt() == null) {
+                return Optional.of(candidate);
+            }
+        }
+        
+        if (!longUrlHashBackfill.isComplete()) {
+            return urlMappingRepository.findByLongUrl(longUrl).filter(mapping -> mapping.getExpiresAt() == null);
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public Map<String, String> findShortUrlsByLongUrls(Set<String> longUrls) {
+        Map<String, String> shortUrls = new HashMap<>();
+        if (longUrls.isEmpty()) {
+            return shortUrls;
+        }
+        
+        List<Long> hashes = longUrls.stream().map(LongUrlHash::of).collect(Collectors.toList());
+        for (UrlMappingEntity candidate : urlMappingRepository.findByLongUrlHashIn(hashes)) {
+            if (longUrls.contains(candidate.getLongUrl()) && candidate.getExpiresAt() == null) {
+                shortUrls.putIfAbsent(candidate.getLongUrl(), candidate.getShortUrl());
+            }
+        }
+        
+        if (!longUrlHashBackfill.isComplete() && shortUrls.size() < longUrls.size()) {
+            for (UrlMappingEntity mapping : urlMappingRepository.findByLongUrlIn(longUrls)) {
+                if (mapping.getExpiresAt() == null) {
+                    shortUrls.putIfAbsent(mapping.getLongUrl(), mapping.getShortUrl());
+                }
+            }
+        }
+        return shortUrls;
+    }
+    
+    @Override
+    public UrlMappingEntity save(UrlMappingEntity mapping) {
+        return urlMappingRepository.save(mapping);
+    }
+    
+    @Override
+    public List<UrlMappingEntity> saveAll(List<UrlMappingEntity> mappings) {
+        return urlMappingRepository.saveAll(mappings);
+    }
+    
+    @Override
+    public List<UrlMappingEntity> findPage(long afterId, Boolean enabled, int limit) {
+        return enabled == null
+                ? urlMappingRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                : urlMappingRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(afterId, enabled, Limit.of(limit));
+    }
+    
+    @Override
+    public List<UrlMappingEntity> findChanges(LocalDateTime afterUpdatedAt, long afterId, LocalDateTime until, int limit) {
+        return urlMappingJdbcRepository.findChanges(afterUpdatedAt, afterId, until, limit);
+    }
+
+    @Override
+    public LocalDateTime findLatestUpdatedAt() {
+        return urlMappingJdbcRepository.findLatestUpdatedAt();
+    }
+
+    @Override
+    public void forEachUpdatedSince(LocalDateTime since, Consumer<UrlMappingEntity> consumer) {
+        urlMappingJdbcRepository.forEachUpdatedSince(since, consumer);
+    }
+
+    @Override
+    public int updateAll(List<MappingUpdate> updates) {
+        return urlMappingJdbcRepository.updateAll(updates, LocalDateTime.now());
+    }
+    
+    @Override
+    public List<UrlMappingEntity> findExpired(LocalDateTime from, LocalDateTime until, boolean enabledOnly, int limit) {
+        return urlMappingJdbcRepository.findExpired(from, until, enabledOnly, limit);
+    }
+    
+    @Override
+    public int deleteAll(List<UrlMappingEntity> mappings) {
+        return urlMappingJdbcRepository.deleteByIds(mappings.stream().map(UrlMappingEntity::getId).toList());
+    }
+    
+    @Override
+    public int disableAll(List<UrlMappingEntity> mappings) {
+        return urlMappingJdbcRepository.disableByIds(
+                mappings.stream().map(UrlMappingEntity::getId).toList(), LocalDateTime.now());
+    }
+    
+    @Override
+    public void forEachMapping(Boolean enabled, Consumer<UrlMapping> consumer) {
+        urlMappingJdbcRepository.forEachMapping(enabled, consumer);
+    }
+    
+    @Override
+    public void forEachShortUrl(Consumer<String> consumer) {
+        urlMappingJdbcRepository.forEachShortUrl(consumer);
+    }
+    
+    @Override
+    public long count() {
+        return urlMappingRepository.count();
+    }
+    
+    @Override
+    public long countEnabled() {
+        return urlMappingRepository.countByIsEnabledTrue();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.urlshortener.store;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.entity.UrlMappingEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Persistence for URL mappings underneath the service layer.
+ * The default implementation is the JPA repository on H2; the kv-store
+ * profile switches to an embedded memory-mapped log.
+ */
+public interface UrlMappingStore {
+    
+    /**
+     * Finds the mapping for a short URL
+     * 
+     * @param shortUrl The short URL
+     * @return The mapping, if any
+     */
+    Optional<UrlMappingEntity> findByShortUrl(String shortUrl);
+    
+    /**
+     * Resolves a short URL for a redirect, reading only what the redirect needs
+     * 
+     * @param shortUrl The short URL
+     * @return The long URL, enabled flag and expiry, if the short URL exists
+     */
+    default Optional<CachedRedirect> findRedirect(String shortUrl) {
+        return findByShortUrl(shortUrl).map(mapping ->
+                new CachedRedirect(mapping.getLongUrl(), mapping.isEnabled(), mapping.getExpiresAt()));
+    }
+    
+    /**
+     * Checks if a short URL exists
+     * 
+     * @param shortUrl The short URL
+     * @return true if it exists
+     */
+    boolean existsByShortUrl(String shortUrl);
+    
+    /**
+     * Finds the mapping for a long URL. Links with an expiry are never returned,
+     * so a permanent link is not deduplicated onto one that will expire.
+     * 
+     * @param longUrl The long URL, exactly as stored
+     * @return The mapping without an expiry, if any
+     */
+    Optional<UrlMappingEntity> findByLongUrl(String longUrl);
+    
+    /**
+     * Set-based variant of {@link #findByLongUrl(String)}
+     * 
+     * @param longUrls The long URLs, exactly as stored
+     * @return Short URLs keyed by the long URLs that already have a mapping without an expiry, in a map the caller may modify
+     */
+    Map<String, String> findShortUrlsByLongUrls(Set<String> longUrls);
+    
+    /**
+     * Inserts a new mapping or updates an existing one
+     * 
+     * @param mapping The mapping; new if it has no id
+     * @return The saved mapping
+     */
+    UrlMappingEntity save(UrlMappingEntity mapping);
+    
+    /**
+     * Inserts or updates several mappings in one round-trip
+     * 
+     * @param mappings The mappings
+     * @return The saved mappings
+     */
+    List<UrlMappingEntity> saveAll(List<UrlMappingEntity> mappings);
+    
+    /**
+     * Finds the mappings following an id, in id order
+     * 
+     * @param afterId Only mappings with a greater id are returned
+     * @param enabled Only mappings with this enabled flag, or all if null
+     * @param limit Maximum number of mappings
+     * @return The mappings
+     */
+    List<UrlMappingEntity> findPage(long afterId, Boolean enabled, int limit);
+    
+    /**
+     * Finds the mappings changed after a position in the change feed, ordered by updated_at and then id
+     * 
+     * @param afterUpdatedAt updated_at of the last change already seen
+     * @param afterId Id of the last change already seen
+     * @param until Only changes made up to this time are returned
+     * @param limit Maximum number of mappings
+     * @return The changed mappings, each in its latest state
+     */
+    List<UrlMappingEntity> findChanges(LocalDateTime afterUpdatedAt, long afterId, LocalDateTime until, int limit);
+
+    /**
+     * Finds the most recent update time of any mapping
+     *
+     * @return The latest updated_at, or null if there are no mappings
+     */
+    LocalDateTime findLatestUpdatedAt();
+
+    /**
+     * Streams the mappings updated after a point in time, oldest first
+     *
+     * @param since Only mappings with a later updated_at are returned
+     * @param consumer Receives each mapping with its short URL, long URL, enabled flag, updated_at and expires_at
+     */
+    void forEachUpdatedSince(LocalDateTime since, Consumer<UrlMappingEntity> consumer);
+
+    /**
+     * Applies changes to existing mappings addressed by short URL, as one batch where the
+     * store supports it. Unknown short URLs are skipped.
+     * 
+     * @param updates The changes, at most one per short URL
+     * @return The number of mappings updated
+     */
+    int updateAll(List<MappingUpdate> updates);
+    
+    /**
+     * Finds mappings whose expiry lies in a range, ordered by expiry
+     * 
+     * @param from Only mappings expiring at or after this time are returned
+     * @param until Only mappings expiring at or before this time are returned
+     * @param enabledOnly Skip mappings that are already disabled
+     * @param limit Maximum number of mappings
+     * @return The mappings
+     */
+    List<UrlMappingEntity> findExpired(LocalDateTime from, LocalDateTime until, boolean enabledOnly, int limit);
+    
+    /**
+     * Whether {@link #deleteAll(List)} is supported
+     */
+    default boolean supportsDelete() {
+        return true;
+    }
+    
+    /**
+     * Deletes mappings
+     * 
+     * @param mappings The mappings; only their ids are used
+     * @return The number of mappings deleted
+     * @throws UnsupportedOperationException if the store cannot delete
+     */
+    int deleteAll(List<UrlMappingEntity> mappings);
+    
+    /**
+     * Disables mappings that are still enabled, recording the change for the feed
+     * 
+     * @param mappings The mappings; only their ids are used
+     * @return The number of mappings that were enabled
+     */
+    int disableAll(List<UrlMappingEntity> mappings);
+    
+    /**
+     * Streams mappings in id order without materializing them all
+     * 
+     * @param enabled Only mappings with this enabled flag, or all if null
+     * @param consumer Receives each mapping
+     */
+    void forEachMapping(Boolean enabled, Consumer<UrlMapping> consumer);
+    
+    /**
+     * Streams every short URL
+     * 
+     * @param consumer Receives each short URL
+     */
+    void forEachShortUrl(Consumer<String> consumer);
+    
+    /**
+     * Counts all mappings
+     * 
+     * @return The number of mappings
+     */
+    long count();
+    
+    /**
+     * Counts enabled mappings
+     * 
+     * @return The number of enabled mappings
+     */
+    long countEnabled();
+}
@@ -0,0 +1,850 @@
+package com.example.urlshortener.store.kv;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.entity.ChangeType;
+import com.example.urlshortener.entity.LongUrlHash;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import com.example.urlshortener.store.UrlMappingStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Embedded store for the kv-store profile: an append-only {@link MappingLog}
+ * with memory-mapped hash indexes on short URL and long URL hash, and a dense
+ * id index that marks which record of each mapping is current.
+ * <p>
+ * Redirect lookups probe the mapped code index and read the record in place.
+ * Writes are serialized by a lock and never block readers. On a clean shutdown
+ * the indexes are flushed and a checkpoint is written; without one, startup
+ * rebuilds the indexes from the log, which is the source of truth.
+ * Superseded records are reclaimed by copying live ones into a new generation
+ * of files in the background.
+ */
+@Component
+@Profile("kv-store")
+@Timed(value = "url.shortener.store", histogram = true)
+public class KvUrlMappingStore implements UrlMappingStore {
+
+    private static final Logger log = LoggerFactory.getLogger(KvUrlMappingStore.class);
+
+    private static final String CURRENT = "CURRENT";
+
+    private final Path dir;
+    private final boolean fsync;
+    private final int chunkSize;
+    private final int initialCapacity;
+    private final Duration compactionInterval;
+    private final double compactionGarbageRatio;
+    private final long compactionMinBytes;
+    private final TaskScheduler taskScheduler;
+
+    // Serializes appends, index updates and generation swaps
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Generation current;
+    private volatile long nextId = 1;
+    private ScheduledFuture<?> compactionTask;
+
+    @Autowired
+    public KvUrlMappingStore(
+            @Value("${url-shortener.kv-store.dir:./data/kv}") String dir,
+            @Value("${url-shortener.kv-store.fsync:false}") boolean fsync,
+            @Value("${url-shortener.kv-store.chunk-size:64MB}") DataSize chunkSize,
+            @Value("${url-shortener.kv-store.initial-capacity:1048576}") int initialCapacity,
+            @Value("${url-shortener.kv-store.compaction-interval:1m}") Duration compactionInterval,
+            @Value("${url-shortener.kv-store.compaction-garbage-ratio:0.5}") double compactionGarbageRatio,
+            @Value("${url-shortener.kv-store.compaction-min-bytes:16MB}") DataSize compactionMinBytes,
+            TaskScheduler taskScheduler) {
+        this.dir = Paths.get(dir);
+        this.fsync = fsync;
+        this.chunkSize = Math.toIntExact(chunkSize.toBytes());
+        this.initialCapacity = initialCapacity;
+        this.compactionInterval = compactionInterval;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        this.compactionMinBytes = compactionMinBytes.toBytes();
+        this.taskScheduler = taskScheduler;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        open();
+        compactionTask = taskScheduler.scheduleWithFixedDelay(this::compactIfNeeded, compactionInterval);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        compactionTask.cancel(false);
+        close();
+    }
+
+    /**
+     * Opens the current generation, recovering the log after a crash
+     */
+    void open() throws IOException {
+        Files.createDirectories(dir);
+        Path currentFile = dir.resolve(CURRENT);
+        long number = Files.exists(currentFile) ? Long.parseLong(Files.readString(currentFile).trim()) : 0;
+        deleteOtherGenerations(number);
+
+        Generation generation = new Generation(number, new MappingLog(logFile(number), chunkSize));
+        Path checkpointFile = checkpointFile(number);
+        long from = 0;
+        if (Files.exists(checkpointFile) && Files.exists(codesFile(number))
+                && Files.exists(longUrlsFile(number)) && Files.exists(idsFile(number))) {
+            Properties checkpoint = new Properties();
+            try (Reader reader = Files.newBufferedReader(checkpointFile)) {
+                checkpoint.load(reader);
+            }
+            from = Long.parseLong(checkpoint.getProperty("logEnd"));
+            nextId = Long.parseLong(checkpoint.getProperty("nextId"));
+            generation.total = Long.parseLong(checkpoint.getProperty("total"));
+            generation.enabled = Long.parseLong(checkpoint.getProperty("enabled"));
+            generation.garbage = Long.parseLong(checkpoint.getProperty("garbage"));
+            generation.codes = MappedHashIndex.open(codesFile(number));
+            generation.longUrls = MappedHashIndex.open(longUrlsFile(number));
+            generation.ids = new MappedIdIndex(idsFile(number), false);
+        } else {
+            log.info("No checkpoint in {}, rebuilding the indexes from the log", dir);
+            nextId = 1;
+            generation.createIndexes(initialCapacity);
+        }
+
+        long end = generation.log.scan(from, offset -> {
+            apply(generation, offset);
+            nextId = Math.max(nextId, generation.log.id(offset) + 1);
+        });
+        generation.log.resetEnd(end);
+        // The expiry index is not persisted; records before the checkpoint were not replayed into it
+        if (from > 0) {
+            for (long id = 1; id < nextId; id++) {
+                long offset = generation.ids.get(id);
+                if (offset >= 0 && generation.log.hasExpiry(offset)) {
+                    generation.expiries.add(new Expiry(generation.log.expiresAt(offset), id));
+                }
+            }
+        }
+
+        // From here on the indexes run ahead of the last checkpoint
+        Files.deleteIfExists(checkpointFile);
+        if (!Files.exists(currentFile)) {
+            writeCurrent(number);
+        }
+        syncDirectory();
+        current = generation;
+        log.info("Opened {} mappings from {} ({} bytes of log, {} superseded)",
+                generation.total, dir, end, generation.garbage);
+    }
+
+    /**
+     * Flushes the log and indexes and writes a checkpoint so the next start skips the rebuild
+     */
+    void close() throws IOException {
+        writeLock.lock();
+        try {
+            Generation generation = current;
+            if (generation == null) {
+                return;
+            }
+            generation.force();
+
+            Properties checkpoint = new Properties();
+            checkpoint.setProperty("logEnd", Long.toString(generation.log.end()));
+            checkpoint.setProperty("nextId", Long.toString(nextId));
+            checkpoint.setProperty("total", Long.toString(generation.total));
+            checkpoint.setProperty("enabled", Long.toString(generation.enabled));
+            checkpoint.setProperty("garbage", Long.toString(generation.garbage));
+            Path temp = dir.resolve("checkpoint.tmp");
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                checkpoint.store(writer, null);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, checkpointFile(generation.number), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+
+            generation.close();
+            current = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<UrlMappingEntity> findByShortUrl(String shortUrl) {
+        Generation generation = current;
+        long offset = generation.findCode(shortUrl);
+        return offset < 0 ? Optional.empty() : Optional.of(generation.log.read(offset));
+    }
+
+    /**
+     * Reads the long URL and flag straight from the mapped record, without building an entity
+     */
+    @Override
+    public Optional<CachedRedirect> findRedirect(String shortUrl) {
+        Generation generation = current;
+        long offset = generation.findCode(shortUrl);
+        if (offset < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new CachedRedirect(generation.log.longUrl(offset), generation.log.isEnabled(offset),
+                generation.log.expiresAt(offset)));
+    }
+
+    @Override
+    public boolean existsByShortUrl(String shortUrl) {
+        return current.findCode(shortUrl) >= 0;
+    }
+
+    @Override
+    public Optional<UrlMappingEntity> findByLongUrl(String longUrl) {
+        Generation generation = current;
+        long offset = generation.findLongUrl(longUrl);
+        return offset < 0 ? Optional.empty() : Optional.of(generation.log.read(offset));
+    }
+
+    @Override
+    public Map<String, String> findShortUrlsByLongUrls(Set<String> longUrls) {
+        Generation generation = current;
+        Map<String, String> shortUrls = new HashMap<>();
+        for (String longUrl : longUrls) {
+            long offset = generation.findLongUrl(longUrl);
+            if (offset >= 0) {
+                shortUrls.put(longUrl, generation.log.shortUrl(offset));
+            }
+        }
+        return shortUrls;
+    }
+
+    @Override
+    public UrlMappingEntity save(UrlMappingEntity mapping) {
+        writeLock.lock();
+        try {
+            append(current, mapping);
+            if (fsync) {
+                current.log.force();
+            }
+            return mapping;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the mapping log", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<UrlMappingEntity> saveAll(List<UrlMappingEntity> mappings) {
+        writeLock.lock();
+        try {
+            for (UrlMappingEntity mapping : mappings) {
+                append(current, mapping);
+            }
+            if (fsync) {
+                current.log.force();
+            }
+            return mappings;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the mapping log", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<UrlMappingEntity> findPage(long afterId, Boolean enabled, int limit) {
+        Generation generation = current;
+        List<UrlMappingEntity> page = new ArrayList<>(Math.min(limit, 1000));
+        long lastId = nextId;
+        // No id follows the newest one; also keeps afterId + 1 from overflowing
+        if (afterId >= lastId - 1) {
+            return page;
+        }
+        for (long id = afterId < 0 ? 1 : afterId + 1; id < lastId && page.size() < limit; id++) {
+            long offset = generation.ids.get(id);
+            if (offset >= 0 && (enabled == null || generation.log.isEnabled(offset) == enabled)) {
+                page.add(generation.log.read(offset));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Scans the id index, since the log is reordered by compaction. The cost is
+     * proportional to the number of mappings, not to the number of changes, but
+     * only the earliest {@code limit} changes are kept and read from the log.
+     */
+    @Override
+    public List<UrlMappingEntity> findChanges(LocalDateTime afterUpdatedAt, long afterId, LocalDateTime until, int limit) {
+        Generation generation = current;
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        // Max-heap of the earliest changes seen so far, so the latest is dropped first
+        PriorityQueue<Change> earliest = new PriorityQueue<>(Math.min(limit, 1000) + 1, Comparator.reverseOrder());
+        long lastId = nextId;
+        for (long id = 1; id < lastId; id++) {
+            long offset = generation.ids.get(id);
+            if (offset < 0) {
+                continue;
+            }
+            LocalDateTime updatedAt = generation.log.updatedAt(offset);
+            int position = updatedAt.compareTo(afterUpdatedAt);
+            if ((position > 0 || (position == 0 && id > afterId)) && !updatedAt.isAfter(until)) {
+                Change change = new Change(updatedAt, id, offset);
+                if (earliest.size() < limit) {
+                    earliest.add(change);
+                } else if (change.compareTo(earliest.peek()) < 0) {
+                    earliest.poll();
+                    earliest.add(change);
+                }
+            }
+        }
+
+        List<Change> kept = new ArrayList<>(earliest);
+        kept.sort(null);
+        List<UrlMappingEntity> changes = new ArrayList<>(kept.size());
+        for (Change change : kept) {
+            changes.add(generation.log.read(change.offset));
+        }
+        return changes;
+    }
+
+    @Override
+    public LocalDateTime findLatestUpdatedAt() {
+        Generation generation = current;
+        LocalDateTime latest = null;
+        long lastId = nextId;
+        for (long id = 1; id < lastId; id++) {
+            long offset = generation.ids.get(id);
+            if (offset >= 0) {
+                LocalDateTime updatedAt = generation.log.updatedAt(offset);
+                if (latest == null || updatedAt.isAfter(latest)) {
+                    latest = updatedAt;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Scans the id index like {@link #findChanges}, then hands out the matches in updated_at order
+     */
+    @Override
+    public void forEachUpdatedSince(LocalDateTime since, Consumer<UrlMappingEntity> consumer) {
+        Generation generation = current;
+        List<UrlMappingEntity> updated = new ArrayList<>();
+        long lastId = nextId;
+        for (long id = 1; id < lastId; id++) {
+            long offset = generation.ids.get(id);
+            if (offset >= 0 && generation.log.updatedAt(offset).isAfter(since)) {
+                updated.add(generation.log.read(offset));
+            }
+        }
+
+        updated.sort(Comparator.comparing(UrlMappingEntity::getUpdatedAt));
+        updated.forEach(consumer);
+    }
+
+    @Override
+    public int updateAll(List<MappingUpdate> updates) {
+        writeLock.lock();
+        try {
+            Generation generation = current;
+            int updated = 0;
+            for (MappingUpdate update : updates) {
+                long offset = generation.findCode(update.getShortUrl());
+                if (offset < 0) {
+                    continue;
+                }
+                UrlMappingEntity mapping = generation.log.read(offset);
+                if (update.getLongUrl() != null) {
+                    mapping.setLongUrl(update.getLongUrl());
+                }
+                if (update.getEnabled() != null) {
+                    mapping.setEnabled(update.getEnabled());
+                }
+                if (update.getLastChange() != null) {
+                    mapping.setLastChange(update.getLastChange());
+                }
+                append(generation, mapping);
+                updated++;
+            }
+            if (fsync) {
+                generation.log.force();
+            }
+            return updated;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the mapping log", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Walks the in-memory expiry index, which is already in expiry and id order
+     */
+    @Override
+    public List<UrlMappingEntity> findExpired(LocalDateTime from, LocalDateTime until, boolean enabledOnly, int limit) {
+        Generation generation = current;
+        List<UrlMappingEntity> expired = new ArrayList<>(Math.min(limit, 1000));
+        for (Expiry expiry : generation.expiries.subSet(new Expiry(from, 0), true, new Expiry(until, Long.MAX_VALUE), true)) {
+            long offset = generation.ids.get(expiry.id);
+            if (offset >= 0 && (!enabledOnly || generation.log.isEnabled(offset))) {
+                expired.add(generation.log.read(offset));
+                if (expired.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * The log has no tombstones, so expired links can only be disabled
+     */
+    @Override
+    public boolean supportsDelete() {
+        return false;
+    }
+
+    @Override
+    public int deleteAll(List<UrlMappingEntity> mappings) {
+        throw new UnsupportedOperationException("The kv store cannot delete mappings");
+    }
+
+    @Override
+    public int disableAll(List<UrlMappingEntity> mappings) {
+        writeLock.lock();
+        try {
+            Generation generation = current;
+            int disabled = 0;
+            for (UrlMappingEntity mapping : mappings) {
+                long offset = generation.ids.get(mapping.getId());
+                if (offset < 0 || !generation.log.isEnabled(offset)) {
+                    continue;
+                }
+                UrlMappingEntity latest = generation.log.read(offset);
+                latest.setEnabled(false);
+                latest.setLastChange(ChangeType.DISABLED);
+                append(generation, latest);
+                disabled++;
+            }
+            if (fsync) {
+                generation.log.force();
+            }
+            return disabled;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the mapping log", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void forEachMapping(Boolean enabled, Consumer<UrlMapping> consumer) {
+        Generation generation = current;
+        long lastId = nextId;
+        for (long id = 1; id < lastId; id++) {
+            long offset = generation.ids.get(id);
+            if (offset >= 0 && (enabled == null || generation.log.isEnabled(offset) == enabled)) {
+                consumer.accept(new UrlMapping(generation.log.shortUrl(offset), generation.log.longUrl(offset),
+                        generation.log.isEnabled(offset), generation.log.expiresAt(offset)));
+            }
+        }
+    }
+
+    @Override
+    public void forEachShortUrl(Consumer<String> consumer) {
+        Generation generation = current;
+        long lastId = nextId;
+        for (long id = 1; id < lastId; id++) {
+            long offset = generation.ids.get(id);
+            if (offset >= 0) {
+                consumer.accept(generation.log.shortUrl(offset));
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        return current.total;
+    }
+
+    @Override
+    public long countEnabled() {
+        return current.enabled;
+    }
+
+    /**
+     * Compacts the log if enough of it is superseded records. Errors are logged
+     * and the old generation stays in use.
+     */
+    void compactIfNeeded() {
+        Generation generation = current;
+        if (generation == null) {
+            return;
+        }
+        long garbage = generation.garbage;
+        if (garbage < compactionMinBytes || garbage < generation.log.end() * compactionGarbageRatio) {
+            return;
+        }
+
+        try {
+            compact();
+        } catch (IOException e) {
+            log.warn("Compaction of {} failed", dir, e);
+        }
+    }
+
+    /**
+     * Copies the live records into a new generation and switches to it.
+     * The bulk of the copy runs without the write lock; only records appended
+     * meanwhile are copied while holding it.
+     */
+    void compact() throws IOException {
+        Generation source = current;
+        long snapshotEnd;
+        long snapshotNextId;
+        writeLock.lock();
+        try {
+            snapshotEnd = source.log.end();
+            snapshotNextId = nextId;
+        } finally {
+            writeLock.unlock();
+        }
+
+        long number = source.number + 1;
+        deleteGeneration(number);
+        Generation target = new Generation(number, new MappingLog(logFile(number), chunkSize));
+        boolean switched = false;
+        try {
+            target.createIndexes(Math.max(initialCapacity, source.codes.capacity()));
+
+            // Records superseded after the snapshot are copied from the tail instead
+            for (long id = 1; id < snapshotNextId; id++) {
+                long offset = source.ids.get(id);
+                if (offset >= 0 && offset < snapshotEnd) {
+                    copy(source, offset, target);
+                }
+            }
+
+            writeLock.lock();
+            try {
+                source.log.scan(snapshotEnd, offset -> copy(source, offset, target));
+                target.force();
+                writeCurrent(number);
+                current = target;
+                switched = true;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            if (!switched) {
+                target.close();
+                deleteGeneration(number);
+            }
+        }
+
+        // Readers still holding the old generation keep their mappings after the files are gone
+        source.close();
+        deleteGeneration(source.number);
+        log.info("Compacted {}: {} bytes of log down to {}", dir, snapshotEnd, target.log.end());
+    }
+
+    private void append(Generation generation, UrlMappingEntity mapping) throws IOException {
+        // Truncated to what the log stores so callers see the persisted value
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (mapping.getId() == null) {
+            if (generation.findCode(mapping.getShortUrl()) >= 0) {
+                throw new DataIntegrityViolationException("Short URL already exists: " + mapping.getShortUrl());
+            }
+            mapping.setId(nextId++);
+            mapping.setCreatedAt(now);
+            if (mapping.getLastChange() == null) {
+                mapping.setLastChange(ChangeType.CREATED);
+            }
+        } else if (mapping.getCreatedAt() == null) {
+            mapping.setCreatedAt(now);
+        }
+        mapping.setUpdatedAt(now);
+        mapping.setLongUrlHash(LongUrlHash.of(mapping.getLongUrl()));
+
+        long offset = generation.log.append(mapping.getId(), mapping.getShortUrl(), mapping.getLongUrl(),
+                mapping.isEnabled(), mapping.getLastChange(), mapping.getCreatedAt(), mapping.getUpdatedAt(),
+                mapping.getExpiresAt());
+        apply(generation, offset);
+    }
+
+    private void copy(Generation source, long offset, Generation target) throws IOException {
+        UrlMappingEntity mapping = source.log.read(offset);
+        long copied = target.log.append(mapping.getId(), mapping.getShortUrl(), mapping.getLongUrl(),
+                mapping.isEnabled(), mapping.getLastChange(), mapping.getCreatedAt(), mapping.getUpdatedAt(),
+                mapping.getExpiresAt());
+        apply(target, copied);
+    }
+
+    /**
+     * Points the indexes at a record and updates the counts
+     */
+    private void apply(Generation generation, long offset) throws IOException {
+        MappingLog mappingLog = generation.log;
+        long id = mappingLog.id(offset);
+        String shortUrl = mappingLog.shortUrl(offset);
+
+        long previous = generation.ids.get(id);
+        if (previous >= 0) {
+            if (mappingLog.hasExpiry(previous)) {
+                generation.expiries.remove(new Expiry(mappingLog.expiresAt(previous), id));
+            }
+            generation.garbage += mappingLog.size(previous);
+            if (mappingLog.isEnabled(previous)) {
+                generation.enabled--;
+            }
+        } else {
+            generation.total++;
+        }
+        if (mappingLog.isEnabled(offset)) {
+            generation.enabled++;
+        }
+
+        generation.codes.put(LongUrlHash.of(shortUrl), offset, candidate -> mappingLog.shortUrlEquals(candidate, shortUrl));
+        // Entries for earlier long URLs of the mapping are left behind and fail the liveness check.
+        // Expiring links are never deduplicated onto, so they stay out of this index.
+        if (!mappingLog.hasExpiry(offset)) {
+            generation.longUrls.put(LongUrlHash.of(mappingLog.longUrl(offset)), offset, candidate -> mappingLog.id(candidate) == id);
+        } else {
+            generation.expiries.add(new Expiry(mappingLog.expiresAt(offset), id));
+        }
+        generation.ids.set(id, offset);
+
+        generation.growIndexes();
+    }
+
+    private void writeCurrent(long number) throws IOException {
+        Path temp = dir.resolve(CURRENT + ".tmp");
+        Files.writeString(temp, Long.toString(number), StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, dir.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    private void syncDirectory() {
+        // Makes renames and deletions durable; not supported on every platform
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync directory {}", dir, e);
+        }
+    }
+
+    private void deleteOtherGenerations(long number) throws IOException {
+        String suffix = "-" + number + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean ours = name.equals(CURRENT) || name.contains(suffix) || name.equals("checkpoint-" + number);
+                if (!ours) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void deleteGeneration(long number) throws IOException {
+        for (Path file : List.of(logFile(number), codesFile(number), longUrlsFile(number), idsFile(number),
+                checkpointFile(number))) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path logFile(long number) {
+        return dir.resolve("mappings-" + number + ".log");
+    }
+
+    private Path codesFile(long number) {
+        return dir.resolve("codes-" + number + ".idx");
+    }
+
+    private Path longUrlsFile(long number) {
+        return dir.resolve("long-urls-" + number + ".idx");
+    }
+
+    private Path idsFile(long number) {
+        return dir.resolve("ids-" + number + ".idx");
+    }
+
+    private Path checkpointFile(long number) {
+        return dir.resolve("checkpoint-" + number);
+    }
+
+    /**
+     * One log with the indexes over it. Indexes are replaced when they grow,
+     * so readers load them once per lookup.
+     */
+    private final class Generation {
+
+        final long number;
+        final MappingLog log;
+        volatile MappedHashIndex codes;
+        volatile MappedHashIndex longUrls;
+        volatile MappedIdIndex ids;
+        // Mappings with an expiry, few enough to keep on the heap
+        final NavigableSet<Expiry> expiries = new ConcurrentSkipListSet<>();
+
+        // Written under the write lock
+        volatile long total;
+        volatile long enabled;
+        volatile long garbage;
+
+        Generation(long number, MappingLog log) {
+            this.number = number;
+            this.log = log;
+        }
+
+        void createIndexes(int capacity) throws IOException {
+            codes = MappedHashIndex.create(codesFile(number), capacity);
+            longUrls = MappedHashIndex.create(longUrlsFile(number), capacity);
+            ids = new MappedIdIndex(idsFile(number), true);
+        }
+
+        long findCode(String shortUrl) {
+            return codes.find(LongUrlHash.of(shortUrl), candidate -> log.shortUrlEquals(candidate, shortUrl));
+        }
+
+        long findLongUrl(String longUrl) {
+            byte[] bytes = longUrl.getBytes(StandardCharsets.UTF_8);
+            MappedIdIndex idIndex = ids;
+            return longUrls.find(LongUrlHash.of(longUrl),
+                    candidate -> idIndex.get(log.id(candidate)) == candidate && log.longUrlEquals(candidate, bytes));
+        }
+
+        void growIndexes() throws IOException {
+            if (codes.needsGrowth()) {
+                codes = grow(codes, codesFile(number));
+            }
+            if (longUrls.needsGrowth()) {
+                longUrls = grow(longUrls, longUrlsFile(number));
+            }
+        }
+
+        void force() {
+            log.force();
+            codes.force();
+            longUrls.force();
+            ids.force();
+        }
+
+        void close() throws IOException {
+            log.close();
+            if (codes != null) {
+                codes.close();
+                longUrls.close();
+                ids.close();
+            }
+        }
+
+        private MappedHashIndex grow(MappedHashIndex index, Path file) throws IOException {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            MappedHashIndex grown = index.grow(temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            index.close();
+            return grown;
+        }
+    }
+
+    /**
+     * Candidate for the change feed, ordered by updated_at and then id
+     */
+    private static final class Change implements Comparable<Change> {
+
+        final LocalDateTime updatedAt;
+        final long id;
+        final long offset;
+
+        Change(LocalDateTime updatedAt, long id, long offset) {
+            this.updatedAt = updatedAt;
+            this.id = id;
+            this.offset = offset;
+        }
+
+        @Override
+        public int compareTo(Change other) {
+            int byUpdate = updatedAt.compareTo(other.updatedAt);
+            return byUpdate != 0 ? byUpdate : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Entry of the expiry index, ordered by expiry and then id
+     */
+    private static final class Expiry implements Comparable<Expiry> {
+
+        final LocalDateTime expiresAt;
+        final long id;
+
+        Expiry(LocalDateTime expiresAt, long id) {
+            this.expiresAt = expiresAt;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            int byExpiry = expiresAt.compareTo(other.expiresAt);
+            return byExpiry != 0 ? byExpiry : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Expiry expiry && compareTo(expiry) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.urlshortener.store.kv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash table from 64-bit key hashes to log offsets, stored in a
+ * memory-mapped file. Slots are 16 bytes (key, value) and probed linearly; a
+ * zero key marks an empty slot. Several slots may share a key, so callers pass
+ * a predicate that confirms a candidate against the log.
+ * <p>
+ * A single writer may run concurrently with any number of readers: a slot's
+ * value is published before its key with release semantics, and readers load
+ * the key with acquire semantics.
+ */
+final class MappedHashIndex implements Closeable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SLOT_SIZE = 16;
+    // One mapping holds at most 2 GB
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer slots;
+    private final int capacity;
+    private final int mask;
+    private int size;
+
+    private MappedHashIndex(Path file, int capacity, boolean create) throws IOException {
+        if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be a power of two up to " + MAX_CAPACITY);
+        }
+        this.channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.slots = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Creates an empty index, replacing any existing file
+     *
+     * @param file The index file
+     * @param minCapacity Minimum number of slots; rounded up to a power of two
+     * @return The index
+     */
+    static MappedHashIndex create(Path file, int minCapacity) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(16, minCapacity - 1)) << 1;
+        return new MappedHashIndex(file, Math.min(capacity, MAX_CAPACITY), true);
+    }
+
+    /**
+     * Opens an index written by an earlier run
+     *
+     * @param file The index file
+     * @return The index
+     */
+    static MappedHashIndex open(Path file) throws IOException {
+        long bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            bytes = channel.size();
+        }
+        if (bytes % SLOT_SIZE != 0 || Long.bitCount(bytes / SLOT_SIZE) != 1) {
+            throw new IOException("Index file has an invalid size: " + file);
+        }
+
+        MappedHashIndex index = new MappedHashIndex(file, (int) (bytes / SLOT_SIZE), false);
+        for (int slot = 0; slot < index.capacity; slot++) {
+            if (index.key(slot) != 0) {
+                index.size++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Finds the first value stored under a key that the predicate accepts
+     *
+     * @param hash The key hash
+     * @param matches Confirms a candidate value
+     * @return The value, or -1 if there is none
+     */
+    long find(long hash, LongPredicate matches) {
+        long key = key(hash);
+        for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = key(slot);
+            if (current == 0) {
+                return -1;
+            }
+            if (current == key) {
+                long value = value(slot);
+                if (matches.test(value)) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the first value under a key that the predicate accepts, or adds a new slot
+     *
+     * @param hash The key hash
+     * @param value The value to store
+     * @param replaces Selects the existing value to overwrite
+     * @return The replaced value, or -1 if a new slot was used
+     */
+    long put(long hash, long value, LongPredicate replaces) {
+        if (size >= capacity - 1) {
+            throw new IllegalStateException("Index is full");
+        }
+
+        long key = key(hash);
+        for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+            long current = key(slot);
+            if (current == 0) {
+                LONGS.setRelease(slots, slot * SLOT_SIZE + 8, value);
+                LONGS.setRelease(slots, slot * SLOT_SIZE, key);
+                size++;
+                return -1;
+            }
+            if (current == key) {
+                long previous = value(slot);
+                if (replaces.test(previous)) {
+                    LONGS.setRelease(slots, slot * SLOT_SIZE + 8, value);
+                    return previous;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the table is full enough that probe sequences get long
+     */
+    boolean needsGrowth() {
+        return size > capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Copies every slot into a new index of twice the capacity
+     *
+     * @param file The file of the new index
+     * @return The new index
+     */
+    MappedHashIndex grow(Path file) throws IOException {
+        MappedHashIndex grown = create(file, capacity * 2);
+        for (int slot = 0; slot < capacity; slot++) {
+            long key = key(slot);
+            if (key != 0) {
+                grown.put(key, value(slot), value -> false);
+            }
+        }
+        return grown;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void force() {
+        slots.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long key(int slot) {
+        return (long) LONGS.getAcquire(slots, slot * SLOT_SIZE);
+    }
+
+    private long value(int slot) {
+        return (long) LONGS.getAcquire(slots, slot * SLOT_SIZE + 8);
+    }
+
+    private static long key(long hash) {
+        // Zero marks an empty slot
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
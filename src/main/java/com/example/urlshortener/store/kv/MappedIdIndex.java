@@ -0,0 +1,88 @@
+package com.example.urlshortener.store.kv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped array from mapping id to the log offset of its latest record.
+ * Ids are dense, so the array is addressed directly and grows in chunks.
+ * Values are stored as offset + 1 so that the zero-filled tail reads as absent.
+ */
+final class MappedIdIndex implements Closeable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int CHUNK_BITS = 20;
+    private static final int CHUNK_LENGTH = 1 << CHUNK_BITS;
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    MappedIdIndex(Path file, boolean create) throws IOException {
+        this.channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long length = channel.size() / 8;
+        if (length > 0) {
+            ensureMapped((length - 1) >>> CHUNK_BITS);
+        }
+    }
+
+    /**
+     * Looks up the offset of an id's latest record
+     *
+     * @param id The mapping id
+     * @return The offset, or -1 if the id was never written
+     */
+    long get(long id) {
+        MappedByteBuffer[] mapped = chunks;
+        long chunk = id >>> CHUNK_BITS;
+        if (chunk >= mapped.length) {
+            return -1;
+        }
+        return (long) LONGS.getAcquire(mapped[(int) chunk], (int) (id & (CHUNK_LENGTH - 1)) * 8) - 1;
+    }
+
+    /**
+     * Points an id at a record. Only one thread may write at a time.
+     *
+     * @param id The mapping id
+     * @param offset The log offset of the record
+     */
+    void set(long id, long offset) throws IOException {
+        ensureMapped(id >>> CHUNK_BITS);
+        LONGS.setRelease(chunks[(int) (id >>> CHUNK_BITS)], (int) (id & (CHUNK_LENGTH - 1)) * 8, offset + 1);
+    }
+
+    void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensureMapped(long chunk) throws IOException {
+        MappedByteBuffer[] mapped = chunks;
+        if (chunk < mapped.length) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, (int) chunk + 1);
+        for (int i = mapped.length; i <= chunk; i++) {
+            grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * CHUNK_LENGTH * 8, (long) CHUNK_LENGTH * 8);
+        }
+        chunks = grown;
+    }
+}
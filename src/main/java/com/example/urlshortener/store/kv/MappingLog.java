@@ -0,0 +1,374 @@
+package com.example.urlshortener.store.kv;
+
+import com.example.urlshortener.entity.ChangeType;
+import com.example.urlshortener.entity.UrlMappingEntity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of mapping records, memory-mapped in fixed-size chunks.
+ * Every record carries its length and a CRC32C of its payload, so recovery
+ * can find the last complete record after a crash. Records never span two
+ * chunks; the unused end of a chunk is marked with a padding length.
+ * Reads go straight to the mapped pages without a system call or heap buffer.
+ * <p>
+ * Record layout, 8-byte aligned:
+ * <pre>
+ * int length | int crc | byte type | byte flags | short code length | int url length
+ * long id | long created at | long updated at | [long expires at] | code bytes | url bytes
+ * </pre>
+ * Bit 0 of the flags is the enabled flag; bits 1 to 3 hold the change type ordinal plus one;
+ * bit 4 marks a record with an expiry, which is only then stored.
+ * Appends must be serialized by the caller; reads may run concurrently with them
+ * as long as they only visit offsets published after the append.
+ */
+final class MappingLog implements Closeable {
+
+    static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 32;
+    private static final int PADDING = -1;
+    private static final byte TYPE_MAPPING = 1;
+    private static final int ENABLED = 1;
+    private static final int HAS_EXPIRY = 1 << 4;
+    private static final int EXPIRY_SIZE = 8;
+    private static final ChangeType[] CHANGE_TYPES = ChangeType.values();
+    // Timestamps are stored as microseconds since this instant, the precision of an H2 TIMESTAMP
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final FileChannel channel;
+    private final int chunkSize;
+
+    private volatile MappedByteBuffer[] chunks;
+    private long end;
+    private long unforcedFrom;
+
+    MappingLog(Path file, int chunkSize) throws IOException {
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize % 8 != 0) {
+            throw new IllegalArgumentException("Chunk size must be a multiple of 8 and at least " + MIN_CHUNK_SIZE);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.chunkSize = chunkSize;
+
+        int count = (int) Math.max(1, (channel.size() + chunkSize - 1) / chunkSize);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            mapped[i] = map(i);
+        }
+        this.chunks = mapped;
+    }
+
+    /**
+     * Visits every valid record from a position and finds where the log ends.
+     * Scanning stops at the first empty, torn or corrupt record.
+     *
+     * @param from Position of the first record to visit
+     * @param visitor Receives the offset of each valid record
+     * @return The position after the last valid record
+     */
+    long scan(long from, RecordVisitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        long position = from;
+        MappedByteBuffer[] mapped = chunks;
+
+        while (chunkIndex(position) < mapped.length) {
+            MappedByteBuffer chunk = mapped[chunkIndex(position)];
+            int index = chunkOffset(position);
+            if (chunkSize - index < HEADER_SIZE) {
+                position = nextChunk(position);
+                continue;
+            }
+
+            int length = chunk.getInt(index);
+            if (length == PADDING) {
+                position = nextChunk(position);
+                continue;
+            }
+            if (length < FIXED_PAYLOAD_SIZE || index + HEADER_SIZE + length > chunkSize) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(chunk.slice(index + HEADER_SIZE, length));
+            if ((int) crc.getValue() != chunk.getInt(index + 4) || chunk.get(index + HEADER_SIZE) != TYPE_MAPPING) {
+                break;
+            }
+
+            visitor.visit(position);
+            position += align(HEADER_SIZE + length);
+        }
+        return position;
+    }
+
+    /**
+     * Sets the append position after recovery and clears anything behind it,
+     * so a torn record can never be mistaken for a valid one later
+     *
+     * @param position The recovered end of the log
+     */
+    void resetEnd(long position) {
+        MappedByteBuffer[] mapped = chunks;
+        for (int i = chunkIndex(position); i < mapped.length; i++) {
+            int from = i == chunkIndex(position) ? chunkOffset(position) : 0;
+
+            // Only read up to the last non-zero word, so clean pages are not dirtied
+            int to = chunkSize;
+            while (to > from && mapped[i].getLong(to - 8) == 0) {
+                to -= 8;
+            }
+            if (to > from) {
+                mapped[i].put(from, new byte[to - from]);
+            }
+        }
+        end = position;
+        unforcedFrom = position;
+    }
+
+    /**
+     * Appends a mapping record
+     *
+     * @return The offset of the record
+     */
+    long append(long id, String shortUrl, String longUrl, boolean enabled, ChangeType lastChange,
+            LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime expiresAt) throws IOException {
+        byte[] code = shortUrl.getBytes(StandardCharsets.UTF_8);
+        byte[] url = longUrl.getBytes(StandardCharsets.UTF_8);
+        int codeStart = FIXED_PAYLOAD_SIZE + (expiresAt != null ? EXPIRY_SIZE : 0);
+        int length = codeStart + code.length + url.length;
+        int size = align(HEADER_SIZE + length);
+        if (size > chunkSize || code.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Record too large for the log");
+        }
+
+        if (chunkOffset(end) + size > chunkSize) {
+            if (chunkSize - chunkOffset(end) >= 4) {
+                chunk(end).putInt(chunkOffset(end), PADDING);
+            }
+            end = nextChunk(end);
+        }
+        ensureMapped(chunkIndex(end));
+
+        long offset = end;
+        MappedByteBuffer chunk = chunk(offset);
+        int index = chunkOffset(offset);
+        int payload = index + HEADER_SIZE;
+        chunk.put(payload, TYPE_MAPPING);
+        int change = lastChange != null ? lastChange.ordinal() + 1 : 0;
+        chunk.put(payload + 1, (byte) (change << 1 | (enabled ? ENABLED : 0) | (expiresAt != null ? HAS_EXPIRY : 0)));
+        chunk.putShort(payload + 2, (short) code.length);
+        chunk.putInt(payload + 4, url.length);
+        chunk.putLong(payload + 8, id);
+        chunk.putLong(payload + 16, toMicros(createdAt));
+        chunk.putLong(payload + 24, toMicros(updatedAt));
+        if (expiresAt != null) {
+            chunk.putLong(payload + FIXED_PAYLOAD_SIZE, toMicros(expiresAt));
+        }
+        chunk.put(payload + codeStart, code);
+        chunk.put(payload + codeStart + code.length, url);
+
+        CRC32C crc = new CRC32C();
+        crc.update(chunk.slice(payload, length));
+        chunk.putInt(index + 4, (int) crc.getValue());
+        // The length goes last: until it is written the record reads as the end of the log
+        chunk.putInt(index, length);
+
+        end = offset + size;
+        return offset;
+    }
+
+    /**
+     * Flushes appended records to the storage device
+     */
+    void force() {
+        MappedByteBuffer[] mapped = chunks;
+        while (unforcedFrom < end) {
+            int index = chunkOffset(unforcedFrom);
+            long chunkEnd = nextChunk(unforcedFrom);
+            int length = (int) (Math.min(end, chunkEnd) - unforcedFrom);
+            mapped[chunkIndex(unforcedFrom)].force(index, length);
+            unforcedFrom = Math.min(end, chunkEnd);
+        }
+    }
+
+    long end() {
+        return end;
+    }
+
+    long id(long offset) {
+        return chunk(offset).getLong(chunkOffset(offset) + HEADER_SIZE + 8);
+    }
+
+    boolean isEnabled(long offset) {
+        return (chunk(offset).get(chunkOffset(offset) + HEADER_SIZE + 1) & ENABLED) != 0;
+    }
+
+    ChangeType lastChange(long offset) {
+        int change = (chunk(offset).get(chunkOffset(offset) + HEADER_SIZE + 1) >> 1) & 7;
+        return change > 0 ? CHANGE_TYPES[change - 1] : null;
+    }
+
+    LocalDateTime updatedAt(long offset) {
+        return fromMicros(chunk(offset).getLong(chunkOffset(offset) + HEADER_SIZE + 24));
+    }
+
+    boolean hasExpiry(long offset) {
+        return (chunk(offset).get(chunkOffset(offset) + HEADER_SIZE + 1) & HAS_EXPIRY) != 0;
+    }
+
+    /**
+     * @return When the mapping expires, or null if it does not
+     */
+    LocalDateTime expiresAt(long offset) {
+        if (!hasExpiry(offset)) {
+            return null;
+        }
+        return fromMicros(chunk(offset).getLong(chunkOffset(offset) + HEADER_SIZE + FIXED_PAYLOAD_SIZE));
+    }
+
+    /**
+     * Size of the record on disk, including header and alignment
+     */
+    int size(long offset) {
+        return align(HEADER_SIZE + chunk(offset).getInt(chunkOffset(offset)));
+    }
+
+    String shortUrl(long offset) {
+        MappedByteBuffer chunk = chunk(offset);
+        int payload = chunkOffset(offset) + HEADER_SIZE;
+        byte[] code = new byte[chunk.getShort(payload + 2)];
+        chunk.get(codeStart(chunk, payload), code);
+        return new String(code, StandardCharsets.UTF_8);
+    }
+
+    String longUrl(long offset) {
+        MappedByteBuffer chunk = chunk(offset);
+        int payload = chunkOffset(offset) + HEADER_SIZE;
+        byte[] url = new byte[chunk.getInt(payload + 4)];
+        chunk.get(codeStart(chunk, payload) + chunk.getShort(payload + 2), url);
+        return new String(url, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the record's short URL with a code in place, without decoding it
+     */
+    boolean shortUrlEquals(long offset, String shortUrl) {
+        MappedByteBuffer chunk = chunk(offset);
+        int payload = chunkOffset(offset) + HEADER_SIZE;
+        int length = chunk.getShort(payload + 2);
+        if (length != shortUrl.length()) {
+            return false;
+        }
+        int start = codeStart(chunk, payload);
+        for (int i = 0; i < length; i++) {
+            char c = shortUrl.charAt(i);
+            if (c >= 0x80 || chunk.get(start + i) != (byte) c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the record's long URL with encoded bytes in place, without decoding it
+     */
+    boolean longUrlEquals(long offset, byte[] longUrl) {
+        MappedByteBuffer chunk = chunk(offset);
+        int payload = chunkOffset(offset) + HEADER_SIZE;
+        if (chunk.getInt(payload + 4) != longUrl.length) {
+            return false;
+        }
+        int start = codeStart(chunk, payload) + chunk.getShort(payload + 2);
+        for (int i = 0; i < longUrl.length; i++) {
+            if (chunk.get(start + i) != longUrl[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    UrlMappingEntity read(long offset) {
+        MappedByteBuffer chunk = chunk(offset);
+        int payload = chunkOffset(offset) + HEADER_SIZE;
+
+        UrlMappingEntity mapping = new UrlMappingEntity(shortUrl(offset), longUrl(offset), isEnabled(offset));
+        mapping.setId(id(offset));
+        mapping.setCreatedAt(fromMicros(chunk.getLong(payload + 16)));
+        mapping.setUpdatedAt(fromMicros(chunk.getLong(payload + 24)));
+        mapping.setLastChange(lastChange(offset));
+        mapping.setExpiresAt(expiresAt(offset));
+        return mapping;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer chunk(long offset) {
+        return chunks[chunkIndex(offset)];
+    }
+
+    private static int codeStart(MappedByteBuffer chunk, int payload) {
+        return payload + FIXED_PAYLOAD_SIZE + ((chunk.get(payload + 1) & HAS_EXPIRY) != 0 ? EXPIRY_SIZE : 0);
+    }
+
+    private void ensureMapped(int index) throws IOException {
+        MappedByteBuffer[] mapped = chunks;
+        if (index < mapped.length) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, index + 1);
+        for (int i = mapped.length; i <= index; i++) {
+            grown[i] = map(i);
+        }
+        chunks = grown;
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        // Mapping past the end of the file extends it with zeros
+        return channel.map(FileChannel.MapMode.READ_WRITE, (long) index * chunkSize, chunkSize);
+    }
+
+    private int chunkIndex(long position) {
+        return (int) (position / chunkSize);
+    }
+
+    private int chunkOffset(long position) {
+        return (int) (position % chunkSize);
+    }
+
+    private long nextChunk(long position) {
+        return (position / chunkSize + 1) * chunkSize;
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Receives record offsets during a scan
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(long offset) throws IOException;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.urlshortener.tracking;
+
+/**
+ * Clicks on one short URL accumulated since the previous flush
+ */
+public final class ClickDelta {
+    
+    private final String shortUrl;
+    private final long clicks;
+    private final long lastAccessedAtMillis;
+    
+    public ClickDelta(String shortUrl, long clicks, long lastAccessedAtMillis) {
+        this.shortUrl = shortUrl;
+        this.clicks = clicks;
+        this.lastAccessedAtMillis = lastAccessedAtMillis;
+    }
+    
+    public String getShortUrl() {
+        return shortUrl;
+    }
+    
+    public long getClicks() {
+        return clicks;
+    }
+    
+    public long getLastAccessedAtMillis() {
+        return lastAccessedAtMillis;
+    }
+}
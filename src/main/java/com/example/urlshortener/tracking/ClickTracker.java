@@ -0,0 +1,205 @@
+package com.example.urlshortener.tracking;
+
+import com.example.urlshortener.dto.HotShortUrl;
+import com.example.urlshortener.repository.ClickStatsJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts redirects per short URL off the request path.
+ * Redirects only bump a striped counter; a background flusher periodically
+ * drains the counters and upserts the totals into click_stats in batches.
+ * The same counters keep a decayed recent-click score for the hottest codes.
+ */
+@Component
+public class ClickTracker {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClickTracker.class);
+    
+    private static final Duration SCORE_HALF_LIFE = Duration.ofMinutes(1);
+    
+    private final ClickStatsJdbcRepository clickStatsJdbcRepository;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPendingCodes;
+    private final Duration flushInterval;
+    private final double scoreDecay;
+    
+    private final ConcurrentHashMap<String, ClickCounter> counters = new ConcurrentHashMap<>();
+    private final Counter droppedClicks;
+    // Serializes flushes without pinning a virtual carrier thread during the write
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledFuture<?> flushTask;
+    
+    @Autowired
+    public ClickTracker(
+            ClickStatsJdbcRepository clickStatsJdbcRepository,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.clicks.enabled:true}") boolean enabled,
+            @Value("${url-shortener.clicks.batch-size:500}") int batchSize,
+            @Value("${url-shortener.clicks.max-pending-codes:100000}") int maxPendingCodes,
+            @Value("${url-shortener.clicks.flush-interval:5s}") Duration flushInterval) {
+        this.clickStatsJdbcRepository = clickStatsJdbcRepository;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPendingCodes = maxPendingCodes;
+        this.flushInterval = flushInterval;
+        this.scoreDecay = Math.pow(0.5, (double) flushInterval.toMillis() / SCORE_HALF_LIFE.toMillis());
+        this.droppedClicks = meterRegistry.counter("url.shortener.clicks.dropped");
+        meterRegistry.gaugeMapSize("url.shortener.clicks.pending.codes", Tags.empty(), counters);
+    }
+    
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, flushInterval);
+        }
+    }
+    
+    /**
+     * Records one redirect. Never blocks and never touches the database.
+     * 
+     * @param shortUrl The short URL that was followed
+     */
+    public void record(String shortUrl) {
+        if (!enabled) {
+            return;
+        }
+        
+        ClickCounter counter = counters.get(shortUrl);
+        if (counter == null) {
+            // Bound memory: clicks on codes beyond the limit are dropped until the next flush
+            if (counters.size() >= maxPendingCodes) {
+                droppedClicks.increment();
+                return;
+            }
+            counter = counters.computeIfAbsent(shortUrl, key -> new ClickCounter());
+        }
+        
+        counter.pending.increment();
+        counter.lastAccessedAtMillis = System.currentTimeMillis();
+    }
+    
+    /**
+     * Drains the pending counts into click_stats. Codes that received no clicks
+     * since the previous flush and have cooled down are forgotten.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<ClickDelta> batch = new ArrayList<>(batchSize);
+        
+            for (Map.Entry<String, ClickCounter> entry : counters.entrySet()) {
+                String shortUrl = entry.getKey();
+                ClickCounter counter = entry.getValue();
+            
+                long clicks = counter.pending.sumThenReset();
+                counter.score = counter.score * scoreDecay + clicks;
+            
+                if (clicks == 0 && counter.score < 1 && counters.remove(shortUrl, counter)) {
+                    // Catch clicks recorded while the entry was being removed
+                    clicks = counter.pending.sumThenReset();
+                }
+            
+                if (clicks > 0) {
+                    batch.add(new ClickDelta(shortUrl, clicks, counter.lastAccessedAtMillis));
+                    if (batch.size() == batchSize) {
+                        write(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+        
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+    
+    /**
+     * Flushes everything still pending before the application stops
+     */
+    @PreDestroy
+    public void drain() {
+        if (enabled) {
+            flushTask.cancel(false);
+            flush();
+        }
+    }
+    
+    /**
+     * Gets the most clicked short URLs from the in-memory counters
+     * 
+     * @param limit Maximum number of short URLs
+     * @return Short URLs by descending recent clicks
+     */
+    public List<HotShortUrl> getHottest(int limit) {
+        PriorityQueue<HotShortUrl> top = new PriorityQueue<>(Comparator.comparingLong(HotShortUrl::getRecentClicks));
+        
+        for (Map.Entry<String, ClickCounter> entry : counters.entrySet()) {
+            ClickCounter counter = entry.getValue();
+            long recentClicks = Math.round(counter.score + counter.pending.sum());
+            if (recentClicks == 0) {
+                continue;
+            }
+            
+            if (top.size() < limit) {
+                top.add(new HotShortUrl(entry.getKey(), recentClicks));
+            } else if (recentClicks > top.peek().getRecentClicks()) {
+                top.poll();
+                top.add(new HotShortUrl(entry.getKey(), recentClicks));
+            }
+        }
+        
+        List<HotShortUrl> hottest = new ArrayList<>(top);
+        hottest.sort(Comparator.comparingLong(HotShortUrl::getRecentClicks).reversed());
+        return hottest;
+    }
+    
+    private void write(List<ClickDelta> batch) {
+        try {
+            clickStatsJdbcRepository.upsert(batch);
+        } catch (RuntimeException e) {
+            // Keep the clicks for the next flush rather than losing them
+            log.warn("Failed to flush {} click counts, will retry", batch.size(), e);
+            for (ClickDelta delta : batch) {
+                ClickCounter counter = counters.computeIfAbsent(delta.getShortUrl(), key -> new ClickCounter());
+                counter.pending.add(delta.getClicks());
+                counter.lastAccessedAtMillis = Math.max(counter.lastAccessedAtMillis, delta.getLastAccessedAtMillis());
+            }
+        }
+    }
+    
+    private static final class ClickCounter {
+        final LongAdder pending = new LongAdder();
+        volatile long lastAccessedAtMillis;
+        
+        // Written only by the flusher
+        volatile double score;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.urlshortener.url;
+
+import org.springframework.stereotype.Component;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Validates HTTP(S) URLs and rewrites them to a canonical form in one linear pass.
+ * Canonicalization follows RFC 3986 section 6.2.2 and 6.2.3:
+ * <ul>
+ *   <li>surrounding whitespace is removed</li>
+ *   <li>scheme and host are lowercased, and non-ASCII hosts are converted to punycode</li>
+ *   <li>default ports (80 for http, 443 for https) and empty ports are dropped</li>
+ *   <li>an empty path becomes "/"</li>
+ *   <li>percent-encoded unreserved characters are decoded and other escapes are uppercased</li>
+ *   <li>characters not allowed in a URL, including non-ASCII ones, are percent-encoded as UTF-8</li>
+ * </ul>
+ * Dot segments are left as they are. URLs with user info, whitespace or control
+ * characters, or a host without a dot are rejected. When the input is already
+ * canonical the same instance is returned and nothing is allocated.
+ */
+@Component
+public class UrlCanonicalizer {
+
+    public static final int MAX_LENGTH = 2048;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    // Characters kept verbatim in path, query and fragment
+    private static final boolean[] ALLOWED = new boolean[128];
+    // Characters that are decoded when found percent-encoded
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+            UNRESERVED[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c : "-._~".toCharArray()) {
+            UNRESERVED[c] = true;
+        }
+        System.arraycopy(UNRESERVED, 0, ALLOWED, 0, ALLOWED.length);
+        for (char c : "!$&'()*+,;=:@/?".toCharArray()) {
+            ALLOWED[c] = true;
+        }
+    }
+
+    /**
+     * Validates and canonicalizes a URL
+     *
+     * @param url The URL as submitted
+     * @return The canonical URL, the same instance if it was already canonical
+     * @throws IllegalArgumentException if the URL is empty or not a valid HTTP(S) URL
+     */
+    public String canonicalize(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("URL cannot be null or empty");
+        }
+
+        int start = 0;
+        int end = url.length();
+        while (start < end && url.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && url.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("URL cannot be null or empty");
+        }
+        // Even fully escaped input cannot shrink below a third of its length
+        if (end - start > MAX_LENGTH * 3) {
+            throw invalid(url);
+        }
+
+        Output out = new Output(url, start);
+        int pos = scheme(url, start, end, out);
+        boolean https = pos - start == 8;
+        pos = host(url, pos, end, out);
+        pos = port(url, pos, end, https, out);
+
+        if (pos == end || url.charAt(pos) == '?' || url.charAt(pos) == '#') {
+            out.diverge(pos).append('/');
+        }
+        rest(url, pos, end, out);
+
+        if (out.length(end) > MAX_LENGTH) {
+            throw new IllegalArgumentException("URL exceeds " + MAX_LENGTH + " characters");
+        }
+        return out.result(end);
+    }
+
+    /**
+     * Checks whether a URL is valid
+     *
+     * @param url The URL
+     * @return true if {@link #canonicalize(String)} accepts it
+     */
+    public boolean isValid(String url) {
+        try {
+            canonicalize(url);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int scheme(String url, int start, int end, Output out) {
+        int length;
+        if (url.regionMatches(true, start, "https://", 0, 8)) {
+            length = 8;
+        } else if (url.regionMatches(true, start, "http://", 0, 7)) {
+            length = 7;
+        } else {
+            throw invalid(url);
+        }
+
+        for (int i = start; i < start + length; i++) {
+            lowercase(url, i, out);
+        }
+        return start + length;
+    }
+
+    private static int host(String url, int pos, int end, Output out) {
+        int hostStart = pos;
+        boolean ascii = true;
+        while (pos < end) {
+            char c = url.charAt(pos);
+            if (c == '/' || c == '?' || c == '#' || c == ':') {
+                break;
+            }
+            if (c == '@') {
+                throw new IllegalArgumentException("URLs with user info are not accepted: " + url);
+            }
+            if (c >= 0x80) {
+                ascii = false;
+            }
+            pos++;
+        }
+
+        if (ascii) {
+            checkHost(url, url, hostStart, pos);
+            for (int i = hostStart; i < pos; i++) {
+                lowercase(url, i, out);
+            }
+        } else {
+            String host;
+            try {
+                host = IDN.toASCII(url.substring(hostStart, pos), IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+            } catch (IllegalArgumentException e) {
+                throw invalid(url);
+            }
+            checkHost(url, host, 0, host.length());
+            out.diverge(hostStart).append(host);
+        }
+        return pos;
+    }
+
+    /**
+     * Requires at least two dot-separated labels of letters, digits, '-' and '_'
+     */
+    private static void checkHost(String url, CharSequence host, int start, int end) {
+        if (end - start > MAX_HOST_LENGTH) {
+            throw invalid(url);
+        }
+
+        int labels = 1;
+        int labelLength = 0;
+        for (int i = start; i < end; i++) {
+            char c = host.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    throw invalid(url);
+                }
+                labels++;
+                labelLength = 0;
+            } else if (c < 0x80 && (UNRESERVED[c] && c != '.' && c != '~')) {
+                if (++labelLength > MAX_LABEL_LENGTH) {
+                    throw invalid(url);
+                }
+            } else {
+                throw invalid(url);
+            }
+        }
+        if (labelLength == 0 || labels < 2) {
+            throw invalid(url);
+        }
+    }
+
+    private static int port(String url, int pos, int end, boolean https, Output out) {
+        if (pos == end || url.charAt(pos) != ':') {
+            return pos;
+        }
+
+        int digitsStart = pos + 1;
+        int digitsEnd = digitsStart;
+        int port = 0;
+        while (digitsEnd < end) {
+            char c = url.charAt(digitsEnd);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c < '0' || c > '9' || digitsEnd - digitsStart == 5) {
+                throw invalid(url);
+            }
+            port = port * 10 + (c - '0');
+            digitsEnd++;
+        }
+        if (port > 65535 || (port == 0 && digitsEnd > digitsStart)) {
+            throw invalid(url);
+        }
+
+        boolean empty = digitsEnd == digitsStart;
+        if (empty || port == (https ? 443 : 80)) {
+            out.diverge(pos);
+        } else if (url.charAt(digitsStart) == '0') {
+            out.diverge(pos).append(':').append(port);
+        } else {
+            for (int i = pos; i < digitsEnd; i++) {
+                out.keep(i);
+            }
+        }
+        return digitsEnd;
+    }
+
+    private static void rest(String url, int pos, int end, Output out) {
+        boolean inFragment = false;
+
+        int i = pos;
+        while (i < end) {
+            char c = url.charAt(i);
+
+            // Most characters are kept as they are, so test for them first
+            if (c < 0x80 && ALLOWED[c]) {
+                out.keep(i);
+                i++;
+                continue;
+            }
+
+            if (c == '%') {
+                int high = i + 2 < end ? hexValue(url.charAt(i + 1)) : -1;
+                int low = high >= 0 ? hexValue(url.charAt(i + 2)) : -1;
+                if (low < 0) {
+                    // A stray percent sign stands for itself
+                    out.diverge(i).append("%25");
+                    i++;
+                    continue;
+                }
+
+                int octet = high << 4 | low;
+                if (octet < 0x80 && UNRESERVED[octet]) {
+                    out.diverge(i).append((char) octet);
+                } else if (url.charAt(i + 1) != HEX[high] || url.charAt(i + 2) != HEX[low]) {
+                    out.diverge(i).append('%').append(HEX[high]).append(HEX[low]);
+                } else {
+                    out.keep(i);
+                    out.keep(i + 1);
+                    out.keep(i + 2);
+                }
+                i += 3;
+                continue;
+            }
+
+            if (c <= ' ' || c == 0x7F) {
+                throw new IllegalArgumentException("URL contains whitespace or control characters: " + url);
+            }
+
+            if (c == '#' && !inFragment) {
+                // Only the first '#' starts the fragment; later ones are escaped
+                inFragment = true;
+                out.keep(i);
+            } else if (c < 0x80) {
+                escape(out.diverge(i), c);
+            } else {
+                int codePoint = url.codePointAt(i);
+                // Unpaired surrogates come back as themselves
+                if (Character.isBmpCodePoint(codePoint) && Character.isSurrogate((char) codePoint)) {
+                    throw invalid(url);
+                }
+                StringBuilder builder = out.diverge(i);
+                escapeUtf8(builder, codePoint);
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    private static void lowercase(String url, int i, Output out) {
+        char c = url.charAt(i);
+        if (c >= 'A' && c <= 'Z') {
+            out.diverge(i).append((char) (c + ('a' - 'A')));
+        } else {
+            out.keep(i);
+        }
+    }
+
+    private static void escapeUtf8(StringBuilder builder, int codePoint) {
+        if (codePoint < 0x800) {
+            escape(builder, 0xC0 | codePoint >> 6);
+            escape(builder, 0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            escape(builder, 0xE0 | codePoint >> 12);
+            escape(builder, 0x80 | codePoint >> 6 & 0x3F);
+            escape(builder, 0x80 | codePoint & 0x3F);
+        } else {
+            escape(builder, 0xF0 | codePoint >> 18);
+            escape(builder, 0x80 | codePoint >> 12 & 0x3F);
+            escape(builder, 0x80 | codePoint >> 6 & 0x3F);
+            escape(builder, 0x80 | codePoint & 0x3F);
+        }
+    }
+
+    private static void escape(StringBuilder builder, int octet) {
+        builder.append('%').append(HEX[octet >> 4]).append(HEX[octet & 0xF]);
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static IllegalArgumentException invalid(String url) {
+        return new IllegalArgumentException("Invalid URL format: " + url);
+    }
+
+    /**
+     * Output that stays a view of the input until the first character that changes
+     */
+    private static final class Output {
+
+        private final String source;
+        private final int start;
+
+        // Null while the output equals source[start, current position)
+        private StringBuilder builder;
+
+        Output(String source, int start) {
+            this.source = source;
+            this.start = start;
+        }
+
+        void keep(int index) {
+            if (builder != null) {
+                builder.append(source.charAt(index));
+            }
+        }
+
+        StringBuilder diverge(int index) {
+            if (builder == null) {
+                builder = new StringBuilder(source.length() - start + 16);
+                builder.append(source, start, index);
+            }
+            return builder;
+        }
+
+        int length(int end) {
+            return builder != null ? builder.length() : end - start;
+        }
+
+        String result(int end) {
+            if (builder != null) {
+                return builder.toString();
+            }
+            return start == 0 && end == source.length() ? source : source.substring(start, end);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.urlshortener.warmup;
+
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.dto.UrlMapping;
+import com.example.urlshortener.repository.ClickStatsJdbcRepository;
+import com.example.urlshortener.service.UrlShortenerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replays a sample of real short URLs through the redirect resolver before the
+ * application reports ready. Spring Boot only moves readiness to
+ * ACCEPTING_TRAFFIC once every ApplicationReadyEvent listener has returned,
+ * so traffic routed by the readiness probe finds a filled redirect cache and
+ * a compiled lookup path instead of paying for both itself.
+ * <p>
+ * The sample is the most-clicked short URLs, topped up with the first enabled
+ * mappings when fewer have been clicked. Replayed lookups go through
+ * {@link RedirectResolver#warm(String)}, so they are not counted as clicks,
+ * redirects or hot keys.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final RedirectResolver redirectResolver;
+    private final UrlShortenerService urlShortenerService;
+    private final ClickStatsJdbcRepository clickStatsJdbcRepository;
+    private final boolean enabled;
+    private final int sampleSize;
+    private final int lookups;
+    private final Duration maxDuration;
+
+    @Autowired
+    public StartupWarmup(
+            RedirectResolver redirectResolver,
+            UrlShortenerService urlShortenerService,
+            ClickStatsJdbcRepository clickStatsJdbcRepository,
+            @Value("${url-shortener.warm-up.enabled:true}") boolean enabled,
+            @Value("${url-shortener.warm-up.sample-size:1000}") int sampleSize,
+            @Value("${url-shortener.warm-up.lookups:20000}") int lookups,
+            @Value("${url-shortener.warm-up.max-duration:20s}") Duration maxDuration) {
+        this.redirectResolver = redirectResolver;
+        this.urlShortenerService = urlShortenerService;
+        this.clickStatsJdbcRepository = clickStatsJdbcRepository;
+        this.enabled = enabled;
+        this.sampleSize = sampleSize;
+        this.lookups = lookups;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Runs the replay on the startup thread, holding readiness back until it ends
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!enabled || sampleSize <= 0 || lookups <= 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<String> sample;
+        try {
+            sample = sample();
+        } catch (DataAccessException e) {
+            // A warm-up is never worth failing the boot over
+            log.warn("Startup warm-up skipped, could not read a sample: {}", e.getMessage());
+            return;
+        }
+        if (sample.isEmpty()) {
+            log.info("Startup warm-up skipped, no short URLs to replay");
+            return;
+        }
+
+        long deadline = start + maxDuration.toNanos();
+        int replayed = 0;
+        int failed = 0;
+        while (replayed < lookups && System.nanoTime() < deadline) {
+            try {
+                redirectResolver.warm(sample.get(replayed % sample.size()));
+            } catch (RuntimeException e) {
+                failed++;
+            }
+            replayed++;
+        }
+
+        log.info("Startup warm-up replayed {} lookups of {} short URLs in {} ms ({} failed)",
+                replayed, sample.size(), (System.nanoTime() - start) / 1_000_000, failed);
+    }
+
+    private List<String> sample() {
+        Set<String> sample = new LinkedHashSet<>(clickStatsJdbcRepository.findMostClicked(sampleSize));
+        if (sample.size() < sampleSize) {
+            for (UrlMapping mapping : urlShortenerService.getMappingsPage(null, sampleSize, true).getMappings()) {
+                if (sample.size() == sampleSize) {
+                    break;
+                }
+                sample.add(mapping.getShortUrl());
+            }
+        }
+        return new ArrayList<>(sample);
+    }
+}
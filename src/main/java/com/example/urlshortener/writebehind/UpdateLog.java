@@ -0,0 +1,235 @@
+package com.example.urlshortener.writebehind;
+
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.entity.ChangeType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log of buffered mapping updates, split into numbered segments.
+ * A flush rolls over to a new segment and deletes the older ones once their
+ * updates are in the store, so the log only ever holds what is not yet flushed.
+ * <p>
+ * Record layout:
+ * <pre>
+ * int length | int crc | utf short url | byte enabled | byte change | boolean has url | [utf long url]
+ * </pre>
+ * The enabled byte is -1 for unchanged, and the change byte is the change type
+ * ordinal or -1. Replay stops at the first torn or corrupt record of a segment,
+ * so an append that fails is cut back off the segment before later appends follow it.
+ * Appends must be serialized by the caller.
+ */
+class UpdateLog implements Closeable {
+
+    private static final String PREFIX = "updates-";
+    private static final String SUFFIX = ".wal";
+    private static final int HEADER_SIZE = 8;
+    private static final ChangeType[] CHANGE_TYPES = ChangeType.values();
+
+    private final Path dir;
+    private final boolean fsync;
+
+    private long segment;
+    private FileChannel channel;
+
+    UpdateLog(Path dir, boolean fsync) throws IOException {
+        Files.createDirectories(dir);
+        this.dir = dir;
+        this.fsync = fsync;
+        List<Long> existing = segments();
+        this.segment = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+    }
+
+    /**
+     * Reads every update left by an earlier run, oldest first
+     *
+     * @param consumer Receives each update
+     */
+    void replay(Consumer<MappingUpdate> consumer) throws IOException {
+        for (long number : segments()) {
+            byte[] bytes = Files.readAllBytes(file(number));
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                crc.reset();
+                crc.update(bytes, buffer.position(), length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                consumer.accept(decode(new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length))));
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment for the following appends. The older segments may be
+     * deleted with {@link #deleteBefore} once their updates are in the store.
+     *
+     * @return The number of the new segment
+     */
+    long roll() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        segment++;
+        channel = FileChannel.open(file(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (fsync) {
+            // The segment's directory entry must survive a crash as well as the records forced into it
+            forceDirectory();
+        }
+        return segment;
+    }
+
+    /**
+     * Appends updates as one write, forcing them to disk unless fsync is off
+     *
+     * @param updates The updates
+     */
+    void append(List<MappingUpdate> updates) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(64 * updates.size());
+        DataOutputStream out = new DataOutputStream(records);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        CRC32C crc = new CRC32C();
+        for (MappingUpdate update : updates) {
+            payload.reset();
+            encode(update, new DataOutputStream(payload));
+            crc.reset();
+            crc.update(payload.toByteArray());
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            payload.writeTo(out);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        long start = channel.size();
+        try {
+            while (buffer.hasRemaining()) {
+                write(channel, buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            discardFrom(start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes to the current segment; a seam for tests that fail writes partway
+     *
+     * @param channel The current segment
+     * @param buffer The bytes to write
+     * @return The number of bytes written
+     */
+    int write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        return channel.write(buffer);
+    }
+
+    /**
+     * Deletes the segments older than the given one
+     *
+     * @param number The oldest segment to keep
+     */
+    void deleteBefore(long number) throws IOException {
+        for (long existing : segments()) {
+            if (existing < number) {
+                Files.deleteIfExists(file(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Removes what a failed append left in the current segment. If the segment
+     * cannot be truncated, later appends go to a new one, since replay only
+     * stops at the torn record of the segment it is in.
+     */
+    private void discardFrom(long size, IOException failure) {
+        try {
+            channel.truncate(size);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            try {
+                roll();
+            } catch (IOException rollFailure) {
+                failure.addSuppressed(rollFailure);
+            }
+        }
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows cannot open a directory; its file system commits new entries itself
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path file(long number) {
+        return dir.resolve(PREFIX + number + SUFFIX);
+    }
+
+    private static void encode(MappingUpdate update, DataOutputStream out) throws IOException {
+        out.writeUTF(update.getShortUrl());
+        out.writeByte(update.getEnabled() == null ? -1 : update.getEnabled() ? 1 : 0);
+        out.writeByte(update.getLastChange() == null ? -1 : update.getLastChange().ordinal());
+        out.writeBoolean(update.getLongUrl() != null);
+        if (update.getLongUrl() != null) {
+            out.writeUTF(update.getLongUrl());
+        }
+    }
+
+    private static MappingUpdate decode(DataInputStream in) throws IOException {
+        String shortUrl = in.readUTF();
+        byte enabled = in.readByte();
+        byte change = in.readByte();
+        String longUrl = in.readBoolean() ? in.readUTF() : null;
+        return new MappingUpdate(shortUrl, longUrl, enabled < 0 ? null : enabled == 1,
+                change < 0 ? null : CHANGE_TYPES[change]);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.urlshortener.writebehind;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.cache.RedirectResolver;
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.feed.MappingChangedEvent;
+import com.example.urlshortener.store.UrlMappingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for updates to existing mappings, enabled with the write-behind
+ * profile. An update is acknowledged once it is in the {@link UpdateLog} on
+ * disk and in an in-memory overlay that redirects consult before the resolver,
+ * so it takes effect at once. Updates to the same short URL are merged while
+ * they wait, and a background flusher writes them to the store as one batch.
+ * <p>
+ * Listing, export and the change feed read the store and see an update after
+ * its flush. On startup, updates left in the log by a crash are applied
+ * before the application serves requests.
+ */
+@Component
+@Profile("write-behind")
+public class WriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final UrlMappingStore urlMappingStore;
+    private final RedirectResolver redirectResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final String dir;
+    private final boolean fsync;
+    private final Duration flushInterval;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+    // Keeps log order and overlay order the same
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // One flush at a time, so batches reach the store in log order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private UpdateLog updateLog;
+    private ScheduledFuture<?> flushTask;
+
+    @Autowired
+    public WriteBehindBuffer(
+            UrlMappingStore urlMappingStore,
+            RedirectResolver redirectResolver,
+            ApplicationEventPublisher eventPublisher,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${url-shortener.write-behind.dir:./data/write-behind}") String dir,
+            @Value("${url-shortener.write-behind.fsync:true}") boolean fsync,
+            @Value("${url-shortener.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${url-shortener.write-behind.max-pending:50000}") int maxPending) {
+        this.urlMappingStore = urlMappingStore;
+        this.redirectResolver = redirectResolver;
+        this.eventPublisher = eventPublisher;
+        this.taskScheduler = taskScheduler;
+        this.dir = dir;
+        this.fsync = fsync;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+        this.flushed = Counter.builder("url.shortener.writebehind.flushed")
+                .description("Buffered mapping updates written to the store")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("url.shortener.writebehind.pending", Tags.empty(), pending);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        updateLog = new UpdateLog(Paths.get(dir), fsync);
+
+        Map<String, MappingUpdate> recovered = new LinkedHashMap<>();
+        updateLog.replay(update -> recovered.merge(update.getShortUrl(), update, MappingUpdate::merge));
+        if (!recovered.isEmpty()) {
+            int applied = urlMappingStore.updateAll(new ArrayList<>(recovered.values()));
+            log.info("Applied {} buffered mapping updates left in {} ({} short URLs no longer exist)",
+                    recovered.size(), dir, recovered.size() - applied);
+        }
+        updateLog.deleteBefore(updateLog.roll());
+
+        flushTask = taskScheduler.scheduleWithFixedDelay(this::flush, flushInterval);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        flushTask.cancel(false);
+        // Whatever fails to flush here is replayed from the log on the next start
+        flush();
+        updateLog.close();
+    }
+
+    /**
+     * Looks up an update that is not flushed yet
+     *
+     * @param shortUrl The short URL
+     * @return The mapping as it will be after the flush, or null if nothing is pending for it
+     */
+    public CachedRedirect resolve(String shortUrl) {
+        Pending entry = pending.get(shortUrl);
+        return entry != null ? entry.redirect : null;
+    }
+
+    /**
+     * Makes updates durable and visible. Returns once they are in the log.
+     * Each redirect is worked out under the append lock from the update merged
+     * into what is already pending, or into the stored row, so concurrent
+     * updates of one short URL cannot leave the overlay behind the log.
+     *
+     * @param updates The updates, at most one per short URL
+     * @return The redirect each short URL now resolves to, without those that no longer exist
+     * @throws DataAccessResourceFailureException if the log cannot be written
+     */
+    public Map<String, CachedRedirect> submit(List<MappingUpdate> updates) {
+        Map<String, CachedRedirect> redirects = new LinkedHashMap<>();
+        appendLock.lock();
+        try {
+            // Every read happens before the append, so a failed read leaves nothing in the log
+            Map<String, Pending> merged = new LinkedHashMap<>();
+            for (MappingUpdate update : updates) {
+                Pending earlier = pending.get(update.getShortUrl());
+                // Pending entries leave only once flushed, so without one the store is current
+                CachedRedirect base = earlier != null
+                        ? earlier.redirect
+                        : urlMappingStore.findRedirect(update.getShortUrl()).orElse(null);
+                if (base == null) {
+                    continue;
+                }
+                CachedRedirect redirect = new CachedRedirect(
+                        update.getLongUrl() != null ? update.getLongUrl() : base.getLongUrl(),
+                        update.getEnabled() != null ? update.getEnabled() : base.isEnabled(),
+                        base.getExpiresAtMillis());
+                merged.put(update.getShortUrl(),
+                        new Pending(earlier != null ? earlier.update.merge(update) : update, redirect));
+                redirects.put(update.getShortUrl(), redirect);
+            }
+
+            updateLog.append(updates);
+            pending.putAll(merged);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write to the write-behind log", e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        // Bounds memory when updates arrive faster than the flush interval drains them
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+        return redirects;
+    }
+
+    /**
+     * Writes every pending update to the store in one batch. On failure the
+     * updates stay pending, and in the log, until a later flush succeeds.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<String, Pending> snapshot;
+            long keepFrom;
+            appendLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                snapshot = new HashMap<>(pending);
+                // Later appends go to a new segment that survives this flush
+                keepFrom = updateLog.roll();
+            } finally {
+                appendLock.unlock();
+            }
+
+            urlMappingStore.updateAll(snapshot.values().stream().map(entry -> entry.update).toList());
+            // Entries updated again since the snapshot stay for the next flush
+            snapshot.forEach(pending::remove);
+            updateLog.deleteBefore(keepFrom);
+
+            // A lookup racing the submit may have cached the old row; the store now has the new one
+            snapshot.forEach((shortUrl, entry) -> redirectResolver.mappingChanged(shortUrl, entry.redirect));
+            flushed.increment(snapshot.size());
+            eventPublisher.publishEvent(new MappingChangedEvent(List.copyOf(snapshot.keySet())));
+        } catch (DataAccessException | IOException e) {
+            log.warn("Write-behind flush failed; {} updates stay pending", pending.size(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * A merged update and the redirect it results in
+     */
+    private static final class Pending {
+
+        final MappingUpdate update;
+        final CachedRedirect redirect;
+
+        Pending(MappingUpdate update, CachedRedirect redirect) {
+            this.update = update;
+            this.redirect = redirect;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.urlshortener.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeySketchTest {
+
+    @Test
+    void findsHeavyHittersInLongTail() {
+        HotKeySketch sketch = new HotKeySketch(64);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Three hot keys take 30% of lookups; the rest spread over 100k cold keys
+            int roll = random.nextInt(100);
+            String key = roll < 15 ? "hot-a" : roll < 25 ? "hot-b" : roll < 30 ? "hot-c"
+                    : "cold-" + random.nextInt(100_000);
+            sketch.offer(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        List<HotKeySketch.Counted> top = sketch.top(3);
+        assertEquals(List.of("hot-a", "hot-b", "hot-c"), top.stream().map(counted -> counted.key).toList());
+        for (HotKeySketch.Counted counted : sketch.top(64)) {
+            long actual = exact.get(counted.key);
+            assertTrue(counted.count >= actual && counted.count - counted.error <= actual, counted.key);
+        }
+    }
+
+    @Test
+    void decayDropsKeysThatStopped() {
+        HotKeySketch sketch = new HotKeySketch(8);
+        for (int i = 0; i < 100; i++) {
+            sketch.offer("old");
+        }
+        sketch.offer("once");
+
+        sketch.decay();
+        for (int i = 0; i < 60; i++) {
+            sketch.offer("new");
+        }
+
+        List<HotKeySketch.Counted> top = sketch.top(8);
+        assertEquals(2, top.size());
+        assertEquals("new", top.get(0).key);
+        assertEquals("old", top.get(1).key);
+        assertEquals(50, top.get(1).count);
+    }
+}
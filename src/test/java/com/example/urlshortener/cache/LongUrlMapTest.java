@@ -0,0 +1,56 @@
+package com.example.urlshortener.cache;
+
+import com.example.urlshortener.shortcode.ShortCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongUrlMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        LongUrlMap map = new LongUrlMap();
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 200_000; i++) {
+            String shortUrl = ShortCode.decode(1 + random.nextInt(20_000));
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(shortUrl) != null, map.remove(shortUrl));
+            } else {
+                // Few distinct URLs, so most puts share an interned slice; some fill several pages
+                int n = random.nextInt(5_000);
+                String longUrl = "https://example.com/ü/" + n + "x".repeat(n % 7 == 0 ? 20_000 : n % 3 * 100);
+                expected.put(shortUrl, longUrl);
+                map.put(shortUrl, longUrl);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long packed = 1; packed <= 20_000; packed++) {
+            String shortUrl = ShortCode.decode(packed);
+            assertEquals(expected.get(shortUrl), map.get(shortUrl), shortUrl);
+        }
+    }
+
+    @Test
+    void keepsIrregularCodesAside() {
+        LongUrlMap map = new LongUrlMap();
+        map.put("legacy-1", "https://example.com/legacy");
+        map.put("abc", "https://example.com/abc");
+
+        assertEquals(2, map.size());
+        assertEquals("https://example.com/legacy", map.get("legacy-1"));
+        assertTrue(map.remove("legacy-1"));
+        assertFalse(map.remove("legacy-1"));
+        assertNull(map.get("legacy-1"));
+        assertEquals(1, map.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.urlshortener.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedirectCacheTest {
+
+    private static final CachedRedirect REDIRECT = new CachedRedirect("https://example.com/viral", true);
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        RedirectCache cache = new RedirectCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CachedRedirect>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.load("viral", key -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return REDIRECT;
+                })));
+            }
+            // Let every caller join the running load before it finishes
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<CachedRedirect> result : results) {
+                assertSame(REDIRECT, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertSame(REDIRECT, cache.get("viral"));
+    }
+
+    @Test
+    void invalidationDuringLoadKeepsResultOutOfCache() throws Exception {
+        RedirectCache cache = new RedirectCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CachedRedirect> stale = executor.submit(() -> cache.load("code", key -> {
+                loading.countDown();
+                await(release);
+                return REDIRECT;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            cache.invalidate("code");
+            // A lookup after the update starts its own load instead of joining the stale one
+            CachedRedirect updated = new CachedRedirect("https://example.com/updated", true);
+            assertSame(updated, cache.load("code", key -> updated));
+
+            release.countDown();
+            assertSame(REDIRECT, stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CachedRedirect cached = cache.get("code");
+        assertTrue(cached == null || "https://example.com/updated".equals(cached.getLongUrl()));
+    }
+
+    @Test
+    void pinsOnlyCachedEntries() {
+        RedirectCache cache = new RedirectCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        cache.load("cached", key -> REDIRECT);
+
+        cache.pin(Set.of("cached", "missing"));
+        assertTrue(cache.isPinned("cached"));
+        assertNull(cache.get("missing"));
+
+        cache.invalidate("cached");
+        assertNull(cache.get("cached"));
+        assertFalse(cache.isPinned("cached"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.urlshortener.cluster;
+
+import com.example.urlshortener.UrlShortenerApplication;
+import com.example.urlshortener.cache.RedirectCache;
+import com.example.urlshortener.service.UrlShortenerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Two cluster nodes in one JVM over the local transport, sharing one database
+ */
+class ClusterRedirectResolverTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start("a");
+        nodeB = start("b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void routesLookupsToTheOwnerAndInvalidatesItOnChange() {
+        UrlShortenerService serviceA = nodeA.getBean(UrlShortenerService.class);
+        ClusterRedirectResolver resolverA = nodeA.getBean(ClusterRedirectResolver.class);
+        ConsistentHashRing ring = nodeA.getBean(ClusterSettings.class).getRing();
+
+        // A code created on node A and owned by node B
+        String shortUrl;
+        int i = 0;
+        do {
+            shortUrl = serviceA.shortenUrl("https://cluster.example.com/" + i++).getShortUrl();
+        } while (!ring.ownerOf(shortUrl).equals("b"));
+        resolverA.sendInvalidations();
+
+        // Node A asks node B, and only node B caches the answer
+        assertEquals("https://cluster.example.com/" + (i - 1), serviceA.getOriginalUrl(shortUrl));
+        assertNull(nodeA.getBean(RedirectCache.class).get(shortUrl));
+        assertNotNull(nodeB.getBean(RedirectCache.class).get(shortUrl));
+
+        // Until the invalidation arrives, the owner serves its cached entry
+        serviceA.updateMappingEnabled(shortUrl, false);
+        assertNotNull(nodeB.getBean(UrlShortenerService.class).getOriginalUrl(shortUrl));
+
+        resolverA.sendInvalidations();
+        assertNull(serviceA.getOriginalUrl(shortUrl));
+        assertNull(nodeB.getBean(UrlShortenerService.class).getOriginalUrl(shortUrl));
+    }
+
+    @Test
+    void evictsNearCachedRedirectsWhenTheOwnerChangesThem() {
+        UrlShortenerService serviceA = nodeA.getBean(UrlShortenerService.class);
+        UrlShortenerService serviceB = nodeB.getBean(UrlShortenerService.class);
+        ClusterRedirectResolver resolverB = nodeB.getBean(ClusterRedirectResolver.class);
+        ConsistentHashRing ring = nodeB.getBean(ClusterSettings.class).getRing();
+
+        // A code created on node B and owned by node B
+        String shortUrl;
+        int i = 0;
+        do {
+            shortUrl = serviceB.shortenUrl("https://near.example.com/" + i++).getShortUrl();
+        } while (!ring.ownerOf(shortUrl).equals("b"));
+        resolverB.sendInvalidations();
+        assertEquals("https://near.example.com/" + (i - 1), serviceA.getOriginalUrl(shortUrl));
+
+        // Node A answers from its near cache until node B's invalidation arrives
+        serviceB.updateMappingEnabled(shortUrl, false);
+        assertNull(serviceB.getOriginalUrl(shortUrl));
+        assertNotNull(serviceA.getOriginalUrl(shortUrl));
+
+        resolverB.sendInvalidations();
+        assertNull(serviceA.getOriginalUrl(shortUrl));
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId) {
+        return new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("cluster")
+                .run("--spring.datasource.url=jdbc:h2:mem:cluster-test;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--url-shortener.clicks.enabled=false",
+                        "--url-shortener.cluster.transport=local",
+                        "--url-shortener.cluster.node-id=" + nodeId,
+                        "--url-shortener.cluster.nodes=a=http://node-a,b=http://node-b",
+                        // Invalidations are sent by the test
+                        "--url-shortener.cluster.invalidation-interval=1h",
+                        // Near-cached entries only leave through invalidations
+                        "--url-shortener.cluster.near-cache.ttl=1h");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.urlshortener.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void spreadsKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf(key(i)), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        // Within 25% of a perfect quarter
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 4) < KEYS / 16, counts.toString()));
+    }
+
+    @Test
+    void movesOnlyKeysClaimedByAnAddedNode() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing four = new ConsistentHashRing(List.of("node-3", "node-1", "node-4", "node-2"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String before = three.ownerOf(key(i));
+            String after = four.ownerOf(key(i));
+            if (!before.equals(after)) {
+                assertEquals("node-4", after);
+                moved++;
+            }
+        }
+
+        // About a quarter of the keys move, all of them to the new node
+        assertTrue(moved > KEYS / 5 && moved < KEYS * 3 / 10, "moved " + moved);
+    }
+
+    private static String key(int i) {
+        return "c" + Integer.toString(i * 7919, 36);
+    }
+}
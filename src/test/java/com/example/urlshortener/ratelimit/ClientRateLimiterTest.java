@@ -0,0 +1,56 @@
+package com.example.urlshortener.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTest {
+
+    private final ClientRateLimiter limiter =
+            new ClientRateLimiter("test", 10, 3, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void admitsBurstThenSustainedRate() {
+        long now = 1_000_000_000L;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", now));
+        }
+
+        long wait = limiter.tryAcquire("a", now);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+        assertEquals(0, limiter.tryAcquire("a", now + wait));
+        assertTrue(limiter.tryAcquire("a", now + wait) > 0);
+    }
+
+    @Test
+    void keepsClientsApart() {
+        long now = 1_000_000_000L;
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a", now);
+        }
+
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+        assertEquals(0, limiter.tryAcquire("b", now));
+    }
+
+    @Test
+    void keysOnlyKnownApiKeysByHeader() {
+        Set<String> apiKeys = Set.of("known");
+        assertEquals("key:known", ClientRateLimiter.clientKey("known", apiKeys, "10.0.0.1"));
+        assertEquals("ip:10.0.0.1", ClientRateLimiter.clientKey("made-up", apiKeys, "10.0.0.1"));
+        assertEquals("ip:10.0.0.1", ClientRateLimiter.clientKey(null, apiKeys, "10.0.0.1"));
+    }
+
+    @Test
+    void roundsRetryAfterUpToWholeSeconds() {
+        assertEquals(1, ClientRateLimiter.retryAfterSeconds(1));
+        assertEquals(1, ClientRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, ClientRateLimiter.retryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+    }
+}
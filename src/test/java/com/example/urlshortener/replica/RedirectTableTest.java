@@ -0,0 +1,57 @@
+package com.example.urlshortener.replica;
+
+import com.example.urlshortener.shortcode.ShortCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RedirectTableTest {
+
+    @Test
+    void looksUpEveryAddedCode() {
+        RedirectTable.Builder builder = new RedirectTable.Builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.add("c" + Integer.toString(i, 36), "https://example.com/" + i);
+        }
+        builder.add("legacy-1", "https://example.com/legacy").add("café", "https://example.com/caf%C3%A9?q=é");
+        RedirectTable table = builder.build();
+
+        assertEquals(10_002, table.size());
+        assertEquals("https://example.com/1234", table.get("c" + Integer.toString(1234, 36)));
+        assertEquals("https://example.com/legacy", table.get("legacy-1"));
+        assertEquals("https://example.com/caf%C3%A9?q=é", table.get("café"));
+        assertNull(table.get("missing"));
+        assertNull(table.get(""));
+    }
+
+    @Test
+    void distinguishesLeadingFirstDigits() {
+        assertNotEquals(ShortCode.encode("B"), ShortCode.encode("AB"));
+        assertEquals(-1, ShortCode.encode("ABCDEFGHIJK"));
+    }
+
+    @Test
+    void mergesTablesLeavingExcludedCodesOut() {
+        RedirectTable base = new RedirectTable.Builder()
+                .add("keep", "https://example.com/keep")
+                .add("drop", "https://example.com/drop")
+                .add("move", "https://example.com/old")
+                .build();
+
+        RedirectTable merged = new RedirectTable.Builder()
+                .addAll(base, Set.of("drop", "move"))
+                .add("move", "https://example.com/new")
+                .add("added", "https://example.com/added")
+                .build();
+
+        assertEquals(3, merged.size());
+        assertEquals("https://example.com/keep", merged.get("keep"));
+        assertNull(merged.get("drop"));
+        assertEquals("https://example.com/new", merged.get("move"));
+        assertEquals("https://example.com/added", merged.get("added"));
+    }
+}
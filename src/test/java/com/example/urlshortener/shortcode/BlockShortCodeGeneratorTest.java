@@ -0,0 +1,72 @@
+package com.example.urlshortener.shortcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockShortCodeGeneratorTest {
+
+    @Test
+    void scrambleIsBijectiveOverEveryCodeOfAWidth() {
+        ShortCodeScrambler scrambler = new ShortCodeScrambler(42L);
+        Set<String> codes = new HashSet<>();
+
+        for (long value = 0; value < Base62.capacity(2); value++) {
+            int[] digits = new int[2];
+            Base62.toDigits(value, digits);
+            int[] original = digits.clone();
+
+            scrambler.scramble(digits);
+            codes.add(Base62.toCode(digits));
+
+            scrambler.unscramble(digits);
+            assertArrayEquals(original, digits);
+        }
+
+        assertEquals(Base62.capacity(2), codes.size());
+    }
+
+    @Test
+    void growsCodeLengthOnlyAfterExhaustingShorterCodes() {
+        BlockShortCodeGenerator generator = new BlockShortCodeGenerator(null, 1000, 2, true, 7L);
+        Set<String> codes = new HashSet<>();
+
+        long twoCharCodes = Base62.capacity(2);
+        for (long id = 0; id < twoCharCodes + 100; id++) {
+            String code = generator.encode(id);
+            assertEquals(id < twoCharCodes ? 2 : 3, code.length());
+            assertTrue(codes.add(code), "duplicate code " + code);
+        }
+    }
+
+    @Test
+    void sharesAGeneratedScrambleKeyThroughTheDatabase() {
+        Map<String, Long> rows = new HashMap<>();
+        ShortCodeBlockAllocator allocator = new ShortCodeBlockAllocator(null) {
+            @Override
+            public long leaseBlock(String name, int size) {
+                return 0;
+            }
+
+            @Override
+            public long getOrCreate(String name, long value) {
+                return rows.computeIfAbsent(name, key -> value);
+            }
+        };
+
+        // Two nodes without a configured key issue the same code for the same id
+        String first = new BlockShortCodeGenerator(allocator, 1000, 6, true, 0).nextShortCode(0);
+        String second = new BlockShortCodeGenerator(allocator, 1000, 6, true, 0).nextShortCode(0);
+        assertEquals(first, second);
+        assertEquals(Set.of(BlockShortCodeGenerator.SCRAMBLE_KEY_NAME), rows.keySet());
+        assertNotEquals(new BlockShortCodeGenerator(null, 1000, 6, false, 0).encode(0), first);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.urlshortener.shortcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortCodeTest {
+
+    @Test
+    void roundTripsCodesOfEveryLength() {
+        Random random = new Random(7);
+        for (int length = 1; length <= Base62.MAX_LENGTH; length++) {
+            for (int i = 0; i < 1000; i++) {
+                char[] code = new char[length];
+                for (int j = 0; j < length; j++) {
+                    code[j] = Base62.CHARACTERS.charAt(random.nextInt(Base62.BASE));
+                }
+                String shortUrl = new String(code);
+                long packed = ShortCode.encode(shortUrl);
+                assertTrue(packed > 0, shortUrl);
+                assertEquals(shortUrl, ShortCode.decode(packed));
+            }
+        }
+        assertEquals("9999999999", ShortCode.decode(ShortCode.encode("9999999999")));
+    }
+
+    @Test
+    void isBijectiveOverSmallValues() {
+        for (long packed = 1; packed < 100_000; packed++) {
+            assertEquals(packed, ShortCode.encode(ShortCode.decode(packed)));
+        }
+        assertEquals(ShortCode.NONE, ShortCode.encode(""));
+        assertEquals(ShortCode.NONE, ShortCode.encode("legacy-1"));
+        assertThrows(IllegalArgumentException.class, () -> ShortCode.decode(0));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.urlshortener.snapshot;
+
+import com.example.urlshortener.dto.SnapshotMapping;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotFormatTest {
+
+    private static final List<SnapshotMapping> MAPPINGS = List.of(
+        new SnapshotMapping("abc123", "https://example.com/a", true,
+                LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), null),
+        new SnapshotMapping("Zz9", "https://example.com/q?list=a,b&quote=\"x\"", false,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), LocalDateTime.of(2030, 1, 1, 0, 0)),
+        new SnapshotMapping("uni", "https://example.com/pfad/ü€😀", true,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 2, 0, 0, 0, 1_000))
+    );
+
+    @Test
+    void csvRoundTrips() throws IOException {
+        assertRoundTrip(SnapshotFormat.CSV);
+    }
+
+    @Test
+    void binaryRoundTrips() throws IOException {
+        assertRoundTrip(SnapshotFormat.BINARY);
+    }
+
+    @Test
+    void rejectsTruncatedBinaryPart() throws IOException {
+        byte[] bytes = write(SnapshotFormat.BINARY);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+
+        try (SnapshotFormat.PartReader reader = SnapshotFormat.BINARY.reader(new ByteArrayInputStream(truncated))) {
+            assertThrows(IOException.class, () -> {
+                while (reader.read() != null) {
+                    // Reads until the truncation is detected
+                }
+            });
+        }
+    }
+
+    private static void assertRoundTrip(SnapshotFormat format) throws IOException {
+        try (SnapshotFormat.PartReader reader = format.reader(new ByteArrayInputStream(write(format)))) {
+            for (SnapshotMapping expected : MAPPINGS) {
+                SnapshotMapping actual = reader.read();
+                assertEquals(expected.getShortUrl(), actual.getShortUrl());
+                assertEquals(expected.getLongUrl(), actual.getLongUrl());
+                assertEquals(expected.isEnabled(), actual.isEnabled());
+                assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+                assertEquals(expected.getExpiresAt(), actual.getExpiresAt());
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    private static byte[] write(SnapshotFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SnapshotFormat.PartWriter writer = format.writer(out)) {
+            for (SnapshotMapping mapping : MAPPINGS) {
+                writer.write(mapping);
+            }
+        }
+        return out.toByteArray();
+    }
+}
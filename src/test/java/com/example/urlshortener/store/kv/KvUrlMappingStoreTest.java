@@ -0,0 +1,175 @@
+package com.example.urlshortener.store.kv;
+
+import com.example.urlshortener.cache.CachedRedirect;
+import com.example.urlshortener.entity.UrlMappingEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KvUrlMappingStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void storesAndUpdatesMappings() throws IOException {
+        KvUrlMappingStore store = open();
+        List<UrlMappingEntity> mappings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            mappings.add(new UrlMappingEntity("code" + i, "https://example.com/" + i, true));
+        }
+        store.saveAll(mappings);
+
+        UrlMappingEntity mapping = store.findByShortUrl("code7").orElseThrow();
+        assertEquals(8L, mapping.getId());
+        assertEquals("https://example.com/7", mapping.getLongUrl());
+        assertEquals("code7", store.findByLongUrl("https://example.com/7").orElseThrow().getShortUrl());
+
+        mapping.setLongUrl("https://example.org/seven");
+        mapping.setEnabled(false);
+        store.save(mapping);
+
+        assertFalse(store.findRedirect("code7").orElseThrow().isEnabled());
+        assertTrue(store.findByLongUrl("https://example.com/7").isEmpty());
+        assertEquals(Set.of("https://example.org/seven"),
+                store.findShortUrlsByLongUrls(Set.of("https://example.org/seven", "https://example.com/7")).keySet());
+        assertEquals(100, store.count());
+        assertEquals(99, store.countEnabled());
+        assertEquals(List.of(9L, 10L), store.findPage(7, true, 2).stream().map(UrlMappingEntity::getId).toList());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.save(new UrlMappingEntity("code1", "https://example.com/other", true)));
+
+        List<UrlMappingEntity> changes = store.findChanges(mappings.get(98).getUpdatedAt(), 99, LocalDateTime.now(), 10);
+        assertEquals(List.of("code99", "code7"), changes.stream().map(UrlMappingEntity::getShortUrl).toList());
+        assertEquals(List.of("code99"), store.findChanges(mappings.get(98).getUpdatedAt(), 99, LocalDateTime.now(), 1)
+                .stream().map(UrlMappingEntity::getShortUrl).toList());
+        store.close();
+    }
+
+    @Test
+    void returnsEmptyPageAfterNewestId() throws IOException {
+        KvUrlMappingStore store = open();
+        store.save(new UrlMappingEntity("only", "https://example.com/only", true));
+
+        assertTrue(store.findPage(Long.MAX_VALUE, null, 10).isEmpty());
+        assertTrue(store.findPage(1, null, 10).isEmpty());
+        assertEquals(List.of("only"), store.findPage(-5, null, 10).stream().map(UrlMappingEntity::getShortUrl).toList());
+        store.close();
+    }
+
+    @Test
+    void recoversAfterCrashWithTornRecord() throws IOException {
+        KvUrlMappingStore store = open();
+        store.save(new UrlMappingEntity("first", "https://example.com/1", true));
+        store.save(new UrlMappingEntity("second", "https://example.com/2", true));
+        // No close: the indexes are rebuilt from the log
+
+        Path logFile = dir.resolve("mappings-0.log");
+        long end = lastNonZero(logFile) + 8 & ~7L;
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(64).putInt(12345).putInt(0x01010000).flip(), end);
+        }
+
+        KvUrlMappingStore recovered = open();
+        assertEquals(2, recovered.count());
+        assertEquals("https://example.com/2", recovered.findByShortUrl("second").orElseThrow().getLongUrl());
+
+        UrlMappingEntity third = recovered.save(new UrlMappingEntity("third", "https://example.com/3", true));
+        assertEquals(3L, third.getId());
+        recovered.close();
+
+        KvUrlMappingStore reopened = open();
+        assertEquals(3, reopened.count());
+        assertTrue(reopened.existsByShortUrl("third"));
+        reopened.close();
+    }
+
+    @Test
+    void compactsSupersededRecords() throws IOException {
+        KvUrlMappingStore store = open();
+        UrlMappingEntity mapping = store.save(new UrlMappingEntity("flip", "https://example.com/flip", true));
+        store.save(new UrlMappingEntity("stable", "https://example.com/stable", true));
+        for (int i = 0; i < 50; i++) {
+            mapping.setEnabled(!mapping.isEnabled());
+            store.save(mapping);
+        }
+
+        store.compactIfNeeded();
+        assertTrue(Files.exists(dir.resolve("mappings-1.log")));
+        assertFalse(Files.exists(dir.resolve("mappings-0.log")));
+        assertTrue(store.findRedirect("flip").orElseThrow().isEnabled());
+        assertEquals(2, store.count());
+        store.close();
+
+        KvUrlMappingStore reopened = open();
+        assertEquals(List.of("flip", "stable"),
+                reopened.findPage(0, null, 10).stream().map(UrlMappingEntity::getShortUrl).toList());
+        reopened.close();
+    }
+
+    @Test
+    void storesExpiryAndDisablesExpiredMappings() throws IOException {
+        LocalDateTime expiresAt = LocalDateTime.of(2030, 1, 1, 12, 0);
+        KvUrlMappingStore store = open();
+        store.save(new UrlMappingEntity("forever", "https://example.com/same", true));
+        UrlMappingEntity expiring = new UrlMappingEntity("brief", "https://example.com/same", true);
+        expiring.setExpiresAt(expiresAt);
+        store.save(expiring);
+
+        assertEquals("forever", store.findByLongUrl("https://example.com/same").orElseThrow().getShortUrl());
+        assertEquals(expiresAt, store.findByShortUrl("brief").orElseThrow().getExpiresAt());
+        assertTrue(store.findRedirect("brief").orElseThrow().isExpired(CachedRedirect.toMillis(expiresAt)));
+        assertFalse(store.findRedirect("forever").orElseThrow().isExpired(Long.MAX_VALUE - 1));
+
+        List<UrlMappingEntity> expired = store.findExpired(LocalDateTime.MIN, expiresAt, true, 10);
+        assertEquals(List.of("brief"), expired.stream().map(UrlMappingEntity::getShortUrl).toList());
+        assertEquals(1, store.disableAll(expired));
+        assertEquals(0, store.disableAll(expired));
+        store.close();
+
+        KvUrlMappingStore reopened = open();
+        UrlMappingEntity disabled = reopened.findByShortUrl("brief").orElseThrow();
+        assertFalse(disabled.isEnabled());
+        assertEquals(expiresAt, disabled.getExpiresAt());
+        assertTrue(reopened.findExpired(LocalDateTime.MIN, expiresAt, true, 10).isEmpty());
+        // The expiry index is rebuilt from the checkpointed id index
+        assertEquals(List.of("brief"),
+                reopened.findExpired(LocalDateTime.MIN, expiresAt, false, 10).stream().map(UrlMappingEntity::getShortUrl).toList());
+        assertTrue(reopened.findExpired(expiresAt.plusNanos(1000), LocalDateTime.MAX, false, 10).isEmpty());
+        reopened.close();
+    }
+
+    private KvUrlMappingStore open() throws IOException {
+        KvUrlMappingStore store = new KvUrlMappingStore(dir.toString(), false, DataSize.ofKilobytes(64), 16,
+                Duration.ofMinutes(1), 0.5, DataSize.ofBytes(0), null);
+        store.open();
+        return store;
+    }
+
+    private static long lastNonZero(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int i = bytes.length - 1;
+        while (i >= 0 && bytes[i] == 0) {
+            i--;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.urlshortener.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer();
+
+    @Test
+    void returnsCanonicalInputUnchanged() {
+        String url = "https://www.example.com/path/to/page?q=spring+boot&page=2#top";
+        assertSame(url, canonicalizer.canonicalize(url));
+    }
+
+    @Test
+    void canonicalizesEquivalentSpellingsToTheSameUrl() {
+        assertEquals("http://example.com/", canonicalizer.canonicalize("  HTTP://Example.COM:80 "));
+        assertEquals("http://example.com/", canonicalizer.canonicalize("http://example.com"));
+        assertEquals("https://example.com/?a=1", canonicalizer.canonicalize("https://example.com:443?a=1"));
+        assertEquals("https://example.com:8443/", canonicalizer.canonicalize("https://example.com:08443/"));
+        assertEquals("http://example.com/~user/a%2Fb", canonicalizer.canonicalize("http://example.com/%7Euser/a%2fb"));
+    }
+
+    @Test
+    void encodesCharactersThatAreNotAllowed() {
+        assertEquals("https://example.com/caf%C3%A9?x=%5B1%5D&p=50%25#a%23b",
+                canonicalizer.canonicalize("https://example.com/café?x=[1]&p=50%#a#b"));
+        assertEquals("https://example.com/%F0%9F%98%80", canonicalizer.canonicalize("https://example.com/😀"));
+    }
+
+    @Test
+    void convertsInternationalizedHostsToPunycode() {
+        assertEquals("https://xn--bcher-kva.example/", canonicalizer.canonicalize("https://Bücher.example"));
+    }
+
+    @Test
+    void rejectsInvalidUrls() {
+        for (String url : new String[] {
+            "ftp://example.com/", "https://localhost/", "https://example..com/", "https://example.com./",
+            "https://user@example.com/", "https://example.com:99999/", "https://example.com/a b",
+            "https://exa mple.com/", "https://example.com/\uD83D", "example.com"
+        }) {
+            assertFalse(canonicalizer.isValid(url), url);
+        }
+        assertThrows(IllegalArgumentException.class, () -> canonicalizer.canonicalize("   "));
+        assertThrows(IllegalArgumentException.class,
+                () -> canonicalizer.canonicalize("https://example.com/" + "a".repeat(UrlCanonicalizer.MAX_LENGTH)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.urlshortener.writebehind;
+
+import com.example.urlshortener.dto.MappingUpdate;
+import com.example.urlshortener.entity.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysUpdatesOfEverySegmentInOrder() throws IOException {
+        UpdateLog log = new UpdateLog(dir, true);
+        log.roll();
+        log.append(List.of(
+                new MappingUpdate("first", "https://example.com/ü", null, ChangeType.URL_UPDATED),
+                new MappingUpdate("second", null, false, ChangeType.DISABLED)));
+        log.roll();
+        log.append(List.of(new MappingUpdate("first", null, true, null)));
+        // No close: a crash leaves both segments behind
+
+        List<MappingUpdate> replayed = replay(new UpdateLog(dir, true));
+        assertEquals(List.of("first", "second", "first"), replayed.stream().map(MappingUpdate::getShortUrl).toList());
+        assertEquals("https://example.com/ü", replayed.get(0).getLongUrl());
+        assertNull(replayed.get(0).getEnabled());
+        assertEquals(ChangeType.URL_UPDATED, replayed.get(0).getLastChange());
+        assertNull(replayed.get(1).getLongUrl());
+        assertFalse(replayed.get(1).getEnabled());
+        assertTrue(replayed.get(2).getEnabled());
+        assertNull(replayed.get(2).getLastChange());
+        log.close();
+    }
+
+    @Test
+    void stopsAtTornOrCorruptRecords() throws IOException {
+        UpdateLog log = new UpdateLog(dir, false);
+        long torn = log.roll();
+        log.append(List.of(new MappingUpdate("kept", null, false, ChangeType.DISABLED)));
+        long intact = Files.size(file(torn));
+        log.append(List.of(new MappingUpdate("torn", "https://example.com/torn", null, ChangeType.URL_UPDATED)));
+        long corrupt = log.roll();
+        log.append(List.of(
+                new MappingUpdate("flipped", null, true, ChangeType.ENABLED),
+                new MappingUpdate("after", null, true, ChangeType.ENABLED)));
+        log.close();
+
+        // A write cut short by the crash, and a bit flipped in the first record of the next segment
+        try (FileChannel channel = FileChannel.open(file(torn), StandardOpenOption.WRITE)) {
+            channel.truncate(intact + 10);
+        }
+        byte[] bytes = Files.readAllBytes(file(corrupt));
+        bytes[12] ^= 1;
+        Files.write(file(corrupt), bytes);
+
+        assertEquals(List.of("kept"), replay(new UpdateLog(dir, false)).stream().map(MappingUpdate::getShortUrl).toList());
+    }
+
+    @Test
+    void discardsWhatAFailedAppendWrote() throws IOException {
+        AtomicBoolean diskFull = new AtomicBoolean();
+        UpdateLog log = new UpdateLog(dir, false) {
+            @Override
+            int write(FileChannel channel, ByteBuffer buffer) throws IOException {
+                if (diskFull.get()) {
+                    // Half the batch reaches the segment before the write fails
+                    buffer.limit(buffer.position() + buffer.remaining() / 2);
+                    channel.write(buffer);
+                    throw new IOException("No space left on device");
+                }
+                return super.write(channel, buffer);
+            }
+        };
+        log.roll();
+        log.append(List.of(new MappingUpdate("first", null, false, ChangeType.DISABLED)));
+        diskFull.set(true);
+        assertThrows(IOException.class, () ->
+                log.append(List.of(new MappingUpdate("second", "https://example.com/second", null, ChangeType.URL_UPDATED))));
+        diskFull.set(false);
+        log.append(List.of(new MappingUpdate("third", null, true, ChangeType.ENABLED)));
+        log.close();
+
+        assertEquals(List.of("first", "third"),
+                replay(new UpdateLog(dir, false)).stream().map(MappingUpdate::getShortUrl).toList());
+    }
+
+    @Test
+    void ignoresZeroFilledTail() throws IOException {
+        UpdateLog log = new UpdateLog(dir, false);
+        long segment = log.roll();
+        log.append(List.of(new MappingUpdate("only", null, false, ChangeType.DISABLED)));
+        log.close();
+        try (FileChannel channel = FileChannel.open(file(segment), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(64));
+        }
+
+        assertEquals(List.of("only"), replay(new UpdateLog(dir, false)).stream().map(MappingUpdate::getShortUrl).toList());
+    }
+
+    @Test
+    void deletesFlushedSegments() throws IOException {
+        UpdateLog log = new UpdateLog(dir, true);
+        log.roll();
+        log.append(List.of(new MappingUpdate("flushed", null, false, ChangeType.DISABLED)));
+        long keepFrom = log.roll();
+        log.append(List.of(new MappingUpdate("pending", null, true, ChangeType.ENABLED)));
+        log.deleteBefore(keepFrom);
+        log.close();
+
+        UpdateLog reopened = new UpdateLog(dir, true);
+        assertEquals(List.of("pending"), replay(reopened).stream().map(MappingUpdate::getShortUrl).toList());
+        // New segments continue the numbering, so they sort after the surviving one
+        assertEquals(keepFrom + 1, reopened.roll());
+        reopened.close();
+    }
+
+    private Path file(long segment) {
+        return dir.resolve("updates-" + segment + ".wal");
+    }
+
+    private static List<MappingUpdate> replay(UpdateLog log) throws IOException {
+        List<MappingUpdate> updates = new ArrayList<>();
+        log.replay(updates::add);
+        return updates;
+    }
+}